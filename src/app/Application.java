@@ -4,9 +4,13 @@ import collection.SaxGraph;
 import custom_data_structures.MyArrayList;
 import app.model.Station;
 
+import java.io.IOException;
 import java.util.Scanner;
 
 public class Application {
+    // Maximum number of typos in a station name for which similar names are suggested
+    private static final int SUGGESTION_DISTANCE = 2;
+    private static final int SUGGESTION_LIMIT = 5;
 
     Scanner scanner = new Scanner(System.in);
     TrackManager manager = new TrackManager();
@@ -14,8 +18,15 @@ public class Application {
     public static void main(String[] args) {
 
         Application app = new Application();
+        try {
+            // pick up timetable updates without restarting
+            app.manager.watchForChanges();
+        } catch (IOException e) {
+            System.err.println("Not watching the data files for changes: " + e.getMessage());
+        }
 
         app.handleMenu();
+        app.manager.close();
 
     }
 
@@ -137,8 +148,8 @@ public class Application {
 
             if (name.isEmpty()) {
                 System.out.println("Station name can not be empty. Please enter a station name");
-            } else if (!validateStringInput(name)) {
-                System.out.println("Invalid station name. Station type should contain only letters. Please try again.");
+            } else if (!validateStationNameInput(name)) {
+                System.out.println("Invalid station name. Station name should contain only letters, digits and punctuation. Please try again.");
                 name = "";
             }
 
@@ -152,6 +163,14 @@ public class Application {
             for (Station station : stationsByName) {
                 System.out.println(station);
             }
+        } else {
+            MyArrayList<Station> suggestions = manager.getStationsBySimilarName(name, SUGGESTION_DISTANCE, SUGGESTION_LIMIT);
+            if (!suggestions.isEmpty()) {
+                System.out.println("Did you mean:");
+                for (Station station : suggestions) {
+                    System.out.println(station);
+                }
+            }
         }
 
     }
@@ -203,26 +222,26 @@ public class Application {
         String endStation = "";
 
 
-        while (startStation.isEmpty() || !validateStringInput(startStation)) {
+        while (startStation.isEmpty() || !validateStationNameInput(startStation)) {
             System.out.print("Please enter the starting station name: ");
             startStation = scanner.nextLine().trim();
 
             if (startStation.isEmpty()) {
                 System.out.println("Starting station name cannot be empty. Please try again.");
-            } else if (!validateStringInput(startStation)) {
-                System.out.println("Invalid input. Station name should contain only letters. Please try again.");
+            } else if (!validateStationNameInput(startStation)) {
+                System.out.println("Invalid input. Station name should contain only letters, digits and punctuation. Please try again.");
                 startStation = "";
             }
         }
 
-        while (endStation.isEmpty() || !validateStringInput(endStation)) {
+        while (endStation.isEmpty() || !validateStationNameInput(endStation)) {
             System.out.print("Please enter the ending station name: ");
             endStation = scanner.nextLine().trim();
 
             if (endStation.isEmpty()) {
                 System.out.println("Ending station name cannot be empty. Please try again.");
-            } else if (!validateStringInput(endStation)) {
-                System.out.println("Invalid input. Station name should contain only letters. Please try again.");
+            } else if (!validateStationNameInput(endStation)) {
+                System.out.println("Invalid input. Station name should contain only letters, digits and punctuation. Please try again.");
                 endStation = "";
             }
         }
@@ -288,5 +307,17 @@ public class Application {
         return input.matches("[\\p{L}\\s\\-\\(\\)]+");
     }
 
+    /**
+     * Helper method to validate a station name, which besides letters, spaces, hyphens and parentheses
+     * may contain digits, apostrophes and dots, as in 's-Hertogenbosch or Gronau (Westf.).
+     *
+     * @param input The station name to validate.
+     * @return true if the input is valid, false otherwise.
+     */
+
+    private boolean validateStationNameInput(String input) {
+        return input.matches("[\\p{L}\\p{N}\\s\\-\\(\\)'.]+");
+    }
+
 
 }
@@ -0,0 +1,348 @@
+package app;
+
+import app.model.Station;
+import app.model.StationTable;
+import collection.DuplicateKeyException;
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyHashMap;
+import custom_data_structures.MyOffHeapGraph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The stations and the graph of a loaded rail network in a compact binary file, so the next start can map the file
+ * and skip reading the CSV files. The file remembers the size and modification time of the CSV files it was made
+ * from and is only used while they are unchanged.
+ * <p>
+ * All numbers are big-endian. The file consists of:
+ * </p>
+ * <ul>
+ *     <li>a header: a magic number, the version, the size and modification time of the stations and the tracks file,
+ *     and the number of strings, stations, vertices and edges;</li>
+ *     <li>a string table with every distinct code, name, country and type: per string its number of bytes
+ *     followed by the UTF-8 bytes;</li>
+ *     <li>the station columns: code, name, country and type (as numbers in the string table), latitude and longitude;</li>
+ *     <li>the graph in compressed sparse row form, like {@link NetworkSnapshot}: the code of every vertex, the offsets
+ *     of the edges per vertex (one more than the vertices), and the targets (vertex numbers) and weights of the edges.</li>
+ * </ul>
+ * The vertices are numbered like in the snapshot: the stations first, then codes that only occur as the target of
+ * a track.
+ */
+class NetworkFile {
+    private static final int MAGIC = 0x524E4554; // "RNET"
+    private static final int VERSION = 1;
+
+    final StationTable stations;
+    final NetworkSnapshot snapshot;
+
+    private NetworkFile(StationTable stations, NetworkSnapshot snapshot) {
+        this.stations = stations;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Takes the size and modification time of the CSV files, before they are read, to store in or compare with
+     * the header of a network file.
+     * @param stationsFile The CSV file with the stations.
+     * @param tracksFile The CSV file with the tracks.
+     * @return The size and modification time (in milliseconds) of both files.
+     * @throws IOException If a file cannot be found.
+     */
+
+    static long[] stampOf(Path stationsFile, Path tracksFile) throws IOException {
+        return new long[]{
+                Files.size(stationsFile), Files.getLastModifiedTime(stationsFile).toMillis(),
+                Files.size(tracksFile), Files.getLastModifiedTime(tracksFile).toMillis()};
+    }
+
+    /**
+     * Reads a network file by mapping it into memory. The graph columns are already numbered like a snapshot, so
+     * they become the arrays of the snapshot as they are; no graph is built edge by edge.
+     * @param file The network file.
+     * @param stamp The stamp of the CSV files, see {@link #stampOf(Path, Path)}.
+     * @return The stations and the snapshot of the graph, or null if there is no network file, or it belongs to other
+     * (versions of the) CSV files, or it is not a valid network file.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+
+    static NetworkFile read(Path file, long[] stamp) throws IOException {
+        try {
+            ByteBuffer buffer = map(file);
+            if (buffer == null) {
+                return null;
+            }
+            Header header = readHeader(buffer, stamp);
+            if (header == null) {
+                return null;
+            }
+            String[] strings = header.strings();
+            int stationCount = header.stationCount();
+            int vertexCount = header.vertexCount();
+            int edgeCount = header.edgeCount();
+
+            int[] codes = readInts(buffer, stationCount);
+            int[] names = readInts(buffer, stationCount);
+            int[] countries = readInts(buffer, stationCount);
+            int[] types = readInts(buffer, stationCount);
+            double[] latitudes = readDoubles(buffer, stationCount);
+            double[] longitudes = readDoubles(buffer, stationCount);
+            StationTable stations = new StationTable();
+            for (int i = 0; i < stationCount; i++) {
+                stations.add(strings[codes[i]], strings[names[i]], strings[countries[i]],
+                        strings[types[i]], latitudes[i], longitudes[i]);
+            }
+
+            int[] vertexCodes = readInts(buffer, vertexCount);
+            String[] vertices = new String[vertexCount];
+            // the stations are the first vertices, unless a code occurs twice; only then they have coordinates
+            boolean stationsFirst = stationCount <= vertexCount;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                vertices[vertex] = strings[vertexCodes[vertex]];
+                if (vertex < stationCount && vertexCodes[vertex] != codes[vertex]) {
+                    stationsFirst = false;
+                }
+            }
+            NetworkSnapshot snapshot = new NetworkSnapshot(vertices, readInts(buffer, vertexCount + 1),
+                    readInts(buffer, edgeCount), readDoubles(buffer, edgeCount),
+                    stationsFirst ? latitudes : new double[0], stationsFirst ? longitudes : new double[0]);
+            return new NetworkFile(stations, snapshot);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | NegativeArraySizeException | DuplicateKeyException e) {
+            return null; // a damaged or cut off file, or one too large to map
+        }
+    }
+
+    /**
+     * Maps the graph of a network file into memory as an off-heap graph. The offsets, targets and weights of the
+     * edges and the coordinates of the stations are used straight from the mapped file, so they are not copied onto
+     * the heap and the operating system keeps one copy of them for all processes that map the file. Only the codes
+     * of the vertices are read onto the heap. The graph is read-only.
+     * @param file The network file.
+     * @param stamp The stamp of the CSV files, see {@link #stampOf(Path, Path)}.
+     * @return The graph of the whole rail network, or null if there is no network file, or it belongs to other
+     * (versions of the) CSV files, or it is not a valid network file.
+     * @throws IOException If an I/O error occurs while mapping the file.
+     */
+
+    static MyOffHeapGraph<String> mapGraph(Path file, long[] stamp) throws IOException {
+        try {
+            ByteBuffer buffer = map(file);
+            if (buffer == null) {
+                return null;
+            }
+            Header header = readHeader(buffer, stamp);
+            if (header == null) {
+                return null;
+            }
+            int stationCount = header.stationCount();
+            int vertexCount = header.vertexCount();
+            int edgeCount = header.edgeCount();
+            int codesStart = buffer.position();
+            int latitudesStart = codesStart + 4 * stationCount * Integer.BYTES;
+            int longitudesStart = latitudesStart + stationCount * Double.BYTES;
+            int vertexCodesStart = longitudesStart + stationCount * Double.BYTES;
+            int offsetsStart = vertexCodesStart + vertexCount * Integer.BYTES;
+            int targetsStart = offsetsStart + (vertexCount + 1) * Integer.BYTES;
+            int weightsStart = targetsStart + edgeCount * Integer.BYTES;
+
+            MyArrayList<String> vertices = new MyArrayList<>(Math.max(vertexCount, 1));
+            // the stations are the first vertices, unless a code occurs twice; only then they have coordinates
+            boolean stationsFirst = stationCount <= vertexCount;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                int code = buffer.getInt(vertexCodesStart + vertex * Integer.BYTES);
+                vertices.addLast(header.strings()[code]);
+                if (vertex < stationCount && code != buffer.getInt(codesStart + vertex * Integer.BYTES)) {
+                    stationsFirst = false;
+                }
+            }
+            return new MyOffHeapGraph<>(vertices,
+                    buffer.slice(offsetsStart, (vertexCount + 1) * Integer.BYTES),
+                    buffer.slice(targetsStart, edgeCount * Integer.BYTES),
+                    buffer.slice(weightsStart, edgeCount * Double.BYTES),
+                    stationsFirst ? buffer.slice(latitudesStart, stationCount * Double.BYTES) : null,
+                    stationsFirst ? buffer.slice(longitudesStart, stationCount * Double.BYTES) : null);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | NegativeArraySizeException | DuplicateKeyException e) {
+            return null; // a damaged or cut off file, or one too large to map
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * The counts and the string table at the start of a network file.
+     */
+    private record Header(String[] strings, int stationCount, int vertexCount, int edgeCount) {
+    }
+
+    /**
+     * Reads the header and the string table, leaving the buffer at the station columns.
+     * @return The header, or null if the buffer is not a network file of this version for the stamp.
+     */
+
+    private static Header readHeader(ByteBuffer buffer, long[] stamp) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        for (long value : stamp) {
+            if (buffer.getLong() != value) {
+                return null;
+            }
+        }
+        String[] strings = new String[buffer.getInt()];
+        int stationCount = buffer.getInt();
+        int vertexCount = buffer.getInt();
+        int edgeCount = buffer.getInt();
+
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            buffer.get(bytes, 0, length);
+            strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return new Header(strings, stationCount, vertexCount, edgeCount);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int count) {
+        double[] values = new double[count];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + count * Double.BYTES);
+        return values;
+    }
+
+    /**
+     * Writes the stations and the snapshot of the graph to a network file. The file is written to a temporary file
+     * of its own next to the target and then moved over it, so a reader never sees a partly written file, also when
+     * several processes write it at the same time. The temporary file is removed if writing or moving fails.
+     * @param file The network file.
+     * @param stamp The stamp of the CSV files, taken before they were read, see {@link #stampOf(Path, Path)}.
+     * @param stations The stations, in the order of the snapshot.
+     * @param snapshot The snapshot of the graph of the whole rail network.
+     * @throws IOException If an I/O error occurs while writing the file.
+     */
+
+    static void write(Path file, long[] stamp, Iterable<Station> stations, NetworkSnapshot snapshot) throws IOException {
+        MyArrayList<String> strings = new MyArrayList<>();
+        MyHashMap<String, Integer> stringNumbers = new MyHashMap<>();
+        MyArrayList<Station> stationList = new MyArrayList<>();
+        for (Station station : stations) {
+            stationList.addLast(station);
+            numberOf(station.getCode(), strings, stringNumbers);
+            numberOf(station.getName(), strings, stringNumbers);
+            numberOf(station.getCountry(), strings, stringNumbers);
+            numberOf(station.getType(), strings, stringNumbers);
+        }
+        int vertexCount = snapshot.size();
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            numberOf(snapshot.getCode(vertex), strings, stringNumbers); // codes that only occur as a target
+        }
+
+        // a file of its own, so processes that start together never write into each other's file
+        Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        boolean moved = false;
+        try {
+            writeTo(temporaryFile, stamp, strings, stringNumbers, stationList, snapshot);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    private static void writeTo(Path temporaryFile, long[] stamp, MyArrayList<String> strings,
+                                MyHashMap<String, Integer> stringNumbers, MyArrayList<Station> stationList,
+                                NetworkSnapshot snapshot) throws IOException {
+        int vertexCount = snapshot.size();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (long value : stamp) {
+                out.writeLong(value);
+            }
+            out.writeInt(strings.size());
+            out.writeInt(stationList.size());
+            out.writeInt(vertexCount);
+            out.writeInt(snapshot.getNumberOfEdges());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            for (Station station : stationList) {
+                out.writeInt(stringNumbers.get(station.getCode()));
+            }
+            for (Station station : stationList) {
+                out.writeInt(stringNumbers.get(station.getName()));
+            }
+            for (Station station : stationList) {
+                out.writeInt(stringNumbers.get(station.getCountry()));
+            }
+            for (Station station : stationList) {
+                out.writeInt(stringNumbers.get(station.getType()));
+            }
+            for (Station station : stationList) {
+                out.writeDouble(station.getLatitude());
+            }
+            for (Station station : stationList) {
+                out.writeDouble(station.getLongitude());
+            }
+
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                out.writeInt(stringNumbers.get(snapshot.getCode(vertex)));
+            }
+            int offset = 0;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                out.writeInt(offset);
+                offset += snapshot.getEndEdge(vertex) - snapshot.getFirstEdge(vertex);
+            }
+            out.writeInt(offset);
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                for (int edge = snapshot.getFirstEdge(vertex); edge < snapshot.getEndEdge(vertex); edge++) {
+                    out.writeInt(snapshot.getTarget(edge));
+                }
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                for (int edge = snapshot.getFirstEdge(vertex); edge < snapshot.getEndEdge(vertex); edge++) {
+                    out.writeDouble(snapshot.getWeight(edge));
+                }
+            }
+        }
+    }
+
+    private static void numberOf(String string, MyArrayList<String> strings, MyHashMap<String, Integer> stringNumbers) {
+        if (!stringNumbers.contains(string)) {
+            stringNumbers.add(string, strings.size());
+            strings.addLast(string);
+        }
+    }
+}
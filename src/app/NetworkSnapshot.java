@@ -0,0 +1,796 @@
+package app;
+
+import app.model.Station;
+import collection.DuplicateKeyException;
+import collection.KeyNotFoundException;
+import collection.SaxGraph;
+import collection.SaxGraph.DirectedEdge;
+import collection.SaxList;
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyGraph;
+import custom_data_structures.MyHashMap;
+import custom_data_structures.MyIntMinHeap;
+import custom_data_structures.MyRoaringBitmap;
+import custom_data_structures.MySubgraphView;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, read-only copy of a rail network graph for answering queries from many threads at the same time.
+ * <p>
+ * The stations are numbered 0 .. size() - 1 and the edges are stored in compressed sparse row form: the edges of
+ * station v are the positions offsets[v] .. offsets[v + 1] - 1 of the targets and weights arrays. All arrays are
+ * final and filled in the constructor, so a snapshot can be handed to other threads without any locking.
+ * <p>
+ * A track update does not copy the whole network: {@link #withChangedEdges} makes a new snapshot which shares the
+ * arrays of this one and only holds new rows for the stations whose tracks changed, in a small overlay with its own
+ * edge numbers (from the number of base edges up). A search looks a station up in the overlay first. Once the
+ * overlay grows beyond an eighth of the base edges, the next update takes a complete new snapshot instead.
+ * <p>
+ * The searches need per-query state (distances, parents, a heap); every thread gets its own set of these
+ * buffers, which are reused by all its queries, on all snapshots, instead of being allocated (or shared) per query.
+ * The buffers grow when a snapshot needs more room. They are cleared by increasing a stamp instead of filling
+ * the arrays.
+ */
+public class NetworkSnapshot {
+    private static final double EARTH_RADIUS = 6371; // kilometers
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final String[] codes;
+    private final MyHashMap<String, Integer> indexByCode;
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] weights;
+    private final double[] latitudes; // radians
+    private final double[] longitudes; // radians
+    // factor for the straight-line distance, so it never exceeds the track distance (0 disables the A* estimate)
+    private final double estimateScale;
+
+    // the overlay: the replaced rows, for the stations in changedVertices (sorted), in the same form as the base
+    private final long[] changedMask; // a bit per station, to skip the binary search for the unchanged ones
+    private final int[] changedVertices;
+    private final int[] overlayOffsets;
+    private final int[] overlaySources;
+    private final int[] overlayTargets;
+    private final double[] overlayWeights;
+    private final int edgeCount;
+
+    /**
+     * Copies the graph. Every station becomes a vertex, even without tracks; codes which only occur in the graph
+     * are added as well (without coordinates).
+     *
+     * @param graph    the rail network, with station codes as vertices and distances as weights
+     * @param stations the stations, for their coordinates
+     */
+    public NetworkSnapshot(SaxGraph<String> graph, Iterable<Station> stations) {
+        indexByCode = new MyHashMap<>();
+        MyArrayList<String> vertexCodes = new MyArrayList<>();
+        MyArrayList<Station> vertexStations = new MyArrayList<>();
+        for (Station station : stations) {
+            if (!indexByCode.contains(station.getCode())) {
+                indexByCode.add(station.getCode(), vertexCodes.size());
+                vertexCodes.addLast(station.getCode());
+                vertexStations.addLast(station);
+            }
+        }
+
+        // vertices found as targets are appended, so the loop also visits them
+        MyArrayList<SaxList<DirectedEdge<String>>> vertexEdges = new MyArrayList<>();
+        int edgeCount = 0;
+        for (int vertex = 0; vertex < vertexCodes.size(); vertex++) {
+            SaxList<DirectedEdge<String>> edges = edgesOf(graph, vertexCodes.get(vertex));
+            for (DirectedEdge<String> edge : edges) {
+                if (!indexByCode.contains(edge.to())) {
+                    indexByCode.add(edge.to(), vertexCodes.size());
+                    vertexCodes.addLast(edge.to());
+                    vertexStations.addLast(null);
+                }
+            }
+            vertexEdges.addLast(edges);
+            edgeCount += edges.size();
+        }
+
+        int vertexCount = vertexCodes.size();
+        codes = new String[vertexCount];
+        latitudes = new double[vertexCount];
+        longitudes = new double[vertexCount];
+        offsets = new int[vertexCount + 1];
+        sources = new int[edgeCount];
+        targets = new int[edgeCount];
+        weights = new double[edgeCount];
+        boolean allCoordinates = true;
+        int edge = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            codes[vertex] = vertexCodes.get(vertex);
+            Station station = vertexStations.get(vertex);
+            if (station != null) {
+                latitudes[vertex] = Math.toRadians(station.getLatitude());
+                longitudes[vertex] = Math.toRadians(station.getLongitude());
+            } else {
+                allCoordinates = false;
+            }
+            offsets[vertex] = edge;
+            for (DirectedEdge<String> directedEdge : vertexEdges.get(vertex)) {
+                sources[edge] = vertex;
+                targets[edge] = indexByCode.get(directedEdge.to());
+                weights[edge] = directedEdge.weight();
+                edge++;
+            }
+        }
+        offsets[vertexCount] = edge;
+        estimateScale = allCoordinates ? estimateScale() : 0;
+        changedMask = new long[(vertexCount + 63) / 64];
+        changedVertices = new int[0];
+        overlayOffsets = new int[1];
+        overlaySources = new int[0];
+        overlayTargets = new int[0];
+        overlayWeights = new double[0];
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Takes over a graph that is already in compressed sparse row form, like the columns of a network file, without
+     * building anything edge by edge. The arrays are kept, so they must not be changed afterwards.
+     *
+     * @param codes      the code of every vertex; the stations first
+     * @param offsets    the first edge of every vertex, and the number of edges at the end
+     * @param targets    the vertex numbers the edges point to
+     * @param weights    the distances of the edges
+     * @param latitudes  the latitudes of the stations, in degrees; shorter than codes if some vertices have none
+     * @param longitudes the longitudes of the stations, in degrees
+     * @throws DuplicateKeyException if a code occurs twice
+     * @throws IndexOutOfBoundsException if the offsets or targets do not fit the other arrays
+     */
+    NetworkSnapshot(String[] codes, int[] offsets, int[] targets, double[] weights,
+                    double[] latitudes, double[] longitudes) {
+        int vertexCount = codes.length;
+        if (offsets.length != vertexCount + 1 || offsets[vertexCount] != targets.length
+                || weights.length != targets.length || latitudes.length > vertexCount) {
+            throw new IndexOutOfBoundsException("The columns of the graph do not fit together");
+        }
+        this.codes = codes;
+        indexByCode = new MyHashMap<>();
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            indexByCode.add(codes[vertex], vertex);
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        sources = new int[targets.length];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            Arrays.fill(sources, offsets[vertex], offsets[vertex + 1], vertex);
+        }
+        for (int target : targets) {
+            if (target < 0 || target >= vertexCount) {
+                throw new IndexOutOfBoundsException("Edge to vertex " + target);
+            }
+        }
+        this.latitudes = new double[vertexCount];
+        this.longitudes = new double[vertexCount];
+        for (int vertex = 0; vertex < latitudes.length; vertex++) {
+            this.latitudes[vertex] = Math.toRadians(latitudes[vertex]);
+            this.longitudes[vertex] = Math.toRadians(longitudes[vertex]);
+        }
+        estimateScale = latitudes.length == vertexCount ? estimateScale() : 0;
+        changedMask = new long[(vertexCount + 63) / 64];
+        changedVertices = new int[0];
+        overlayOffsets = new int[1];
+        overlaySources = new int[0];
+        overlayTargets = new int[0];
+        overlayWeights = new double[0];
+        edgeCount = targets.length;
+    }
+
+    private NetworkSnapshot(NetworkSnapshot base, double estimateScale, long[] changedMask, int[] changedVertices,
+                            int[] overlayOffsets, int[] overlaySources, int[] overlayTargets, double[] overlayWeights,
+                            int edgeCount) {
+        codes = base.codes;
+        indexByCode = base.indexByCode;
+        offsets = base.offsets;
+        sources = base.sources;
+        targets = base.targets;
+        weights = base.weights;
+        latitudes = base.latitudes;
+        longitudes = base.longitudes;
+        this.estimateScale = estimateScale;
+        this.changedMask = changedMask;
+        this.changedVertices = changedVertices;
+        this.overlayOffsets = overlayOffsets;
+        this.overlaySources = overlaySources;
+        this.overlayTargets = overlayTargets;
+        this.overlayWeights = overlayWeights;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Makes the snapshot of the graph after the edges of some stations were changed. Only the edges of the changed
+     * stations are read from the graph; the rest is shared with this snapshot, which stays as it is. A complete new
+     * snapshot is taken when a station or track target is new, or when the overlay gets too big.
+     *
+     * @param graph        the changed rail network
+     * @param stations     the stations, for a complete new snapshot
+     * @param changedCodes the codes of the stations whose outgoing edges were added, removed or re-weighted
+     * @return the snapshot of the changed graph
+     */
+    public NetworkSnapshot withChangedEdges(SaxGraph<String> graph, Iterable<Station> stations,
+                                            Iterable<String> changedCodes) {
+        long[] mask = changedMask.clone();
+        MyArrayList<Integer> changed = new MyArrayList<>();
+        for (String code : changedCodes) {
+            int vertex;
+            try {
+                vertex = indexByCode.get(code);
+            } catch (KeyNotFoundException e) {
+                return new NetworkSnapshot(graph, stations);
+            }
+            if (!changed.contains(vertex)) {
+                changed.addLast(vertex);
+            }
+            mask[vertex >> 6] |= 1L << vertex;
+        }
+
+        // the rows of the new overlay: the old rows which did not change again, and the changed ones
+        int[] vertices = new int[changedVertices.length + changed.size()];
+        int vertexCount = 0;
+        for (int vertex : changedVertices) {
+            if (!changed.contains(vertex)) {
+                vertices[vertexCount++] = vertex;
+            }
+        }
+        for (int vertex : changed) {
+            vertices[vertexCount++] = vertex;
+        }
+        vertices = Arrays.copyOf(vertices, vertexCount);
+        Arrays.sort(vertices);
+
+        MyArrayList<SaxList<DirectedEdge<String>>> newRows = new MyArrayList<>();
+        int[] newOffsets = new int[vertexCount + 1];
+        for (int row = 0; row < vertexCount; row++) {
+            int vertex = vertices[row];
+            int oldRow = overlayRow(vertex);
+            int rowSize;
+            if (changed.contains(vertex)) {
+                SaxList<DirectedEdge<String>> edges = edgesOf(graph, codes[vertex]);
+                newRows.addLast(edges);
+                rowSize = edges.size();
+            } else {
+                newRows.addLast(null);
+                rowSize = overlayOffsets[oldRow + 1] - overlayOffsets[oldRow];
+            }
+            newOffsets[row + 1] = newOffsets[row] + rowSize;
+        }
+        int overlayEdges = newOffsets[vertexCount];
+        if (overlayEdges > weights.length / 8) {
+            return new NetworkSnapshot(graph, stations);
+        }
+
+        int[] newSources = new int[overlayEdges];
+        int[] newTargets = new int[overlayEdges];
+        double[] newWeights = new double[overlayEdges];
+        int newEdgeCount = weights.length;
+        double scale = estimateScale;
+        for (int row = 0; row < vertexCount; row++) {
+            int vertex = vertices[row];
+            newEdgeCount -= offsets[vertex + 1] - offsets[vertex];
+            int edge = newOffsets[row];
+            SaxList<DirectedEdge<String>> edges = newRows.get(row);
+            if (edges == null) {
+                int oldRow = overlayRow(vertex);
+                int length = overlayOffsets[oldRow + 1] - overlayOffsets[oldRow];
+                System.arraycopy(overlaySources, overlayOffsets[oldRow], newSources, edge, length);
+                System.arraycopy(overlayTargets, overlayOffsets[oldRow], newTargets, edge, length);
+                System.arraycopy(overlayWeights, overlayOffsets[oldRow], newWeights, edge, length);
+                continue;
+            }
+            for (DirectedEdge<String> directedEdge : edges) {
+                int target;
+                try {
+                    target = indexByCode.get(directedEdge.to());
+                } catch (KeyNotFoundException e) {
+                    return new NetworkSnapshot(graph, stations);
+                }
+                newSources[edge] = vertex;
+                newTargets[edge] = target;
+                newWeights[edge] = directedEdge.weight();
+                double straightLine = straightLineDistance(vertex, target);
+                if (scale > 0 && straightLine > 0) {
+                    scale = Math.max(Math.min(scale, directedEdge.weight() / straightLine), 0);
+                }
+                edge++;
+            }
+        }
+        return new NetworkSnapshot(this, scale, mask, vertices, newOffsets, newSources, newTargets, newWeights,
+                newEdgeCount + overlayEdges);
+    }
+
+    private static SaxList<DirectedEdge<String>> edgesOf(SaxGraph<String> graph, String code) {
+        try {
+            return graph.getEdges(code);
+        } catch (KeyNotFoundException e) {
+            return new MyArrayList<>(); // a station without tracks
+        }
+    }
+
+    /**
+     * The track distances are rounded and may be a bit shorter than the straight-line distance between the
+     * stations. Scaling the straight-line distance by the smallest ratio track / straight-line distance over all
+     * tracks makes it a lower bound for every track, and therefore for every path (a consistent A* estimate).
+     */
+    private double estimateScale() {
+        double scale = 1;
+        for (int edge = 0; edge < weights.length; edge++) {
+            double straightLine = straightLineDistance(sources[edge], targets[edge]);
+            if (straightLine > 0) {
+                scale = Math.min(scale, weights[edge] / straightLine);
+            }
+        }
+        return Math.max(scale, 0);
+    }
+
+    /**
+     * @return the number of stations (vertices)
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * @return the number of (directed) edges
+     */
+    public int getNumberOfEdges() {
+        return edgeCount;
+    }
+
+    /**
+     * Finds the row of a station in the overlay.
+     *
+     * @return the index in changedVertices, or -1 if the base row of the station is used
+     */
+    private int overlayRow(int vertex) {
+        if ((changedMask[vertex >> 6] & 1L << vertex) == 0) {
+            return -1;
+        }
+        return Arrays.binarySearch(changedVertices, vertex);
+    }
+
+    // The edges of a station are the numbers firstEdge(v) .. endEdge(v) - 1, base edges first, then overlay edges.
+
+    private int firstEdge(int vertex, int row) {
+        return row < 0 ? offsets[vertex] : weights.length + overlayOffsets[row];
+    }
+
+    private int endEdge(int vertex, int row) {
+        return row < 0 ? offsets[vertex + 1] : weights.length + overlayOffsets[row + 1];
+    }
+
+    private int source(int edge) {
+        return edge < weights.length ? sources[edge] : overlaySources[edge - weights.length];
+    }
+
+    private int target(int edge) {
+        return edge < weights.length ? targets[edge] : overlayTargets[edge - weights.length];
+    }
+
+    private double weight(int edge) {
+        return edge < weights.length ? weights[edge] : overlayWeights[edge - weights.length];
+    }
+
+    // Read access to the rows for writing a network file.
+
+    String getCode(int vertex) {
+        return codes[vertex];
+    }
+
+    int getFirstEdge(int vertex) {
+        return firstEdge(vertex, overlayRow(vertex));
+    }
+
+    int getEndEdge(int vertex) {
+        return endEdge(vertex, overlayRow(vertex));
+    }
+
+    int getTarget(int edge) {
+        return target(edge);
+    }
+
+    double getWeight(int edge) {
+        return weight(edge);
+    }
+
+    private Scratch scratch() {
+        Scratch buffers = SCRATCH.get();
+        buffers.ensureCapacity(codes.length);
+        return buffers;
+    }
+
+    /**
+     * Checks if the station code is part of the snapshot.
+     *
+     * @param code the station code
+     * @return if the code is a vertex of the snapshot
+     */
+    public boolean contains(String code) {
+        return indexByCode.contains(code);
+    }
+
+    /**
+     * Finds the number of a station in the snapshot, which is a dense id for bitmaps of stations. The stations
+     * keep their numbers in the snapshots made by {@link #withChangedEdges}.
+     *
+     * @param code the station code
+     * @return the number of the station, or -1 if the code is not part of the snapshot
+     */
+    public int indexOf(String code) {
+        try {
+            return indexByCode.get(code);
+        } catch (KeyNotFoundException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Makes a read-only graph of the snapshot, for code that works on a {@link SaxGraph}. Like the snapshot it
+     * never changes, so it can be used from any thread without locking. The algorithms are those of
+     * {@link MyGraph}; the minimum cost spanning tree spans every part of the network (a spanning forest).
+     *
+     * @return a graph with every station of the snapshot as a vertex
+     */
+    public SaxGraph<String> asGraph() {
+        return new GraphView();
+    }
+
+    /**
+     * Makes a read-only graph of the part of the snapshot between the given stations, for example the stations of
+     * one country: a {@link MySubgraphView} of {@link #asGraph()} which tests a station by looking up its number
+     * in the bitmap. Like the snapshot it never changes.
+     *
+     * @param vertices the numbers of the stations of the graph, see {@link #indexOf}
+     * @return a graph with the given stations as vertices
+     */
+    public SaxGraph<String> asGraph(MyRoaringBitmap vertices) {
+        Iterable<String> vertexCodes = () -> new Iterator<>() {
+            private final Iterator<Integer> numbers = vertices.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return numbers.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return codes[numbers.next()];
+            }
+        };
+        return new MySubgraphView<>(asGraph(), vertexCodes, code -> vertices.contains(indexOf(code)));
+    }
+
+    /**
+     * Finds the shortest path between two stations with Dijkstra's algorithm, which stops as soon as the
+     * end station is reached.
+     *
+     * @param from the code of the start station
+     * @param to   the code of the end station
+     * @return the edges of the path from start to end, where the weight of each edge is the distance from the start
+     * (as returned by backTrackDijkstra), so the weight of the last edge is the length of the path;
+     * empty if from and to are equal, or null if there is no path
+     * @throws KeyNotFoundException if a code is not part of the snapshot
+     */
+    public MyArrayList<DirectedEdge<String>> shortestPath(String from, String to) throws KeyNotFoundException {
+        return search(indexByCode.get(from), indexByCode.get(to), 0, null);
+    }
+
+    /**
+     * Finds the shortest paths from a station to all stations it reaches, with Dijkstra's algorithm on the arrays of
+     * the snapshot. The result has the form of {@link MyGraph#shortestPathsDijkstra(Object)}, so it can be followed
+     * back with backTrackDijkstra and repaired after track updates like a tree calculated on the graph.
+     *
+     * @param from the code of the start station
+     * @return a new graph with, for every reached station, an edge to its predecessor weighted with its distance
+     * @throws KeyNotFoundException if the code is not part of the snapshot or the station has no tracks
+     */
+    public MyGraph<String> shortestPathTree(String from) throws KeyNotFoundException {
+        int start = indexByCode.get(from);
+        int row = overlayRow(start);
+        if (firstEdge(start, row) == endEdge(start, row)) {
+            throw new KeyNotFoundException(from);
+        }
+        MyGraph<String> tree = new MyGraph<>();
+        search(start, -1, 0, tree);
+        return tree;
+    }
+
+    /**
+     * Finds the shortest path between two stations with the A* algorithm, estimating the remaining distance
+     * with the (scaled) straight-line distance between the stations. Gives the same distance as shortestPath,
+     * but usually visits fewer stations.
+     *
+     * @param from the code of the start station
+     * @param to   the code of the end station
+     * @return the edges of the path, in the same form as shortestPath, or null if there is no path
+     * @throws KeyNotFoundException if a code is not part of the snapshot
+     */
+    public MyArrayList<DirectedEdge<String>> shortestPathAStar(String from, String to) throws KeyNotFoundException {
+        return search(indexByCode.get(from), indexByCode.get(to), estimateScale, null);
+    }
+
+    /**
+     * Computes a minimum cost spanning tree with Prim's algorithm, for every part of the network which is not
+     * connected to the rest (a spanning forest).
+     *
+     * @return the edges of the spanning forest, with their own weights
+     */
+    public MyArrayList<DirectedEdge<String>> minimumCostSpanningTree() {
+        Scratch buffers = scratch();
+        int stamp = buffers.nextStamp();
+        MyArrayList<DirectedEdge<String>> tree = new MyArrayList<>();
+        for (int root = 0; root < codes.length; root++) {
+            if (buffers.settled[root] == stamp) {
+                continue;
+            }
+            buffers.settled[root] = stamp;
+            pushEdges(buffers, root, stamp);
+            while (!buffers.heap.isEmpty()) {
+                int edge = buffers.heap.dequeue();
+                int target = target(edge);
+                if (buffers.settled[target] == stamp) {
+                    continue;
+                }
+                buffers.settled[target] = stamp;
+                tree.addLast(new DirectedEdge<>(codes[source(edge)], codes[target], weight(edge)));
+                pushEdges(buffers, target, stamp);
+            }
+        }
+        return tree;
+    }
+
+    private void pushEdges(Scratch buffers, int vertex, int stamp) {
+        int row = overlayRow(vertex);
+        for (int edge = firstEdge(vertex, row), end = endEdge(vertex, row); edge < end; edge++) {
+            if (buffers.settled[target(edge)] != stamp) {
+                buffers.heap.enqueue(edge, weight(edge));
+            }
+        }
+    }
+
+    /**
+     * Dijkstra's algorithm (scale 0) or A* (scale > 0) from start to goal, using the buffers of this thread.
+     * The heap holds stations with their distance (plus estimate); a station may be in it more than once, only its
+     * first (smallest) entry is used. Without a goal (-1) every reachable station is settled; if a tree is given,
+     * every settled station is added to it with the edge to its predecessor.
+     */
+    private MyArrayList<DirectedEdge<String>> search(int start, int goal, double scale, MyGraph<String> tree) {
+        Scratch buffers = scratch();
+        int stamp = buffers.nextStamp();
+        buffers.reached[start] = stamp;
+        buffers.distances[start] = 0;
+        buffers.parentEdges[start] = -1;
+        buffers.heap.enqueue(start, 0);
+        while (!buffers.heap.isEmpty()) {
+            int vertex = buffers.heap.dequeue();
+            if (buffers.settled[vertex] == stamp) {
+                continue;
+            }
+            buffers.settled[vertex] = stamp;
+            if (vertex == goal) {
+                return path(buffers, goal);
+            }
+            double distance = buffers.distances[vertex];
+            if (tree != null && vertex != start) {
+                tree.addEdge(codes[vertex], codes[source(buffers.parentEdges[vertex])], distance);
+            }
+            int row = overlayRow(vertex);
+            for (int edge = firstEdge(vertex, row), end = endEdge(vertex, row); edge < end; edge++) {
+                int target = target(edge);
+                if (buffers.settled[target] == stamp) {
+                    continue;
+                }
+                double newDistance = distance + weight(edge);
+                if (buffers.reached[target] != stamp || newDistance < buffers.distances[target]) {
+                    buffers.reached[target] = stamp;
+                    buffers.distances[target] = newDistance;
+                    buffers.parentEdges[target] = edge;
+                    double estimate = scale == 0 ? 0 : scale * straightLineDistance(target, goal);
+                    buffers.heap.enqueue(target, newDistance + estimate);
+                }
+            }
+        }
+        return null;
+    }
+
+    private MyArrayList<DirectedEdge<String>> path(Scratch buffers, int goal) {
+        MyArrayList<DirectedEdge<String>> reversed = new MyArrayList<>();
+        for (int edge = buffers.parentEdges[goal]; edge >= 0; edge = buffers.parentEdges[source(edge)]) {
+            reversed.addLast(new DirectedEdge<>(codes[source(edge)], codes[target(edge)], buffers.distances[target(edge)]));
+        }
+        MyArrayList<DirectedEdge<String>> path = new MyArrayList<>();
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            path.addLast(reversed.get(i));
+        }
+        return path;
+    }
+
+    /**
+     * The great-circle distance between two stations with the Haversine formula, like
+     * {@link Coordinate#haversineDistance}, but without rounding.
+     */
+    private double straightLineDistance(int from, int to) {
+        double sinLatitude = Math.sin((latitudes[to] - latitudes[from]) / 2);
+        double sinLongitude = Math.sin((longitudes[to] - longitudes[from]) / 2);
+        double a = sinLatitude * sinLatitude
+                + sinLongitude * sinLongitude * Math.cos(latitudes[from]) * Math.cos(latitudes[to]);
+        return 2 * EARTH_RADIUS * Math.asin(Math.sqrt(a));
+    }
+
+    /**
+     * A read-only graph over all stations of the snapshot.
+     */
+    private class GraphView implements SaxGraph<String> {
+
+        private int vertexOf(String code) {
+            int vertex = indexOf(code);
+            if (vertex < 0) {
+                throw new KeyNotFoundException(code);
+            }
+            return vertex;
+        }
+
+        @Override
+        public void addEdge(String fromValue, String toValue, double weight) {
+            throw new UnsupportedOperationException("A snapshot is read-only");
+        }
+
+        @Override
+        public void addEdgeBidirectional(String fromValue, String toValue, double weight) {
+            throw new UnsupportedOperationException("A snapshot is read-only");
+        }
+
+        @Override
+        public void removeEdge(String fromValue, String toValue) {
+            throw new UnsupportedOperationException("A snapshot is read-only");
+        }
+
+        @Override
+        public double setEdgeWeight(String fromValue, String toValue, double weight) {
+            throw new UnsupportedOperationException("A snapshot is read-only");
+        }
+
+        @Override
+        public boolean containsEdge(String fromValue, String toValue) {
+            int from = indexOf(fromValue);
+            int to = indexOf(toValue);
+            if (from < 0 || to < 0) {
+                return false;
+            }
+            int row = overlayRow(from);
+            for (int edge = firstEdge(from, row), end = endEdge(from, row); edge < end; edge++) {
+                if (target(edge) == to) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public SaxList<DirectedEdge<String>> getEdges(String value) throws KeyNotFoundException {
+            int vertex = vertexOf(value);
+            int row = overlayRow(vertex);
+            MyArrayList<DirectedEdge<String>> edges = new MyArrayList<>();
+            for (int edge = firstEdge(vertex, row), end = endEdge(vertex, row); edge < end; edge++) {
+                edges.addLast(new DirectedEdge<>(codes[vertex], codes[target(edge)], weight(edge)));
+            }
+            return edges;
+        }
+
+        @Override
+        public double getTotalWeight() {
+            double totalWeight = 0;
+            for (String code : this) {
+                for (DirectedEdge<String> edge : getEdges(code)) {
+                    totalWeight += edge.weight();
+                }
+            }
+            return totalWeight;
+        }
+
+        @Override
+        public SaxGraph<String> shortestPathsDijkstra(String startNode) throws KeyNotFoundException {
+            vertexOf(startNode);
+            return MyGraph.shortestPathsDijkstra(this, startNode);
+        }
+
+        @Override
+        public SaxList<DirectedEdge<String>> shortestPathAStar(String startNode, String endNode,
+                                                             Estimator<String> estimator) throws KeyNotFoundException {
+            vertexOf(startNode);
+            return MyGraph.shortestPathAStar(this, startNode, endNode, estimator);
+        }
+
+        @Override
+        public SaxGraph<String> minimumCostSpanningTree() {
+            return MyGraph.minimumCostSpanningTree(this, this);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < codes.length;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return codes[next++];
+                }
+            };
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return codes.length == 0;
+        }
+
+        @Override
+        public int size() {
+            return codes.length;
+        }
+
+        @Override
+        public String graphViz(String name) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("digraph ").append(name).append(" {\n");
+            for (String code : this) {
+                for (DirectedEdge<String> edge : getEdges(code)) {
+                    builder.append('"').append(edge.from()).append("\" -> \"").append(edge.to())
+                            .append("\" [label=\"").append(edge.weight()).append("\"]\n");
+                }
+            }
+            builder.append("}\n");
+            return builder.toString();
+        }
+    }
+
+    /**
+     * The buffers of the searches of one thread, shared by all snapshots. An entry of reached or settled is only
+     * valid when it equals the current stamp, so starting a new search only increases the stamp; the zeros in grown
+     * arrays are never a valid stamp. The heap holds stations or edges and keeps its arrays between searches.
+     */
+    private static class Scratch {
+        double[] distances = new double[0];
+        int[] parentEdges = new int[0];
+        int[] reached = new int[0];
+        int[] settled = new int[0];
+        int stamp;
+        final MyIntMinHeap heap = new MyIntMinHeap();
+
+        /**
+         * Grows the buffers for a snapshot with the given number of stations.
+         */
+        void ensureCapacity(int vertexCount) {
+            if (distances.length < vertexCount) {
+                distances = Arrays.copyOf(distances, vertexCount);
+                parentEdges = Arrays.copyOf(parentEdges, vertexCount);
+                reached = Arrays.copyOf(reached, vertexCount);
+                settled = Arrays.copyOf(settled, vertexCount);
+            }
+        }
+
+        int nextStamp() {
+            heap.clear();
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(reached, 0);
+                Arrays.fill(settled, 0);
+                stamp = 0;
+            }
+            return ++stamp;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package app;
+
+import collection.SaxGraph;
+import custom_data_structures.MyGraph;
+import custom_data_structures.MyHashMap;
+import custom_data_structures.MyRoaringBitmap;
+
+/**
+ * Everything the {@link TrackManager} builds from the stations and tracks files: the station index, the graph of
+ * the whole rail network, the snapshot for route queries and the graph of the Netherlands only (a view of the
+ * snapshot, made again for every new snapshot). A rail network is
+ * built completely before it is published, so a query that read the reference once works on one consistent version,
+ * also while a reload replaces the reference. The snapshot, the view of the Netherlands and the cached shortest
+ * path trees of the hub stations never change after publishing, so they are read without any lock: a track update
+ * repairs a copy of each tree it affects and publishes a new rail network with the new trees and a new snapshot.
+ * Only the graph is changed in place, by track updates, which hold the update lock of the track manager (as does
+ * anything else that reads it). A rail network read from the network file starts without the graph: it is built
+ * from the snapshot by the first track update that needs it.
+ */
+class RailNetwork {
+
+    final StationIndex stations;
+    // The graph, or null until the first track update of a rail network that was read from the network file
+    private MyGraph<String> graph;
+    final NetworkSnapshot snapshot;
+    // The numbers of the stations in the Netherlands in the snapshot, which stay the same for new snapshots
+    private final MyRoaringBitmap netherlandsVertices;
+    final SaxGraph<String> netherlandsGraph;
+    // Results of shortestPathsDijkstra on the graph, by the code of the hub station they start from
+    final MyHashMap<String, MyGraph<String>> hubTrees;
+
+    /**
+     * Bundles the given structures, takes the snapshot of the graph and makes the view of the Netherlands.
+     * @param stations The index over all stations.
+     * @param graph The graph of the whole rail network.
+     */
+
+    RailNetwork(StationIndex stations, MyGraph<String> graph) {
+        this(stations, graph, new NetworkSnapshot(graph, stations), null, new MyHashMap<>());
+    }
+
+    /**
+     * Bundles the given structures and makes the view of the Netherlands. The graph is built when it is needed.
+     * @param stations The index over all stations.
+     * @param snapshot The snapshot of the graph of the whole rail network.
+     */
+
+    RailNetwork(StationIndex stations, NetworkSnapshot snapshot) {
+        this(stations, null, snapshot, null, new MyHashMap<>());
+    }
+
+    private RailNetwork(StationIndex stations, MyGraph<String> graph, NetworkSnapshot snapshot,
+                        MyRoaringBitmap netherlandsVertices, MyHashMap<String, MyGraph<String>> hubTrees) {
+        this.stations = stations;
+        this.graph = graph;
+        this.snapshot = snapshot;
+        this.netherlandsVertices = netherlandsVertices != null
+                ? netherlandsVertices : countryVertices(stations, snapshot, "NL");
+        this.netherlandsGraph = snapshot.asGraph(this.netherlandsVertices);
+        this.hubTrees = hubTrees;
+    }
+
+    /**
+     * Returns the graph of the whole rail network, first building it from the snapshot if it was not built yet.
+     * Call this only while holding the update lock of the track manager.
+     * @return The graph, shared with the rail networks published after this one.
+     */
+
+    MyGraph<String> graph() {
+        if (graph == null) {
+            graph = new MyGraph<>();
+            SaxGraph<String> view = snapshot.asGraph();
+            for (String code : view) {
+                for (SaxGraph.DirectedEdge<String> edge : view.getEdges(code)) {
+                    graph.addEdge(code, edge.to(), edge.weight());
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Finds the numbers in the snapshot of the stations of one or more countries.
+     * @param stations The index over all stations.
+     * @param snapshot The snapshot of the graph.
+     * @param countries The country codes, like NL, ignoring case.
+     * @return A bitmap of the numbers of the stations.
+     */
+
+    static MyRoaringBitmap countryVertices(StationIndex stations, NetworkSnapshot snapshot, String... countries) {
+        MyRoaringBitmap vertices = new MyRoaringBitmap();
+        for (String country : countries) {
+            for (int row : stations.getRowsByCountry(country)) {
+                vertices.add(snapshot.indexOf(stations.getByRow(row).getCode()));
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Returns a rail network with the same station index and graphs, new hub trees and a new snapshot of the graph,
+     * to publish after the graphs were changed. The new snapshot shares everything but the changed rows with the
+     * current one.
+     * @param changedCodes The codes of the stations whose outgoing edges were changed.
+     * @param hubTrees The hub trees for the changed graph, by the code of their hub station.
+     * @return The new rail network.
+     */
+
+    RailNetwork withNewSnapshot(Iterable<String> changedCodes, MyHashMap<String, MyGraph<String>> hubTrees) {
+        return new RailNetwork(stations, graph(), snapshot.withChangedEdges(graph(), stations, changedCodes),
+                netherlandsVertices, hubTrees);
+    }
+
+    /**
+     * Returns a rail network with the same structures and snapshot and one more hub tree.
+     * @param hubCode The code of the station the tree starts from.
+     * @param hubTree The result of shortestPathsDijkstra on the graph from the station.
+     * @return The new rail network.
+     */
+
+    RailNetwork withHubTree(String hubCode, MyGraph<String> hubTree) {
+        MyHashMap<String, MyGraph<String>> trees = new MyHashMap<>();
+        for (String code : hubTrees.getKeys()) {
+            trees.add(code, hubTrees.get(code));
+        }
+        trees.add(hubCode, hubTree);
+        return new RailNetwork(stations, graph, snapshot, netherlandsVertices, trees);
+    }
+}
@@ -0,0 +1,341 @@
+package app;
+
+import app.model.Station;
+import app.model.StationTable;
+import collection.KeyNotFoundException;
+import collection.SaxList;
+import custom_data_structures.MyAVLBinarySearchTree;
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyHashMap;
+import custom_data_structures.MyRadixTree;
+import custom_data_structures.MyRoaringBitmap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * An immutable set of lookup structures over the stations: by code, by (lower-cased) name, by name prefix,
+ * by similar name, by type and country and in alphabetical order. All structures are built in the constructor and never changed
+ * afterwards, so any number of threads can query an index without locks. To pick up new stations a new index
+ * is built and the reference to it is replaced, see {@link TrackManager#reload()}.
+ */
+public class StationIndex implements Iterable<Station> {
+
+    private final StationTable table;
+    // a view of every row of the table, by row
+    private final MyArrayList<Station> stations = new MyArrayList<>();
+    private final MyHashMap<String, Station> stationMap = new MyHashMap<>();
+    private final MyHashMap<String, String> stationNameToCodeMap = new MyHashMap<>();
+    private final MyAVLBinarySearchTree<String, Station> stationsTree = new MyAVLBinarySearchTree<>();
+    private final MyRadixTree<Station> stationNameIndex = new MyRadixTree<>();
+    // the stations sorted by name; the posting lists hold positions in this list, ascending
+    private final MyArrayList<Station> stationsByName = new MyArrayList<>();
+    private final MyHashMap<String, int[]> typePostings = new MyHashMap<>();
+    private final MyHashMap<String, int[]> countryPostings = new MyHashMap<>();
+
+    /**
+     * Builds all lookup structures for the given stations, which are copied into a new station table.
+     * @param stations The stations to index; the list itself is not kept.
+     */
+
+    public StationIndex(SaxList<Station> stations) {
+        this(copyOf(stations));
+    }
+
+    /**
+     * Builds all lookup structures for the stations of a table. The table must not be changed afterwards.
+     * @param table The stations to index.
+     */
+
+    public StationIndex(StationTable table) {
+        this.table = table;
+        for (Station station : table) {
+            this.stations.addLast(station);
+            stationMap.add(station.getCode(), station);
+            stationNameToCodeMap.add(station.getName().toLowerCase(), station.getCode());
+            stationNameIndex.add(station.getName().toLowerCase(), station);
+        }
+        loadStationsTree();
+        loadPostingLists();
+    }
+
+    private static StationTable copyOf(SaxList<Station> stations) {
+        StationTable table = new StationTable();
+        for (Station station : stations) {
+            table.add(station.getCode(), station.getName(), station.getCountry(), station.getType(),
+                    station.getLatitude(), station.getLongitude());
+        }
+        return table;
+    }
+
+    /**
+     * Fills the AVL tree of stations by their lower-cased name. The stations are sorted by that name first,
+     * so the tree is built balanced in one pass instead of rebalancing after every insert.
+     */
+
+    private void loadStationsTree() {
+        MyArrayList<Station> sortedStations = new MyArrayList<>();
+        for (Station station : stations) {
+            sortedStations.addLast(station);
+        }
+        sortedStations.mergeSort(Comparator.comparing(station -> station.getName().toLowerCase()));
+
+        MyArrayList<String> names = new MyArrayList<>();
+        for (Station station : sortedStations) {
+            names.addLast(station.getName().toLowerCase());
+        }
+        stationsTree.buildFromSorted(names, sortedStations);
+    }
+
+    /**
+     * Builds a posting list for every type and country (both lower-cased): the positions of its stations in the list
+     * of stations sorted by name, in ascending order. A query then only visits the stations it returns, already in
+     * the order of their names, and two posting lists are combined by merging them.
+     */
+
+    private void loadPostingLists() {
+        for (Station station : stations) {
+            stationsByName.addLast(station);
+        }
+        stationsByName.mergeSort(Station.BY_NAME);
+        int[] nameRanks = new int[stationsByName.size()];
+        for (int rank = 0; rank < nameRanks.length; rank++) {
+            nameRanks[stationsByName.get(rank).getRow()] = rank;
+        }
+        for (String type : table.getTypes()) {
+            addPostingList(typePostings, type, table.rowsWithType(type), nameRanks);
+        }
+        for (String country : table.getCountries()) {
+            addPostingList(countryPostings, country, table.rowsWithCountry(country), nameRanks);
+        }
+    }
+
+    private static void addPostingList(MyHashMap<String, int[]> postings, String value, int[] rows, int[] nameRanks) {
+        String key = value.toLowerCase();
+        if (postings.contains(key)) {
+            return; // the rows of a value that differs only in case were selected together already
+        }
+        int[] ranks = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            ranks[i] = nameRanks[rows[i]];
+        }
+        Arrays.sort(ranks);
+        postings.add(key, ranks);
+    }
+
+    /**
+     * Returns the number of stations in the index.
+     * @return The number of stations.
+     */
+
+    public int size() {
+        return stations.size();
+    }
+
+    /**
+     * Finds a station by its code.
+     * @param code The code of the station.
+     * @return The station with the code.
+     * @throws KeyNotFoundException If there is no station with the code.
+     */
+
+    public Station getByCode(String code) throws KeyNotFoundException {
+        return stationMap.get(code);
+    }
+
+    /**
+     * Finds the code of a station by its name, ignoring case.
+     * @param name The name of the station.
+     * @return The code of the station with the name.
+     * @throws KeyNotFoundException If there is no station with the name.
+     */
+
+    public String getCodeByName(String name) throws KeyNotFoundException {
+        return stationNameToCodeMap.get(name.toLowerCase());
+    }
+
+    /**
+     * Finds a station by its exact lower-cased name.
+     * @param name The lower-cased name of the station.
+     * @return The station, or null if there is no station with the name.
+     */
+
+    public Station getByName(String name) {
+        return stationsTree.contains(name) ? stationsTree.get(name) : null;
+    }
+
+    /**
+     * Retrieves all stations whose name starts with the given text, in alphabetical order.
+     * @param prefix The first part of the station name.
+     * @return The stations whose name starts with the prefix, possibly empty.
+     */
+
+    public MyArrayList<Station> getByNamePrefix(String prefix) {
+        return stationsTree.getByPrefix(prefix);
+    }
+
+    /**
+     * Retrieves the first stations, alphabetically, whose name starts with the given text; meant for autocompletion.
+     * @param prefix The first part of the station name, ignoring case.
+     * @param limit The maximum number of stations to return.
+     * @return At most limit stations whose name starts with the prefix, possibly empty.
+     */
+
+    public MyArrayList<Station> getCompletions(String prefix, int limit) {
+        return stationNameIndex.getByPrefix(prefix.toLowerCase(), limit);
+    }
+
+    /**
+     * Retrieves the stations whose name is at most maxDistance edits away from the given name, ignoring case.
+     * @param name The (misspelled) station name.
+     * @param maxDistance The maximum number of edits.
+     * @param limit The maximum number of stations to return.
+     * @return At most limit stations, the most similar names first, possibly empty.
+     */
+
+    public MyArrayList<Station> getBySimilarName(String name, int maxDistance, int limit) {
+        return stationNameIndex.getBySimilarKey(name.toLowerCase(), maxDistance, limit);
+    }
+
+    /**
+     * Retrieves one page of the stations in alphabetical order of their name.
+     * @param offset The number of stations before the page.
+     * @param limit The maximum number of stations on the page.
+     * @return At most limit stations, empty if the offset is beyond the last station.
+     */
+
+    public MyArrayList<Station> getPage(int offset, int limit) {
+        if (offset < 0 || offset >= stationsTree.size() || limit <= 0) {
+            return new MyArrayList<>();
+        }
+        int last = (int) Math.min((long) offset + limit, stationsTree.size()) - 1;
+        return stationsTree.range(stationsTree.select(offset), stationsTree.select(last), limit);
+    }
+
+    /**
+     * Finds the row of a station in the station table, which is a dense id for bitmaps of stations.
+     * @param code The code of the station.
+     * @return The row of the station, or -1 if there is no station with the code.
+     */
+
+    public int getRow(String code) {
+        try {
+            return stationMap.get(code).getRow();
+        } catch (KeyNotFoundException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the station in a row of the station table.
+     * @param row The row of the station.
+     * @return The station.
+     * @throws IndexOutOfBoundsException If there is no such row.
+     */
+
+    public Station getByRow(int row) {
+        return stations.get(row);
+    }
+
+    /**
+     * Selects the rows of the stations of a country in a bitmap, for example to filter the vertices of a graph
+     * with bit tests, or to combine it with other selections.
+     * @param country The country code, like NL, ignoring case.
+     * @return A new bitmap with the rows, possibly empty.
+     */
+
+    public MyRoaringBitmap getRowsByCountry(String country) {
+        return MyRoaringBitmap.of(table.rowsWithCountry(country));
+    }
+
+    /**
+     * Selects the rows of the stations of a type in a bitmap, see {@link #getRowsByCountry(String)}.
+     * @param type The station type, ignoring case.
+     * @return A new bitmap with the rows, possibly empty.
+     */
+
+    public MyRoaringBitmap getRowsByType(String type) {
+        return MyRoaringBitmap.of(table.rowsWithType(type));
+    }
+
+    /**
+     * Retrieves the stations of a country from its posting list.
+     * @param country The country code, like NL, ignoring case.
+     * @return The stations of the country, sorted by name, possibly empty.
+     */
+
+    public MyArrayList<Station> getByCountry(String country) {
+        return stationsAt(postingList(countryPostings, country));
+    }
+
+    /**
+     * Retrieves the stations of a type from its posting list.
+     * @param type The station type, ignoring case.
+     * @return The stations of the type, sorted by name, possibly empty.
+     */
+
+    public MyArrayList<Station> getByType(String type) {
+        return stationsAt(postingList(typePostings, type));
+    }
+
+    /**
+     * Retrieves the stations of a type in a country, by merging the posting lists of both.
+     * @param type The station type, ignoring case.
+     * @param country The country code, ignoring case.
+     * @return The stations of the type in the country, sorted by name, possibly empty.
+     */
+
+    public MyArrayList<Station> getByTypeAndCountry(String type, String country) {
+        int[] types = postingList(typePostings, type);
+        int[] countries = postingList(countryPostings, country);
+        int[] both = new int[Math.min(types.length, countries.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < types.length && j < countries.length; ) {
+            if (types[i] < countries[j]) {
+                i++;
+            } else if (types[i] > countries[j]) {
+                j++;
+            } else {
+                both[size++] = types[i];
+                i++;
+                j++;
+            }
+        }
+        return stationsAt(Arrays.copyOf(both, size));
+    }
+
+    private static int[] postingList(MyHashMap<String, int[]> postings, String value) {
+        String key = value.toLowerCase();
+        return postings.contains(key) ? postings.get(key) : new int[0];
+    }
+
+    private MyArrayList<Station> stationsAt(int[] ranks) {
+        MyArrayList<Station> result = new MyArrayList<>(Math.max(ranks.length, 1));
+        for (int rank : ranks) {
+            result.addLast(stationsByName.get(rank));
+        }
+        return result;
+    }
+
+    /**
+     * Iterates over the stations in the order in which they were indexed. The stations can not be removed.
+     * @return An iterator over the stations.
+     */
+
+    @Override
+    public Iterator<Station> iterator() {
+        Iterator<Station> iterator = stations.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Station next() {
+                return iterator.next();
+            }
+        };
+    }
+}
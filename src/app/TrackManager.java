@@ -1,21 +1,37 @@
 package app;
 
 import app.model.Station;
+import app.model.StationTable;
 import app.model.Track;
+import collection.DuplicateKeyException;
 import collection.KeyNotFoundException;
 import collection.SaxGraph;
-import custom_data_structures.MyAVLBinarySearchTree;
 import custom_data_structures.MyArrayList;
 import custom_data_structures.MyGraph;
 import custom_data_structures.MyHashMap;
+import custom_data_structures.MyOffHeapGraph;
 import app.model.*;
+import utils.reader.CSVReader;
+import utils.reader.CSVRecord;
 import utils.reader.Creator;
 import utils.reader.LambdaReader;
 
 import java.io.IOException;
-import java.util.Comparator;
-
-public class TrackManager {
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TrackManager implements AutoCloseable {
 
     /**
      * The TrackManager class manages a network of railway tracks and stations.
@@ -25,32 +41,575 @@ public class TrackManager {
      * and Prim's algorithm for minimum cost spanning trees.
      */
 
-    private MyArrayList<Station> stations;
-    private MyArrayList<Track> tracks;
-    private final MyHashMap<String, Station> stationMap = new MyHashMap<>();
-    private final MyHashMap<String, String> stationNameToCodeMap = new MyHashMap<>();
-    private final MyAVLBinarySearchTree<String, Station> stationsTree = new MyAVLBinarySearchTree<>();
-    private final MyGraph<String> railNetworkGraph = new MyGraph<>();
-    private final MyGraph<String> nlRailNetworkGraph = new MyGraph<>();
+    // Time without further changes to the files before a reload starts, as editors and copies write in steps
+    private static final long RELOAD_QUIET_MILLIS = 500;
+
+    private final Path stationsFile;
+    private final Path tracksFile;
+    // Binary copy of the loaded network, used instead of the CSV files while they are unchanged; null for none
+    private final Path networkFile;
+    // Replaced as a whole on reload; every query reads it once, so it works on one consistent network
+    private volatile RailNetwork network = new RailNetwork(new StationIndex(new StationTable()), new MyGraph<>());
+    // Taken by track updates and anything else that reads or changes the graphs, and by a reload to publish
+    private final Object updateLock = new Object();
+    // Taken by a reload for all of its work, so reloads run one at a time without holding the update lock
+    private final Object reloadLock = new Object();
+    // Stations whose shortest path trees are cached, also after a reload
+    private final MyArrayList<String> hubCodes = new MyArrayList<>();
+    // Track changes made while a reload loads the files, to replay on the new network; null when no reload runs.
+    // Guarded by the update lock.
+    private MyArrayList<TrackChange> changesDuringReload;
+    private ExecutorService reloadExecutor;
+    private WatchService watchService;
 
 
     public TrackManager() {
+        this(Path.of("./resources/stations.csv"), Path.of("./resources/tracks.csv"), Path.of("./resources/network.bin"));
+    }
+
+    /**
+     * Creates a track manager for the given data files and loads the rail network from them.
+     * @param stationsFile The CSV file with the stations.
+     * @param tracksFile The CSV file with the tracks.
+     */
+
+    public TrackManager(Path stationsFile, Path tracksFile) {
+        this(stationsFile, tracksFile, null);
+    }
+
+    /**
+     * Creates a track manager for the given data files and loads the rail network from them, or from the network file
+     * if it was written from the same data files before. Otherwise, the network file is written after loading the
+     * data files, so the next start is faster, see {@link NetworkFile}.
+     * @param stationsFile The CSV file with the stations.
+     * @param tracksFile The CSV file with the tracks.
+     * @param networkFile The binary network file, or null to always load the CSV files.
+     */
+
+    public TrackManager(Path stationsFile, Path tracksFile, Path networkFile) {
+        this.stationsFile = stationsFile;
+        this.tracksFile = tracksFile;
+        this.networkFile = networkFile;
         try {
-            loadStations();
-            loadTracks();
-            loadGraph();
-            loadNetherlandsGraph();
-            for (Station station : stations) {
-                stationMap.add(station.getCode(), station);
-                stationNameToCodeMap.add(station.getName().toLowerCase(), station.getCode());
-                stationsTree.add(station.getName().toLowerCase(), station);
+            network = loadNetwork();
+        } catch (IOException e) {
+            System.err.println("Error loading data: " + e.getMessage());
+        }
+
+
+    }
+
+    /**
+     * Reads both data files, or the network file made from them, and builds a complete new rail network, without
+     * touching the current one and without holding the update lock. After reading the data files the network file
+     * is written again.
+     * @return The new rail network, with the trees of the hub stations known when it started.
+     * @throws IOException If an error occurs during file reading.
+     */
+
+    private RailNetwork loadNetwork() throws IOException {
+        // taken before reading, so a data file changed while it is read makes the network file outdated
+        long[] stamp = networkFile == null ? null : NetworkFile.stampOf(stationsFile, tracksFile);
+        NetworkFile cached = null;
+        if (stamp != null) {
+            try {
+                cached = NetworkFile.read(networkFile, stamp);
+            } catch (IOException e) {
+                System.err.println("Error reading the network file: " + e.getMessage());
+            }
+        }
+        RailNetwork loaded;
+        if (cached != null) {
+            StationIndex index = new StationIndex(cached.stations);
+            loaded = new RailNetwork(index, cached.snapshot);
+        } else {
+            loaded = loadDataFiles();
+            if (stamp != null) {
+                writeNetworkFile(stamp, loaded);
+            }
+        }
+        MyArrayList<String> hubs = new MyArrayList<>();
+        synchronized (updateLock) {
+            for (String hubCode : hubCodes) {
+                hubs.addLast(hubCode);
+            }
+        }
+        return withHubTrees(loaded, hubs);
+    }
 
+    /**
+     * Adds the shortest path trees of the given hub stations that the rail network does not have yet.
+     * @param loaded The rail network, which is not published yet.
+     * @param hubs The codes of the hub stations.
+     * @return The rail network with the trees.
+     */
+
+    private static RailNetwork withHubTrees(RailNetwork loaded, Iterable<String> hubs) {
+        for (String hubCode : hubs) {
+            if (loaded.hubTrees.contains(hubCode)) {
+                continue;
+            }
+            try {
+                loaded = loaded.withHubTree(hubCode, loaded.snapshot.shortestPathTree(hubCode));
+            } catch (KeyNotFoundException e) {
+                // the station has no tracks anymore
             }
+        }
+        return loaded;
+    }
+
+    /**
+     * Reads both data files. The station index is built on another thread while the tracks are read and the graph
+     * is built, as they do not depend on each other; only the graph of the Netherlands needs both.
+     * @return The new rail network, without hub trees.
+     * @throws IOException If an error occurs during file reading.
+     */
+
+    private RailNetwork loadDataFiles() throws IOException {
+        CompletableFuture<StationIndex> stationsLoaded = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new StationIndex(loadStations());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        MyGraph<String> graph = loadTracks();
+        StationIndex index;
+        try {
+            index = stationsLoaded.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return new RailNetwork(index, graph);
+    }
+
+    /**
+     * Maps the graph of the whole rail network from the network file, without building it on the heap, see
+     * {@link NetworkFile#mapGraph}. Meant for read-only use of very large networks; other processes that map the same
+     * file share its memory. Track updates are not part of it, as they are not written to the network file.
+     * @return The mapped graph, or null if there is no network file for the current data files.
+     * @throws IOException If an I/O error occurs while mapping the file.
+     */
+
+    public MyOffHeapGraph<String> mapNetworkGraph() throws IOException {
+        if (networkFile == null) {
+            return null;
+        }
+        return NetworkFile.mapGraph(networkFile, NetworkFile.stampOf(stationsFile, tracksFile));
+    }
+
+    /**
+     * Writes the network file for the next start; the network stays in use if that fails.
+     */
+
+    private void writeNetworkFile(long[] stamp, RailNetwork loaded) {
+        try {
+            NetworkFile.write(networkFile, stamp, loaded.stations, loaded.snapshot);
         } catch (IOException e) {
-            System.err.println("Error loading data: " + e.getMessage());
+            System.err.println("Error writing the network file: " + e.getMessage());
         }
+    }
 
+    /**
+     * Reads the stations and tracks files again and replaces the whole rail network: the station index, both graphs
+     * and the snapshot. The new network is built completely before it is published, so queries running on other
+     * threads finish on the old one and never see a partly built one. Reloads run one at a time.
+     * <p>
+     * The files are read and the network is built without holding the update lock, so queries and track updates go
+     * on while a reload runs. Track changes made in the meantime are replayed on the new network just before it
+     * replaces the old one; earlier changes are not kept, as the files are the new starting point.
+     * </p>
+     *
+     * @throws IOException If an error occurs during file reading; the old network stays in use.
+     */
 
+    public void reload() throws IOException {
+        synchronized (reloadLock) {
+            synchronized (updateLock) {
+                changesDuringReload = new MyArrayList<>();
+            }
+            try {
+                RailNetwork loaded = loadNetwork();
+                synchronized (updateLock) {
+                    network = replay(withHubTrees(loaded, hubCodes), changesDuringReload);
+                }
+            } finally {
+                synchronized (updateLock) {
+                    changesDuringReload = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes the track changes that were made while a reload loaded the files on the new rail network, in the same
+     * order. A change that can not be made on the new network (for example because the files have the new track
+     * already) is reported and skipped. Must be called while holding the update lock.
+     * @param loaded The new rail network, which is not published yet.
+     * @param changes The track changes since the reload started.
+     * @return The rail network with the changes.
+     */
+
+    private RailNetwork replay(RailNetwork loaded, MyArrayList<TrackChange> changes) {
+        MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges = new MyArrayList<>();
+        for (TrackChange change : changes) {
+            try {
+                apply(loaded, change);
+                changedEdges.addLast(new SaxGraph.DirectedEdge<>(change.fromCode(), change.toCode(), 0));
+            } catch (KeyNotFoundException | DuplicateKeyException e) {
+                System.err.println("Skipped track change " + change + " after the reload: " + e.getMessage());
+            }
+        }
+        return changedEdges.isEmpty() ? loaded : withChanges(loaded, changedEdges);
+    }
+
+    /**
+     * Reloads the rail network on a background thread, see {@link #reload()}. Queries keep being answered by the
+     * old network in the meantime.
+     * @return A future that completes when the new network is in use, or exceptionally if it could not be loaded.
+     */
+
+    public synchronized CompletableFuture<Void> reloadAsync() {
+        if (reloadExecutor == null) {
+            reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rail-network-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        reloadExecutor.execute(() -> {
+            try {
+                reload();
+                result.complete(null);
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Adds a track from one station to another, in that direction only, like a line of the tracks file.
+     * The graph of the whole network is changed in place, which the graph of the Netherlands (a view of it) follows,
+     * and the cached shortest paths from the hub stations are repaired, after which a new snapshot
+     * is published for the route queries. The change lasts until the next reload from the files.
+     *
+     * @param track The new track.
+     * @throws KeyNotFoundException If one of the stations does not exist.
+     * @throws DuplicateKeyException If there is a track from the one station to the other already.
+     */
+
+    public void addTrack(Track track) throws KeyNotFoundException, DuplicateKeyException {
+        applyAndPublish(new TrackChange("add", track.getFrom(), track.getTo(), track.getDistanceInKilometers()));
+    }
+
+    /**
+     * Removes the track from one station to another, for example because it is closed. A track in the other
+     * direction is kept. See {@link #addTrack(Track)} for how the network is updated.
+     *
+     * @param fromCode The code of the station the track starts at.
+     * @param toCode The code of the station the track ends at.
+     * @throws KeyNotFoundException If there is no track from the one station to the other.
+     */
+
+    public void removeTrack(String fromCode, String toCode) throws KeyNotFoundException {
+        applyAndPublish(new TrackChange("remove", fromCode, toCode, 0));
+    }
+
+    /**
+     * Changes the distance of the track from one station to another, for example to route around engineering works.
+     * See {@link #addTrack(Track)} for how the network is updated.
+     *
+     * @param fromCode The code of the station the track starts at.
+     * @param toCode The code of the station the track ends at.
+     * @param distance The new distance in kilometers.
+     * @throws KeyNotFoundException If there is no track from the one station to the other.
+     */
+
+    public void updateTrackDistance(String fromCode, String toCode, double distance) throws KeyNotFoundException {
+        applyAndPublish(new TrackChange("update", fromCode, toCode, distance));
+    }
+
+    /**
+     * Applies a file with track changes, one per line after a header line, in the columns
+     * operation,from,to,cost_unit,distance, where the operation is add, remove or update and the last two columns
+     * may be left empty for remove. All changes are made to the graphs in place and the snapshot is published once,
+     * after the last change. A line that can not be applied (an unknown station or track, a bad number) is reported
+     * and skipped.
+     *
+     * @param deltaFile The CSV file with the changes.
+     * @return The number of changes that were applied.
+     * @throws IOException If an error occurs during file reading; nothing is changed then.
+     */
+
+    public int applyTrackDelta(Path deltaFile) throws IOException {
+        Creator<String[], CSVRecord> changeCreator = data -> {
+            String[] change = new String[4];
+            change[0] = data.getString(0).trim();
+            change[1] = data.size() > 1 ? data.getString(1).trim() : "";
+            change[2] = data.size() > 2 ? data.getString(2).trim() : "";
+            change[3] = data.size() > 4 ? data.getString(4).trim() : "";
+            return change;
+        };
+        MyArrayList<String[]> changes;
+        LambdaReader<String[]> changeReader = null;
+        try {
+            changeReader = new LambdaReader<>(deltaFile.toString(), ",", changeCreator, true);
+            changes = changeReader.readObjects();
+        } finally {
+            if (changeReader != null) {
+                changeReader.close();
+            }
+        }
+
+        MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges = new MyArrayList<>();
+        synchronized (updateLock) {
+            RailNetwork current = network;
+            for (String[] change : changes) {
+                try {
+                    TrackChange trackChange = switch (change[0].toLowerCase()) {
+                        case "add", "update" -> new TrackChange(change[0].toLowerCase(), change[1], change[2],
+                                Double.parseDouble(change[3]));
+                        case "remove" -> new TrackChange("remove", change[1], change[2], 0);
+                        default -> throw new IllegalArgumentException("unknown operation " + change[0]);
+                    };
+                    apply(current, trackChange);
+                    changedEdges.addLast(new SaxGraph.DirectedEdge<>(change[1], change[2], 0));
+                } catch (KeyNotFoundException | DuplicateKeyException | IllegalArgumentException e) {
+                    System.err.println("Skipped track change " + String.join(",", change) + ": " + e.getMessage());
+                }
+            }
+            if (!changedEdges.isEmpty()) {
+                network = withChanges(current, changedEdges);
+            }
+        }
+        return changedEdges.size();
+    }
+
+    /**
+     * A change of one track: add (with its distance), remove or update (with the new distance).
+     */
+    private record TrackChange(String operation, String fromCode, String toCode, double distance) {
+        @Override
+        public String toString() {
+            return operation + "," + fromCode + "," + toCode + (operation.equals("remove") ? "" : ",," + distance);
+        }
+    }
+
+    /**
+     * Makes one track change on the current rail network and publishes the result.
+     * @param change The track change.
+     */
+
+    private void applyAndPublish(TrackChange change) {
+        synchronized (updateLock) {
+            RailNetwork current = network;
+            apply(current, change);
+            MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges = new MyArrayList<>();
+            changedEdges.addLast(new SaxGraph.DirectedEdge<>(change.fromCode(), change.toCode(), 0));
+            network = withChanges(current, changedEdges);
+        }
+    }
+
+    /**
+     * Makes a track change on the graph of a rail network and, while a reload runs, remembers it to replay on the
+     * new network. Must be called while holding the update lock.
+     * @param current The rail network to change.
+     * @param change The track change.
+     */
+
+    private void apply(RailNetwork current, TrackChange change) {
+        switch (change.operation()) {
+            case "add" -> addTrack(current, change.fromCode(), change.toCode(), change.distance());
+            case "remove" -> removeTrack(current, change.fromCode(), change.toCode());
+            case "update" -> updateTrackDistance(current, change.fromCode(), change.toCode(), change.distance());
+            default -> throw new IllegalArgumentException("unknown operation " + change.operation());
+        }
+        if (changesDuringReload != null && current == network) {
+            changesDuringReload.addLast(change);
+        }
+    }
+
+    /**
+     * Repairs copies of the cached shortest path trees after the graph of a rail network was changed, and makes the
+     * network with the new trees and a new snapshot to publish. The published trees are left as they are, for the
+     * queries still reading them. Must be called while holding the update lock.
+     * @param current The changed rail network.
+     * @param changedEdges The edges that were added, removed or re-weighted.
+     * @return The rail network to publish.
+     */
+
+    private RailNetwork withChanges(RailNetwork current, MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges) {
+        MyHashMap<String, MyGraph<String>> hubTrees = new MyHashMap<>();
+        for (String hubCode : current.hubTrees.getKeys()) {
+            hubTrees.add(hubCode, current.graph().repairedShortestPaths(current.hubTrees.get(hubCode), hubCode, changedEdges));
+        }
+        MyArrayList<String> changedCodes = new MyArrayList<>();
+        for (SaxGraph.DirectedEdge<String> edge : changedEdges) {
+            changedCodes.addLast(edge.from());
+        }
+        return current.withNewSnapshot(changedCodes, hubTrees);
+    }
+
+    /**
+     * Keeps the shortest paths from a (busy) station to all other stations, so routes from it are found by following
+     * the cached tree back from the destination instead of searching. Track updates repair the tree for the part of the
+     * network they affect, and a reload calculates it again.
+     *
+     * @param stationCode The code of the hub station.
+     * @throws KeyNotFoundException If the station has no tracks.
+     */
+
+    public void cacheShortestPathsFrom(String stationCode) throws KeyNotFoundException {
+        synchronized (updateLock) {
+            RailNetwork current = network;
+            if (!current.hubTrees.contains(stationCode)) {
+                network = current.withHubTree(stationCode, current.snapshot.shortestPathTree(stationCode));
+            }
+            if (!hubCodes.contains(stationCode)) {
+                hubCodes.addLast(stationCode);
+            }
+        }
+    }
+
+    /**
+     * Follows a cached shortest path tree back from the destination. Published trees never change and the walk only
+     * reads the tree, so no lock is needed.
+     * @param current The rail network that has the tree.
+     * @param startCode The code of the hub station.
+     * @param endCode The code of the destination.
+     * @return The edges of the path, with the distance from the start at every edge, or null if there is no path.
+     */
+
+    private MyArrayList<SaxGraph.DirectedEdge<String>> shortestPathFromHub(RailNetwork current, String startCode, String endCode) {
+        MyArrayList<SaxGraph.DirectedEdge<String>> path = new MyArrayList<>();
+        try {
+            for (SaxGraph.DirectedEdge<String> edge : MyGraph.backTrack(current.hubTrees.get(startCode), startCode, endCode)) {
+                path.addLast(edge);
+            }
+        } catch (IllegalStateException e) {
+            return null;
+        }
+        return path;
+    }
+
+    private void addTrack(RailNetwork current, String fromCode, String toCode, double distance) {
+        // both stations must exist; the graph of the Netherlands is a view of the snapshot, made again when publishing
+        current.stations.getByCode(fromCode);
+        current.stations.getByCode(toCode);
+        if (current.graph().containsEdge(fromCode, toCode)) {
+            throw new DuplicateKeyException(fromCode + "-" + toCode);
+        }
+        current.graph().addEdge(fromCode, toCode, distance);
+    }
+
+    private void removeTrack(RailNetwork current, String fromCode, String toCode) {
+        current.graph().removeEdge(fromCode, toCode);
+    }
+
+    private void updateTrackDistance(RailNetwork current, String fromCode, String toCode, double distance) {
+        current.graph().setEdgeWeight(fromCode, toCode, distance);
+    }
+
+    /**
+     * Starts watching the directories of the data files and reloads the rail network in the background when one of
+     * the files is created or changed. A reload starts once the files have not changed for a short while, and if it
+     * fails (for example because a file was only partly written) the old network stays in use until the next change.
+     * Does nothing if the files are watched already.
+     *
+     * @throws IOException If the directories can not be watched.
+     */
+
+    public synchronized void watchForChanges() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        Path stationsDirectory = stationsFile.toAbsolutePath().getParent();
+        Path tracksDirectory = tracksFile.toAbsolutePath().getParent();
+        try {
+            stationsDirectory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            if (!tracksDirectory.equals(stationsDirectory)) {
+                tracksDirectory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        watchService = service;
+
+        Thread watcher = new Thread(() -> watchFiles(service), "rail-network-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Waits for changes to the data files until the watch service is closed, and reloads after each burst of changes.
+     * @param service The watch service on the directories of the data files.
+     */
+
+    private void watchFiles(WatchService service) {
+        try {
+            while (true) {
+                boolean changed = takeDataFileChanges(service.take());
+                // collect the rest of the burst, so a file that is written in steps is loaded once
+                WatchKey key;
+                while ((key = service.poll(RELOAD_QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= takeDataFileChanges(key);
+                }
+                if (changed) {
+                    reloadAsync().exceptionally(e -> {
+                        System.err.println("Error reloading data, keeping the old network: " + e.getMessage());
+                        return null;
+                    });
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped by close()
+        }
+    }
+
+    /**
+     * Takes the events of a watch key and resets the key.
+     * @param key The signalled key of a watched directory.
+     * @return True if one of the events concerns one of the data files.
+     */
+
+    private boolean takeDataFileChanges(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name) {
+                Path file = directory.resolve(name);
+                changed |= file.equals(stationsFile.toAbsolutePath()) || file.equals(tracksFile.toAbsolutePath());
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Stops watching the data files and stops the background reload thread. Queries can still be answered.
+     */
+
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Error closing the file watcher: " + e.getMessage());
+            }
+            watchService = null;
+        }
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdown();
+            reloadExecutor = null;
+        }
     }
 
     /**
@@ -59,8 +618,9 @@ public class TrackManager {
      */
 
     public void displayMCSTForNetherlandsStations() {
-        SaxGraph<String> mst= nlRailNetworkGraph.minimumCostSpanningTree();
-        showMCST(mst);
+        RailNetwork current = network;
+        SaxGraph<String> mst= current.netherlandsGraph.minimumCostSpanningTree();
+        showMCST(mst, current.stations);
     }
 
 
@@ -70,8 +630,9 @@ public class TrackManager {
      */
 
     public void displayMCSTForAllStations() {
-        SaxGraph<String> mst= railNetworkGraph.minimumCostSpanningTree();
-        showMCST(mst);
+        RailNetwork current = network;
+        SaxGraph<String> mst= current.snapshot.asGraph().minimumCostSpanningTree();
+        showMCST(mst, current.stations);
     }
 
 
@@ -82,6 +643,10 @@ public class TrackManager {
      */
 
     public void showMCST(SaxGraph<String> graph) {
+        showMCST(graph, network.stations);
+    }
+
+    private void showMCST(SaxGraph<String> graph, StationIndex stations) {
       SaxGraph<String> mst= graph.minimumCostSpanningTree();
         double totalLength = 0.0;
         int connectionCount = 0;
@@ -97,8 +662,8 @@ public class TrackManager {
 
 
                 if (!visitedEdges.contains(directEdge) && !visitedEdges.contains(reverseEdge)) {
-                    String fromStationName = findStationByCode(fromCode).getName();
-                    String toStationName = findStationByCode(toCode).getName();
+                    String fromStationName = stations.getByCode(fromCode).getName();
+                    String toStationName = stations.getByCode(toCode).getName();
 
 
                     System.out.println(fromStationName + " -> " + toStationName);
@@ -123,102 +688,77 @@ public class TrackManager {
     }
 
     /**
-     * Loads data for all stations located in the Netherlands into a separate graph,
-     * and ensures
-     * that only bidirectional or one-way connections within the country are included without duplicates.
+     * Makes a graph of the stations of one or more countries, for example a cross-border corridor like NL and D:
+     * a view of the snapshot of the whole rail network with only the tracks between two of those stations. The view
+     * is made on demand and only keeps a bitmap of the numbers of the stations, so a view per country costs almost
+     * no memory. Like the snapshot, the view never changes and can be used from any thread; it belongs to the network
+     * of the moment it was made, so make a new one to see later track updates or a reload.
+     * @param countries The country codes, like NL, ignoring case.
+     * @return The graph of the stations in the countries.
      */
 
-    public void loadNetherlandsGraph() {
-        MyArrayList<Station> nlStations = filterOnlyNetherlandsStations();
-
-
-        MyHashMap<String, Boolean> nlStationCodes = new MyHashMap<>();
-        for (Station station : nlStations) {
-            nlStationCodes.add(station.getCode(), true);
-        }
-        MyHashMap<String, Boolean> addedEdges = new MyHashMap<>();
-
-
-        for (Track track : tracks) {
-            String fromCode = track.getFrom();
-            String toCode = track.getTo();
-            String directEdge = fromCode + "-" + toCode;
-            String reverseEdge = toCode + "-" + fromCode;
-
-
-            if (nlStationCodes.contains(fromCode) && nlStationCodes.contains(toCode)) {
-                if (!addedEdges.contains(directEdge) && !addedEdges.contains(reverseEdge)) {
-
-                if (isBidirectionalTrack(track)) {
-                    nlRailNetworkGraph.addEdgeBidirectional(fromCode, toCode, track.getDistanceInKilometers());
-                } else {
-                    nlRailNetworkGraph.addEdge(fromCode, toCode, track.getDistanceInKilometers());
-                }
-
-                    addedEdges.add(directEdge, true);
-                    addedEdges.add(reverseEdge, true);
-            }
-            }
-        }
+    public SaxGraph<String> getCountriesGraph(String... countries) {
+        RailNetwork current = network;
+        return current.snapshot.asGraph(RailNetwork.countryVertices(current.stations, current.snapshot, countries));
     }
 
 
     /**
      * Loads the entire rail network into a graph structure, handling bidirectional and
      * one-way tracks.Ensures that duplicate tracks are not added.
+     * The tracks are added one at a time, so they can be streamed from the file: the first track between two
+     * stations is added in its own direction, and a later track back with the same distance makes it bidirectional.
+     * Any other track between the same stations is ignored.
+     * @param tracks All tracks, in the order of the file.
+     * @return The graph of the whole rail network.
      */
 
-    public void loadGraph() {
-        MyHashMap<String, Boolean> addedEdges = new MyHashMap<>();
+    public MyGraph<String> loadGraph(Iterable<Track> tracks) {
+        MyGraph<String> railNetworkGraph = new MyGraph<>();
         for (Track track : tracks) {
+            String from = track.getFrom();
+            String to = track.getTo();
+            double distance = track.getDistanceInKilometers();
 
-            String directEdge = track.getFrom() + "-" + track.getTo();
-            String reverseEdge = track.getTo() + "-" + track.getFrom();
-
-            if (!addedEdges.contains(directEdge) && !addedEdges.contains(reverseEdge)) {
-
-
-
-                if (isBidirectionalTrack(track)) {
-                    railNetworkGraph.addEdgeBidirectional(track.getFrom(), track.getTo(), track.getDistanceInKilometers());
+            if (railNetworkGraph.containsEdge(from, to)) {
+                continue; // a duplicate, or the way back of a bidirectional track
+            }
+            if (!railNetworkGraph.containsEdge(to, from)) {
+                if (from.equals(to)) {
+                    railNetworkGraph.addEdgeBidirectional(from, to, distance);
                 } else {
-                    railNetworkGraph.addEdge(track.getFrom(), track.getTo(), track.getDistanceInKilometers());
+                    railNetworkGraph.addEdge(from, to, distance);
                 }
-
-
-                addedEdges.add(directEdge, true);
-                addedEdges.add(reverseEdge, true);
+            } else if (isReverseTrack(railNetworkGraph, track)) {
+                railNetworkGraph.addEdge(from, to, distance);
             }
         }
-
+        return railNetworkGraph;
     }
 
 
 
 
-
     /**
-     * Loads station data from a CSV file using a reader.LambdaReader.
-     * Each entry in the file is created with use of the reader.Creator interface.
+     * Loads station data from a CSV file using a reader.CSVReader.
+     * Each record is added to a station table as soon as it is read, so no object is kept per station. As the rows
+     * are added in the order of the file, the file is read sequentially.
      *
+     * @return The stations read from the file.
      * @throws IOException If an error occurs during file reading.
      */
 
-    public void loadStations() throws IOException {
-        Creator<Station, MyArrayList<String>> stationCreator = data -> {
-            String code = data.get(0);
-            String name = data.get(1);
-            String country = data.get(2);
-            String type = data.get(3);
-            double latitude = Double.parseDouble(data.get(4));
-            double longitude = Double.parseDouble(data.get(5));
-            return new Station(code, name, country, type, latitude, longitude);
-        };
-
-        LambdaReader<Station> stationReader = null;
+    public StationTable loadStations() throws IOException {
+        StationTable table = new StationTable();
+        CSVReader stationReader = null;
         try {
-            stationReader = new LambdaReader<>("./resources/stations.csv", ",", stationCreator, true);
-            stations = stationReader.readObjects();
+            stationReader = new CSVReader(stationsFile.toString(), ",", true);
+            while (stationReader.readLine()) {
+                CSVRecord record = stationReader.getRecord();
+                table.add(record.getString(0), record.getString(1), record.getString(2), record.getString(3),
+                        record.getDouble(4), record.getDouble(5));
+            }
+            return table;
         } finally {
             if (stationReader != null) {
                 stationReader.close();
@@ -229,23 +769,37 @@ public class TrackManager {
 
 
     /**
-     * Loads track data from a CSV file using a reader.LambdaReader.
-     * Each entry in the file is created with use of the reader.Creator interface.
+     * Returns the immutable snapshot of the whole rail network, which can be queried (shortest paths, spanning tree)
+     * from many threads at the same time. The snapshot is made once after loading, not per call, and is replaced
+     * by a new one on reload.
+     * @return The current snapshot of the rail network.
+     */
+
+    public NetworkSnapshot snapshot() {
+        return network.snapshot;
+    }
+
+
+    /**
+     * Loads track data from a CSV file using a reader.LambdaReader, straight into the graph of the whole rail network.
+     * Each entry in the file is created with use of the reader.Creator interface when it is read and added to the
+     * graph right away, so no list of all tracks is kept.
      *
+     * @return The graph of the whole rail network.
      * @throws IOException If an error occurs during file reading.
      */
-    public void loadTracks() throws IOException {
-        Creator<Track, MyArrayList<String>> trackCreator = data -> {
-            String from = data.get(0);
-            String to = data.get(1);
-            int costUnit = Integer.parseInt(data.get(2));
-            double distance = Double.parseDouble(data.get(3));
+    public MyGraph<String> loadTracks() throws IOException {
+        Creator<Track, CSVRecord> trackCreator = data -> {
+            String from = data.getString(0);
+            String to = data.getString(1);
+            int costUnit = data.getInt(2);
+            double distance = data.getDouble(3);
             return new Track(from, to, costUnit, distance);
         };
         LambdaReader<Track> trackReader = null;
         try {
-            trackReader = new LambdaReader<>("./resources/tracks.csv", ",", trackCreator, true);
-            tracks = trackReader.readObjects();
+            trackReader = new LambdaReader<>(tracksFile.toString(), ",", trackCreator, true);
+            return loadGraph(trackReader);
         } finally {
             if (trackReader != null) {
                 trackReader.close();
@@ -262,7 +816,7 @@ public class TrackManager {
 
     public Station findStationByCode(String code) {
         try {
-            return stationMap.get(code.trim());
+            return network.stations.getByCode(code.trim());
         } catch (KeyNotFoundException e) {
             System.out.println("Station with code " + code + " not found.");
             return null;
@@ -277,13 +831,14 @@ public class TrackManager {
 
     public MyArrayList<Station> getStationsByName(String name) {
         MyArrayList<Station> matchingStations = new MyArrayList<>();
+        StationIndex index = network.stations;
 
-
-        if (stationsTree.contains(name)) {
-            matchingStations.addLast(stationsTree.get(name));
+        Station station = index.getByName(name);
+        if (station != null) {
+            matchingStations.addLast(station);
         } else {
 
-            MyArrayList<Station> prefixMatches = stationsTree.getByPrefix(name.toLowerCase());
+            MyArrayList<Station> prefixMatches = index.getByNamePrefix(name.toLowerCase());
             for (int i = 0; i < prefixMatches.size(); i++) {
                 matchingStations.addLast(prefixMatches.get(i));
             }
@@ -299,26 +854,83 @@ public class TrackManager {
 
 
     /**
-     * Retrieves a list of stations by their type, sorted alphabetically by name using the quickSort.
+     * Retrieves the first stations, alphabetically, whose name starts with the given text; meant for autocompletion.
+     * Uses the radix tree over the lower-cased station names, which answers up to 10 completions
+     * from a per-node cache, so the cost only depends on the length of the text.
+     * @param prefix The (first part of the) station name.
+     * @param limit The maximum number of stations to return.
+     * @return A list of at most limit stations whose name starts with the prefix, possibly empty.
+     */
+
+    public MyArrayList<Station> getStationsByNamePrefix(String prefix, int limit) {
+        return network.stations.getCompletions(prefix, limit);
+    }
+
+
+    /**
+     * Retrieves one page of the stations in alphabetical order of their name, for example for a paginated listing.
+     * The first and last name of the page are found with select on the AVL tree of stations, after which only the
+     * stations of the page are visited, so no list of all names is made.
+     * @param offset The number of stations before the page, in alphabetical order.
+     * @param limit The maximum number of stations on the page.
+     * @return A list of at most limit stations, empty if the offset is beyond the last station.
+     */
+
+    public MyArrayList<Station> getStationsByNamePage(int offset, int limit) {
+        return network.stations.getPage(offset, limit);
+    }
+
+
+    /**
+     * Returns the number of stations, for example to compute the number of pages of a listing.
+     * @return The number of stations.
+     */
+
+    public int getNumberOfStations() {
+        return network.stations.size();
+    }
+
+
+    /**
+     * Retrieves the stations whose name looks like the given name, for example when it contains a typo.
+     * Walks the radix tree over the lower-cased station names, in which every insertion, deletion, substitution
+     * or swap of two adjacent characters counts as one edit.
+     * @param name The (misspelled) station name.
+     * @param maxDistance The maximum number of edits between the name and a station name.
+     * @param limit The maximum number of stations to return.
+     * @return A list of at most limit stations, the most similar names first, possibly empty.
+     */
+
+    public MyArrayList<Station> getStationsBySimilarName(String name, int maxDistance, int limit) {
+        return network.stations.getBySimilarName(name, maxDistance, limit);
+    }
+
+
+    /**
+     * Retrieves a list of stations by their type, sorted alphabetically by name. The stations come straight from the
+     * posting list of the type, which was sorted by name when the stations were loaded.
      * @param type The type of station.
      * @return A list of stations matching the type, sorted by name.
      */
 
     public MyArrayList<Station> getStationsByType(String type) {
-        MyArrayList<Station> filteredStations = new MyArrayList<>();
+        return network.stations.getByType(type);
+    }
 
-        for (Station station : stations) {
-            if (station.getType().equalsIgnoreCase(type)) {
-                filteredStations.addLast(station);
-            }
-        }
+    /**
+     * Retrieves the stations of a type in a country, sorted alphabetically by name, by intersecting the posting
+     * lists of the type and the country.
+     * @param type The type of station.
+     * @param country The country code, like NL.
+     * @return A list of stations matching both, sorted by name.
+     */
 
-        filteredStations.quickSort(Comparator.comparing(Station::getName));
-        return filteredStations;
+    public MyArrayList<Station> getStationsByTypeAndCountry(String type, String country) {
+        return network.stations.getByTypeAndCountry(type, country);
     }
 
     /**
-     * Retrieves the shortest path between two stations using their names, using Dijkstra's algorithm.
+     * Retrieves the shortest path between two stations using their names, using Dijkstra's algorithm on the network snapshot.
      * @param startStation The name of the starting station.
      * @param endStation The name of the destination station.
      * @return A list of directed edges representing the shortest path, or null if no path exists.
@@ -329,15 +941,17 @@ public class TrackManager {
 
         String startCode = null;
         String endCode = null;
+        RailNetwork current = network;
+        StationIndex index = current.stations;
 
         try {
-            startCode = stationNameToCodeMap.get(startStation.toLowerCase());
+            startCode = index.getCodeByName(startStation);
         } catch (KeyNotFoundException e) {
             System.out.println("Station with name " + startStation + " not found.");
         }
 
         try {
-            endCode = stationNameToCodeMap.get(endStation.toLowerCase());
+            endCode = index.getCodeByName(endStation);
         } catch (KeyNotFoundException e) {
             System.out.println("Station with name " + endStation + " not found.");
         }
@@ -349,10 +963,13 @@ public class TrackManager {
         }
 
 
-        SaxGraph<String> dijkstraGraph = railNetworkGraph.shortestPathsDijkstra(startCode);
         try {
-            path = (MyArrayList<SaxGraph.DirectedEdge<String>>) railNetworkGraph.backTrackDijkstra(dijkstraGraph, startCode, endCode);
-        } catch (IllegalStateException e) {
+            path = current.hubTrees.contains(startCode)
+                    ? shortestPathFromHub(current, startCode, endCode) : current.snapshot.shortestPath(startCode, endCode);
+        } catch (KeyNotFoundException e) {
+            path = null; // a station without tracks
+        }
+        if (path == null) {
             System.out.println("No path found between " + startStation + " and " + endStation + ".");
             return null;
         }
@@ -388,31 +1005,16 @@ public class TrackManager {
 
 
     /**
-     * Filters and retrieves only the stations located in the Netherlands from the stations' list.
-     * @return A MyArraylist of Netherlands stations.
-     */
-
-    private MyArrayList<Station> filterOnlyNetherlandsStations() {
-        MyArrayList<Station> filteredNLStations = new MyArrayList<>();
-        for (Station station : stations) {
-            if (station.getCountry().equalsIgnoreCase("NL")) {
-                filteredNLStations.addLast(station);
-            }
-        }
-        return filteredNLStations;
-    }
-
-    /**
-     * Helper method which checks if a track is bidirectional by verifying the existence of its reverse.
+     * Helper method which checks if a track is the way back of the first track between its stations,
+     * which was added to the graph already, by comparing their distances.
+     * @param graph The graph with the tracks read before.
      * @param track The track to check.
-     * @return True if the track is bidirectional, false otherwise.
+     * @return True if the tracks together are bidirectional, false otherwise.
      */
 
-    private boolean isBidirectionalTrack(Track track) {
-        for (Track reverseTrack : tracks) {
-            if (reverseTrack.getFrom().equals(track.getTo()) &&
-                    reverseTrack.getTo().equals(track.getFrom()) &&
-                    reverseTrack.getDistanceInKilometers() == track.getDistanceInKilometers()) {
+    private boolean isReverseTrack(MyGraph<String> graph, Track track) {
+        for (SaxGraph.DirectedEdge<String> edge : graph.getEdges(track.getTo())) {
+            if (edge.to().equals(track.getFrom()) && edge.weight() == track.getDistanceInKilometers()) {
                 return true;
             }
         }
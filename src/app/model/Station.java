@@ -1,46 +1,87 @@
 package app.model;
 
+import java.util.Comparator;
+
+/**
+ * A station: either a view of one row of a {@link StationTable}, where the station data itself is kept in the
+ * columns of the table, or a station made on its own, which keeps its data in plain fields.
+ */
 public class Station {
 
-    private final String code;
-    private final String name;
-    private final String country;
-    private final String type;
-    private final double latitude;
-    private final double longitude;
+    /**
+     * Orders stations by name like {@code Comparator.comparing(Station::getName)}, but compares stations of the same
+     * table in its name arena, without copying the names.
+     */
+    public static final Comparator<Station> BY_NAME = (station, other) -> station.table != null
+            && station.table == other.table
+            ? station.table.compareNames(station.row, other.row) : station.getName().compareTo(other.getName());
+
+    private final StationTable table; // null for a station made on its own
+    private final int row;
+
+    private final Fields fields; // the data of a station made on its own, null for a row of a table
+
+    /**
+     * The data of a station made on its own, in one object, so a row of a table only needs one (null) field for it.
+     */
+    private record Fields(String code, String name, String country, String type, double latitude, double longitude) {
+    }
+
+    /**
+     * Creates a station on its own, outside any table. Stations that are loaded together belong in one
+     * {@link StationTable}, which stores them far more compactly.
+     */
 
     public Station(String code, String name, String country, String type, double latitude, double longitude) {
-        this.code = code;
-        this.name = name;
-        this.country = country;
-        this.type = type;
-        this.latitude = latitude;
-        this.longitude = longitude;
+        this.table = null;
+        this.row = -1;
+        this.fields = new Fields(code, name, country, type, latitude, longitude);
+    }
+
+    Station(StationTable table, int row) {
+        this.table = table;
+        this.row = row;
+        this.fields = null;
+    }
+
+    /**
+     * Returns the table this station is a row of, or null for a station made on its own.
+     */
+
+    public StationTable getTable() {
+        return table;
+    }
 
+    /**
+     * Returns the row of this station in its table, or -1 for a station made on its own.
+     */
+
+    public int getRow() {
+        return row;
     }
 
     public String getCode() {
-        return code;
+        return table == null ? fields.code() : table.getCode(row);
     }
 
     public String getName() {
-        return name;
+        return table == null ? fields.name() : table.getName(row);
     }
 
     public String getType() {
-        return type;
+        return table == null ? fields.type() : table.getType(row);
     }
 
     public String getCountry() {
-        return country;
+        return table == null ? fields.country() : table.getCountry(row);
     }
 
     public double getLatitude() {
-        return latitude;
+        return table == null ? fields.latitude() : table.getLatitude(row);
     }
 
     public double getLongitude() {
-        return longitude;
+        return table == null ? fields.longitude() : table.getLongitude(row);
     }
 
     /**
@@ -73,10 +114,28 @@ public class Station {
         ;
         sb.append("--------------------").append("\n");
         ;
-        sb.append("Station code: ").append(code).append("\n");
-        sb.append("Station name: ").append(name).append("\n");
-        sb.append("Station country: ").append(getCountryFullName(country)).append("\n");
-        sb.append("Station type: ").append(type).append("\n");
+        sb.append("Station code: ").append(getCode()).append("\n");
+        sb.append("Station name: ").append(getName()).append("\n");
+        sb.append("Station country: ").append(getCountryFullName(getCountry())).append("\n");
+        sb.append("Station type: ").append(getType()).append("\n");
         return sb.toString();
     }
+
+    /**
+     * Two views are equal when they show the same row of the same table; a station made on its own is only equal
+     * to itself.
+     */
+
+    @Override
+    public boolean equals(Object other) {
+        if (table == null) {
+            return other == this;
+        }
+        return other instanceof Station station && station.table == table && station.row == row;
+    }
+
+    @Override
+    public int hashCode() {
+        return table == null ? System.identityHashCode(this) : System.identityHashCode(table) * 31 + row;
+    }
 }
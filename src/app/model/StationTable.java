@@ -0,0 +1,269 @@
+package app.model;
+
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyHashMap;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The stations stored by column instead of as one object per station. Stations are rows, numbered 0 .. size() - 1
+ * in the order they were added, and a {@link Station} is only a view of a row.
+ * <p>
+ * Country and type come from a handful of values, so each column keeps a byte per row that refers to a dictionary
+ * of the distinct values. Coordinates are kept as fixed-point ints in units of 1e-7 degree (about a centimeter).
+ * All names are stored one after the other in a single char array, the arena, and a row only keeps where its
+ * name starts. Scans over country or type therefore read a byte array instead of following a pointer per station.
+ * </p>
+ * Rows can only be added, so a table that is not changed anymore can be read by any number of threads.
+ */
+public class StationTable implements Iterable<Station> {
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final int MAXIMUM_DICTIONARY_SIZE = 256;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] codes = new String[INITIAL_CAPACITY];
+    // the name of row r is nameArena[nameStarts[r] .. nameStarts[r + 1] - 1]
+    private int[] nameStarts = new int[INITIAL_CAPACITY + 1];
+    private char[] nameArena = new char[INITIAL_CAPACITY * 16];
+    private byte[] countries = new byte[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] latitudes = new int[INITIAL_CAPACITY];
+    private int[] longitudes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final MyArrayList<String> countryValues = new MyArrayList<>();
+    private final MyHashMap<String, Integer> countryNumbers = new MyHashMap<>();
+    private final MyArrayList<String> typeValues = new MyArrayList<>();
+    private final MyHashMap<String, Integer> typeNumbers = new MyHashMap<>();
+
+    /**
+     * Adds a station as the next row.
+     * @return The row of the station.
+     * @throws IllegalArgumentException If a coordinate is not a valid latitude or longitude, or the station has
+     * the 257th different country or type.
+     */
+
+    public int add(String code, String name, String country, String type, double latitude, double longitude) {
+        int latitudeValue = toFixedPoint(latitude, 90, "latitude");
+        int longitudeValue = toFixedPoint(longitude, 180, "longitude");
+        byte countryNumber = numberOf(country, countryValues, countryNumbers, "countries");
+        byte typeNumber = numberOf(type, typeValues, typeNumbers, "types");
+        if (size == codes.length) {
+            int capacity = size * 2;
+            codes = Arrays.copyOf(codes, capacity);
+            nameStarts = Arrays.copyOf(nameStarts, capacity + 1);
+            countries = Arrays.copyOf(countries, capacity);
+            types = Arrays.copyOf(types, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+        }
+        int nameStart = nameStarts[size];
+        if (nameStart + name.length() > nameArena.length) {
+            nameArena = Arrays.copyOf(nameArena, Math.max(nameArena.length * 2, nameStart + name.length()));
+        }
+        name.getChars(0, name.length(), nameArena, nameStart);
+
+        codes[size] = code;
+        nameStarts[size + 1] = nameStart + name.length();
+        countries[size] = countryNumber;
+        types[size] = typeNumber;
+        latitudes[size] = latitudeValue;
+        longitudes[size] = longitudeValue;
+        return size++;
+    }
+
+    private static int toFixedPoint(double degrees, double limit, String coordinate) {
+        if (!(degrees >= -limit && degrees <= limit)) {
+            throw new IllegalArgumentException("Invalid " + coordinate + ": " + degrees);
+        }
+        return (int) Math.round(degrees * COORDINATE_SCALE);
+    }
+
+    private static byte numberOf(String value, MyArrayList<String> values, MyHashMap<String, Integer> numbers, String column) {
+        if (numbers.contains(value)) {
+            return numbers.get(value).byteValue();
+        }
+        if (values.size() == MAXIMUM_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("More than " + MAXIMUM_DICTIONARY_SIZE + " different " + column);
+        }
+        numbers.add(value, values.size());
+        values.addLast(value);
+        return (byte) (values.size() - 1);
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return The number of stations in the table.
+     */
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the different countries of the stations, in the order they were first added.
+     * @return A new list of the country codes.
+     */
+
+    public MyArrayList<String> getCountries() {
+        return copyOf(countryValues);
+    }
+
+    /**
+     * Returns the different types of the stations, in the order they were first added.
+     * @return A new list of the station types.
+     */
+
+    public MyArrayList<String> getTypes() {
+        return copyOf(typeValues);
+    }
+
+    private static MyArrayList<String> copyOf(MyArrayList<String> values) {
+        MyArrayList<String> copy = new MyArrayList<>(Math.max(values.size(), 1));
+        for (String value : values) {
+            copy.addLast(value);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a view of a row.
+     * @param row The row of the station.
+     * @return The station; a new view for every call.
+     * @throws IndexOutOfBoundsException If there is no such row.
+     */
+
+    public Station get(int row) {
+        return new Station(this, checkRow(row));
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + size + " stations");
+        }
+        return row;
+    }
+
+    public String getCode(int row) {
+        return codes[checkRow(row)];
+    }
+
+    /**
+     * Returns the name of a row, copied out of the arena. Use {@link #compareNames(int, int)} to order rows
+     * without copying.
+     */
+
+    public String getName(int row) {
+        checkRow(row);
+        return new String(nameArena, nameStarts[row], nameStarts[row + 1] - nameStarts[row]);
+    }
+
+    public String getCountry(int row) {
+        return countryValues.get(countries[checkRow(row)] & 0xFF);
+    }
+
+    public String getType(int row) {
+        return typeValues.get(types[checkRow(row)] & 0xFF);
+    }
+
+    public double getLatitude(int row) {
+        return latitudes[checkRow(row)] / COORDINATE_SCALE;
+    }
+
+    public double getLongitude(int row) {
+        return longitudes[checkRow(row)] / COORDINATE_SCALE;
+    }
+
+    /**
+     * Compares the names of two rows like {@link String#compareTo(String)}, straight in the arena.
+     * @return A negative number, zero or a positive number if the name of the first row is smaller than, equal to
+     * or larger than the name of the second row.
+     */
+
+    public int compareNames(int row, int otherRow) {
+        checkRow(row);
+        checkRow(otherRow);
+        int start = nameStarts[row];
+        int otherStart = nameStarts[otherRow];
+        int length = nameStarts[row + 1] - start;
+        int otherLength = nameStarts[otherRow + 1] - otherStart;
+        int mismatch = Arrays.mismatch(nameArena, start, start + length, nameArena, otherStart, otherStart + otherLength);
+        if (mismatch < 0 || mismatch == Math.min(length, otherLength)) {
+            return length - otherLength;
+        }
+        return nameArena[start + mismatch] - nameArena[otherStart + mismatch];
+    }
+
+    /**
+     * Finds the rows whose country is equal to the given one, ignoring case.
+     * Only the byte column of the countries is read.
+     * @param country The country code, like NL.
+     * @return The rows in ascending order, possibly none.
+     */
+
+    public int[] rowsWithCountry(String country) {
+        return rowsWith(countries, matching(countryValues, country));
+    }
+
+    /**
+     * Finds the rows whose type is equal to the given one, ignoring case. Only the byte column of the types is read.
+     * @param type The station type, like intercitystation.
+     * @return The rows in ascending order, possibly none.
+     */
+
+    public int[] rowsWithType(String type) {
+        return rowsWith(types, matching(typeValues, type));
+    }
+
+    private static boolean[] matching(MyArrayList<String> values, String value) {
+        boolean[] matches = new boolean[MAXIMUM_DICTIONARY_SIZE];
+        for (int number = 0; number < values.size(); number++) {
+            matches[number] = values.get(number).equalsIgnoreCase(value);
+        }
+        return matches;
+    }
+
+    private int[] rowsWith(byte[] column, boolean[] matches) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (matches[column[row] & 0xFF]) {
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        count = 0;
+        for (int row = 0; row < size && count < rows.length; row++) {
+            if (matches[column[row] & 0xFF]) {
+                rows[count++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Iterates over views of the rows, in row order.
+     * @return An iterator over the stations.
+     */
+
+    @Override
+    public Iterator<Station> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Station next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(row++);
+            }
+        };
+    }
+}
@@ -27,6 +27,36 @@ public interface SaxGraph<V> extends SaxCollection<V>, Iterable<V> {
      */
     public void addEdgeBidirectional(V fromValue, V toValue, double weight);
 
+    /**
+     * Checks whether there is an edge from the one node to the other.
+     *
+     * @param fromValue originating node value
+     * @param toValue   connected node value
+     * @return true if there is an edge from fromValue to toValue
+     */
+    boolean containsEdge(V fromValue, V toValue);
+
+    /**
+     * Remove the edge(s) from the one node to the other. The edge in the other direction (if any) is kept,
+     * and so are both nodes, also when they have no edges left.
+     *
+     * @param fromValue originating node value
+     * @param toValue   connected node value
+     * @throws KeyNotFoundException if there is no edge from fromValue to toValue
+     */
+    void removeEdge(V fromValue, V toValue) throws KeyNotFoundException;
+
+    /**
+     * Change the weight of the edge(s) from the one node to the other.
+     *
+     * @param fromValue originating node value
+     * @param toValue   connected node value
+     * @param weight    the new weight of the edge
+     * @return the old weight of the edge
+     * @throws KeyNotFoundException if there is no edge from fromValue to toValue
+     */
+    double setEdgeWeight(V fromValue, V toValue, double weight) throws KeyNotFoundException;
+
     /**
      * Gets a list of edges from the given node.
      *
@@ -23,4 +23,19 @@ public interface SaxSortable<V> {
      * @param comparator sorting comparator
      */
     void quickSort(Comparator<V> comparator);
+
+    /**
+     * Sort the collection in place in ascending order, using a stable merge sort;
+     * elements which are equal according to the comparator keep their original order.
+     *
+     * @param comparator sorting comparator
+     */
+    void mergeSort(Comparator<V> comparator);
+
+    /**
+     * Sort the collection in place in ascending order, using all available processor cores.
+     *
+     * @param comparator sorting comparator
+     */
+    void parallelSort(Comparator<V> comparator);
 }
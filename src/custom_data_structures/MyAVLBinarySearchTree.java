@@ -146,9 +146,11 @@ public class MyAVLBinarySearchTree<K extends Comparable<K>, V> extends MyBinaryS
         newRoot.right = currentRoot;
         currentRoot.left = middleSubtree;
 
-        // Update heights
+        // Update heights and subtree sizes
         updateHeight(currentRoot);
         updateHeight(newRoot);
+        updateSize(currentRoot);
+        updateSize(newRoot);
 
         return newRoot;
     }
@@ -171,9 +173,11 @@ public class MyAVLBinarySearchTree<K extends Comparable<K>, V> extends MyBinaryS
         newRoot.left = currentRoot;
         currentRoot.right = middleSubtree;
 
-        // Update heights
+        // Update heights and subtree sizes
         updateHeight(currentRoot);
         updateHeight(newRoot);
+        updateSize(currentRoot);
+        updateSize(newRoot);
 
 
         return newRoot;
@@ -2,19 +2,33 @@ package custom_data_structures;
 
 import collection.*;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable<V> {
     // Minimal size of the internal array
     private static final int MINIMUM_SIZE = 32;
     // Extending means doubling in size, until the size is bigger than this maximum extension size
     private static final int MAXIMUM_EXTENSION = 256;
+    // Ranges smaller than this are sorted with an insertion sort instead of being split further
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    // Ranges smaller than this are sorted (or merged) by a single thread in parallelSort
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    // Runs shorter than this are extended with a binary insertion sort in mergeSort
+    private static final int MINIMUM_MERGE = 32;
 
     // Java prohibits creating an array with a generic type, so we use Object
     private Object[] elements;
     // Number of elements in use
     private int size;
+    // Scratch space of mergeSort, kept between sorts so repeated sorting does not allocate
+    private Object[] mergeBuffer;
+    // The comparator by which the list is known to be sorted, or null if unknown. Set by sorting (and by
+    // a successful isSorted()), cleared by adding or setting elements; removing elements keeps a list sorted.
+    private Comparator<V> sortedBy;
 
     public MyArrayList() {
         this(MINIMUM_SIZE);
@@ -69,6 +83,7 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
         if (index < 0 || index >= size)
             throw new IndexOutOfBoundsException(Integer.toString(index));
         elements[index] = value;
+        sortedBy = null;
     }
 
     @Override
@@ -171,6 +186,7 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
             System.arraycopy(elements, index, elements, index + 1, size - index);
         }
         ++size;
+        sortedBy = null;
     }
 
     @Override
@@ -191,6 +207,8 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
      * If the comparator returns a value greater than 0 (indicating that the element at index i
      * is greater than the one at i+1), the list is considered not sorted, and the method returns false.
      * If no such case is found, the list is sorted and the method returns true.
+     * When the list is already known to be sorted by this comparator (the same instance), it returns true without
+     * checking; a positive result is remembered for the next call.
      *
      * @param comparator the comparator to use for comparing the elements
      * @return boolean true if the list is sorted, false otherwise
@@ -201,6 +219,7 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
 
 
         if (comparator == null) return false;
+        if (comparator == sortedBy) return true;
         if (size() <= 1) return true; // A list with 0 or 1 element is trivially sorted
 
         for (int i = 0; i < size - 1; i++) {
@@ -223,6 +242,7 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
                 return false; // If an element is greater than the next one, the list is unsorted
             }
         }
+        sortedBy = comparator;
         return true;
     }
 
@@ -243,6 +263,7 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
             // swap smallest element with element at smallest
             swap(index, smallest);
         }
+        sortedBy = comparator;
     }
 
     /**
@@ -263,32 +284,53 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
     }
 
     /**
-     * Recursively do a quick sort (in place) on the elements in ascending order.
+     * Do an introspective quick sort (in place) on the elements in ascending order.
+     * The pivot is the median of the first, middle and last element, so already sorted input is split evenly.
+     * Small ranges are finished with an insertion sort and when the recursion gets too deep
+     * (a pathological input) the remaining range is heap sorted, which bounds the sort to O(n log n).
      */
     @Override
     public void quickSort(Comparator<V> comparator) {
-        quickSort(comparator, 0, size - 1);
+        if (size > 1) {
+            int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(size));
+            introSort(comparator, 0, size - 1, depthLimit);
+        }
+        sortedBy = comparator;
     }
 
     /**
-     * Recursively do a quick sort (in place) on the elements from begin until (including) end in ascending order.
+     * Quick sort the elements from begin until (including) end in ascending order.
+     * Only the smaller part is sorted recursively and the bigger part in the loop,
+     * so the recursion depth stays logarithmic.
      *
      * @param comparator method to compare two V objects
      * @param begin      start of range
      * @param end        end of range
+     * @param depthLimit number of splits left before switching to heap sort
      */
-    private void quickSort(Comparator<V> comparator, int begin, int end) {
-        if (end - begin >= 1) {
+    private void introSort(Comparator<V> comparator, int begin, int end, int depthLimit) {
+        while (end - begin >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(comparator, begin, end);
+                return;
+            }
             int pivot = splitInPlace(comparator, begin, end);
-            quickSort(comparator, begin, pivot - 1);
-            quickSort(comparator, pivot + 1, end);
+            if (pivot - begin < end - pivot) {
+                introSort(comparator, begin, pivot - 1, depthLimit);
+                begin = pivot + 1;
+            } else {
+                introSort(comparator, pivot + 1, end, depthLimit);
+                end = pivot - 1;
+            }
         }
+        insertionSort(comparator, begin, end);
     }
 
     /**
-     * Split the range of elements into 2 parts; on the left the elements which are smaller
-     * than the pivot, on the right the elements which are bigger then the pivot.
-     * Start with the last element is the pivot value and return the index of the pivot afterward.
+     * Split the range of elements into 2 parts; on the left the elements which are not bigger
+     * than the pivot, on the right the elements which are not smaller then the pivot.
+     * The median of the first, middle and last element is moved to the end and used as pivot.
+     * Both scans stop at elements equal to the pivot, so ranges with many equal elements are still split evenly.
      *
      * @param comparator method to compare two objects
      * @param begin      left index
@@ -296,26 +338,491 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
      * @return the current index of the pivot
      */
     private int splitInPlace(Comparator<V> comparator, int begin, int end) {
-        V pivot = get(end); // last element (at end) as pivot
+        int middle = begin + (end - begin) / 2;
+        // order begin, middle and end, afterwards the median is at middle
+        if (comparator.compare(elementAt(middle), elementAt(begin)) < 0) swap(middle, begin);
+        if (comparator.compare(elementAt(end), elementAt(middle)) < 0) {
+            swap(end, middle);
+            if (comparator.compare(elementAt(middle), elementAt(begin)) < 0) swap(middle, begin);
+        }
+        swap(middle, end);
+        V pivot = elementAt(end);
+
+        int left = begin - 1;
+        int right = end;
+        while (true) {
+            while (comparator.compare(elementAt(++left), pivot) < 0) {
+                // the pivot itself at end stops this scan
+            }
+            while (comparator.compare(pivot, elementAt(--right)) < 0) {
+                if (right == begin) break;
+            }
+            if (left >= right) break;
+            swap(left, right);
+        }
+        swap(left, end);
+
+        return left; // Returns index of pivot
+    }
+
+    /**
+     * Sort the elements from begin until (including) end by inserting every element
+     * in the already sorted part before it. Fast for small ranges.
+     *
+     * @param comparator method to compare two objects
+     * @param begin      left index
+     * @param end        right index
+     */
+    private void insertionSort(Comparator<V> comparator, int begin, int end) {
+        for (int index = begin + 1; index <= end; ++index) {
+            V value = elementAt(index);
+            int position = index - 1;
+            while (position >= begin && comparator.compare(elementAt(position), value) > 0) {
+                elements[position + 1] = elements[position];
+                --position;
+            }
+            elements[position + 1] = value;
+        }
+    }
 
-        int left = begin;
-        int right = end - 1;
-        while (left <= right) {
-            while (left <= right && comparator.compare(get(left), pivot) <= 0) {
-                left++;
+    /**
+     * Heap sort the elements from begin until (including) end, used when quick sort recurses too deep.
+     *
+     * @param comparator method to compare two objects
+     * @param begin      left index
+     * @param end        right index
+     */
+    private void heapSort(Comparator<V> comparator, int begin, int end) {
+        int length = end - begin + 1;
+        for (int parent = length / 2 - 1; parent >= 0; --parent) {
+            siftDown(comparator, begin, parent, length);
+        }
+        for (int last = length - 1; last > 0; --last) {
+            swap(begin, begin + last);
+            siftDown(comparator, begin, 0, last);
+        }
+    }
+
+    /**
+     * Move the element at position parent (relative to offset) down a max-heap of the given length.
+     *
+     * @param comparator method to compare two objects
+     * @param offset     index of the root of the heap
+     * @param parent     position of the element to move down, relative to offset
+     * @param length     number of elements in the heap
+     */
+    private void siftDown(Comparator<V> comparator, int offset, int parent, int length) {
+        V value = elementAt(offset + parent);
+        int child;
+        while ((child = 2 * parent + 1) < length) {
+            if (child + 1 < length && comparator.compare(elementAt(offset + child), elementAt(offset + child + 1)) < 0) {
+                ++child;
             }
-            while (left <= right && comparator.compare(get(right), pivot) > 0) {
-                right--;
+            if (comparator.compare(value, elementAt(offset + child)) >= 0) break;
+            elements[offset + parent] = elements[offset + child];
+            parent = child;
+        }
+        elements[offset + parent] = value;
+    }
+
+    /**
+     * Do a stable, natural merge sort (in place) on the elements in ascending order, in the style of TimSort.
+     * The list is scanned for runs which are already ascending (or strictly descending, which are reversed),
+     * short runs are extended to a minimal length with a binary insertion sort and the runs are merged
+     * while keeping their lengths balanced on a stack. Partially ordered input therefore sorts in almost O(n)
+     * and input consisting of a single run in O(n). Multiple keys can be sorted in one pass by combining
+     * comparators, e.g. comparing(Station::getCountry).thenComparing(Station::getName).
+     */
+    @Override
+    public void mergeSort(Comparator<V> comparator) {
+        if (size < 2) {
+            sortedBy = comparator;
+            return;
+        }
+        int[] runBase = new int[49]; // enough for any int size, the run lengths on the stack grow like the Fibonacci numbers
+        int[] runLength = new int[49];
+        int runs = 0;
+
+        int minimumRun = minimumRunLength(size);
+        int lo = 0;
+        while (lo < size) {
+            int length = ascendingRunLength(comparator, lo);
+            if (length < minimumRun) {
+                int forced = Math.min(minimumRun, size - lo);
+                binaryInsertionSort(comparator, lo, lo + forced, lo + length);
+                length = forced;
             }
-            if (left < right) {
+            runBase[runs] = lo;
+            runLength[runs] = length;
+            ++runs;
+            runs = collapseRuns(comparator, runBase, runLength, runs, false);
+            lo += length;
+        }
+        collapseRuns(comparator, runBase, runLength, runs, true);
+
+        // drop the references to the elements, the buffer itself is kept for the next sort
+        if (mergeBuffer != null) {
+            Arrays.fill(mergeBuffer, null);
+        }
+        sortedBy = comparator;
+    }
+
+    /**
+     * Determine the minimal run length; for small lists the whole list, otherwise a length between
+     * MINIMUM_MERGE / 2 and MINIMUM_MERGE for which size / length is (close to) a power of two,
+     * so the final merges are balanced.
+     *
+     * @param length number of elements to sort
+     * @return the minimal length of a run
+     */
+    private static int minimumRunLength(int length) {
+        int remainder = 0;
+        while (length >= MINIMUM_MERGE) {
+            remainder |= (length & 1);
+            length >>= 1;
+        }
+        return length + remainder;
+    }
+
+    /**
+     * Determine the length of the run starting at lo. A strictly descending run is reversed,
+     * so afterwards the run is always ascending. Strictness keeps the sort stable.
+     *
+     * @param comparator method to compare two objects
+     * @param lo         start of the run
+     * @return the length of the run (at least 1)
+     */
+    private int ascendingRunLength(Comparator<V> comparator, int lo) {
+        int hi = lo + 1;
+        if (hi == size) return 1;
+        if (comparator.compare(elementAt(hi++), elementAt(lo)) < 0) {
+            while (hi < size && comparator.compare(elementAt(hi), elementAt(hi - 1)) < 0) ++hi;
+            for (int left = lo, right = hi - 1; left < right; ++left, --right) {
                 swap(left, right);
             }
+        } else {
+            while (hi < size && comparator.compare(elementAt(hi), elementAt(hi - 1)) >= 0) ++hi;
+        }
+        return hi - lo;
+    }
 
+    /**
+     * Sort lo..hi (exclusive), of which lo..start (exclusive) is already sorted, by inserting
+     * each next element behind the equal elements found with a binary search.
+     *
+     * @param comparator method to compare two objects
+     * @param lo         start of the range
+     * @param hi         end of the range (exclusive)
+     * @param start      first element which is not yet sorted
+     */
+    private void binaryInsertionSort(Comparator<V> comparator, int lo, int hi, int start) {
+        for (; start < hi; ++start) {
+            V value = elementAt(start);
+            int position = upperBound(comparator, value, lo, start);
+            System.arraycopy(elements, position, elements, position + 1, start - position);
+            elements[position] = value;
         }
-        swap(left, end);
+    }
 
+    /**
+     * Merge runs on the stack until the lengths satisfy the invariants
+     * length[i - 2] > length[i - 1] + length[i] and length[i - 1] > length[i], or, when forced, until one run is left.
+     *
+     * @param comparator method to compare two objects
+     * @param runBase    start index of every run
+     * @param runLength  length of every run
+     * @param runs       number of runs on the stack
+     * @param force      merge all runs
+     * @return the number of runs left on the stack
+     */
+    private int collapseRuns(Comparator<V> comparator, int[] runBase, int[] runLength, int runs, boolean force) {
+        while (runs > 1) {
+            int n = runs - 2;
+            if (force) {
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) --n;
+            } else if ((n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1])
+                    || (n > 1 && runLength[n - 2] <= runLength[n - 1] + runLength[n])) {
+                if (runLength[n - 1] < runLength[n + 1]) --n;
+            } else if (runLength[n] > runLength[n + 1]) {
+                break; // invariants hold
+            }
+            mergeRuns(comparator, runBase[n], runLength[n], runLength[n + 1]);
+            runLength[n] += runLength[n + 1];
+            // the run after the merged pair (if any) moves down one place
+            if (n + 2 < runs) {
+                runBase[n + 1] = runBase[n + 2];
+                runLength[n + 1] = runLength[n + 2];
+            }
+            --runs;
+        }
+        return runs;
+    }
 
-        return left; // Returns index of pivot
+    /**
+     * Merge two adjacent ascending runs. Elements of the first run which are already in place
+     * (not bigger than the first of the second run) and elements of the second run which are already in
+     * place (not smaller than the last of the first run) are skipped. The shorter of the remaining runs is
+     * copied into the merge buffer.
+     *
+     * @param comparator method to compare two objects
+     * @param base       start of the first run
+     * @param length1    length of the first run
+     * @param length2    length of the second run, which starts at base + length1
+     */
+    private void mergeRuns(Comparator<V> comparator, int base, int length1, int length2) {
+        int base2 = base + length1;
+        int start = upperBound(comparator, elementAt(base2), base, base2);
+        length1 -= start - base;
+        if (length1 == 0) return;
+        base = start;
+        length2 = lowerBound(comparator, elementAt(base2 - 1), base2, base2 + length2) - base2;
+        if (length2 == 0) return;
+
+        Object[] buffer = mergeBuffer(Math.min(length1, length2));
+        if (length1 <= length2) {
+            // merge from the front, the first run is in the buffer
+            System.arraycopy(elements, base, buffer, 0, length1);
+            int index1 = 0;
+            int index2 = base2;
+            int end2 = base2 + length2;
+            int position = base;
+            while (index1 < length1 && index2 < end2) {
+                if (comparator.compare(elementAt(index2), bufferAt(buffer, index1)) < 0) {
+                    elements[position++] = elements[index2++];
+                } else {
+                    elements[position++] = buffer[index1++];
+                }
+            }
+            System.arraycopy(buffer, index1, elements, position, length1 - index1);
+        } else {
+            // merge from the back, the second run is in the buffer
+            System.arraycopy(elements, base2, buffer, 0, length2);
+            int index1 = base2 - 1;
+            int index2 = length2 - 1;
+            int position = base2 + length2 - 1;
+            while (index1 >= base && index2 >= 0) {
+                if (comparator.compare(bufferAt(buffer, index2), elementAt(index1)) < 0) {
+                    elements[position--] = elements[index1--];
+                } else {
+                    elements[position--] = buffer[index2--];
+                }
+            }
+            System.arraycopy(buffer, 0, elements, position - index2, index2 + 1);
+        }
+    }
+
+    /**
+     * Get the merge buffer with room for at least the given number of elements, growing it when necessary.
+     *
+     * @param capacity the minimal length of the buffer
+     * @return the merge buffer
+     */
+    private Object[] mergeBuffer(int capacity) {
+        if (mergeBuffer == null || mergeBuffer.length < capacity) {
+            int length = mergeBuffer == null ? MINIMUM_SIZE : mergeBuffer.length;
+            while (length < capacity) length *= 2;
+            // a merge never buffers more than half of the elements
+            mergeBuffer = new Object[Math.min(length, size / 2)];
+        }
+        return mergeBuffer;
+    }
+
+    /**
+     * Binary search the first position in lo..hi (exclusive) holding an element not smaller than value.
+     */
+    private int lowerBound(Comparator<V> comparator, V value, int lo, int hi) {
+        while (lo < hi) {
+            int middle = (lo + hi) >>> 1;
+            if (comparator.compare(elementAt(middle), value) < 0) {
+                lo = middle + 1;
+            } else {
+                hi = middle;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Binary search the first position in lo..hi (exclusive) holding an element bigger than value.
+     */
+    private int upperBound(Comparator<V> comparator, V value, int lo, int hi) {
+        while (lo < hi) {
+            int middle = (lo + hi) >>> 1;
+            if (comparator.compare(elementAt(middle), value) <= 0) {
+                lo = middle + 1;
+            } else {
+                hi = middle;
+            }
+        }
+        return lo;
+    }
+
+    // Do no type checking; a Java hack, because we store objects of a generic type V in an Object array
+    @SuppressWarnings("unchecked")
+    private V bufferAt(Object[] buffer, int index) {
+        return (V) buffer[index];
+    }
+
+    /**
+     * Do a parallel merge sort (in place) on the elements in ascending order, using the common ForkJoinPool.
+     * The array is split in halves until a range is smaller than the sequential cutoff; those ranges are
+     * sorted with the (sequential) quick sort, after which the sorted halves are merged, again in parallel.
+     * Like quickSort() the sort is not stable. Small lists are simply sorted with quickSort().
+     */
+    @Override
+    public void parallelSort(Comparator<V> comparator) {
+        if (size <= PARALLEL_SORT_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            quickSort(comparator);
+            return;
+        }
+        Object[] buffer = new Object[size];
+        ForkJoinPool.commonPool().invoke(new SortTask(comparator, buffer, 0, size, true));
+        sortedBy = comparator;
+    }
+
+    /**
+     * Sorts the range lo..hi (exclusive) of the elements. The two halves are sorted into the other array
+     * (elements or buffer) and then merged into the array given by intoElements, so the arrays are used in
+     * turns and nothing needs to be copied back.
+     */
+    private class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Comparator<V> comparator;
+        private final Object[] buffer;
+        private final int lo;
+        private final int hi;
+        private final boolean intoElements;
+
+        SortTask(Comparator<V> comparator, Object[] buffer, int lo, int hi, boolean intoElements) {
+            this.comparator = comparator;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoElements = intoElements;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_SORT_THRESHOLD) {
+                introSort(comparator, lo, hi - 1, 2 * (31 - Integer.numberOfLeadingZeros(hi - lo)));
+                if (!intoElements) {
+                    System.arraycopy(elements, lo, buffer, lo, hi - lo);
+                }
+                return;
+            }
+            int middle = (lo + hi) >>> 1;
+            invokeAll(new SortTask(comparator, buffer, lo, middle, !intoElements),
+                    new SortTask(comparator, buffer, middle, hi, !intoElements));
+            Object[] source = intoElements ? buffer : elements;
+            Object[] destination = intoElements ? elements : buffer;
+            new MergeTask<>(comparator, source, lo, middle, middle, hi, destination, lo).compute();
+        }
+    }
+
+    /**
+     * Merges the sorted ranges lo1..hi1 and lo2..hi2 (exclusive) of source into destination at position to.
+     * A big merge is split around the middle element of the longer range, with the matching split position
+     * in the other range found by a binary search, and both parts are merged in parallel.
+     * Equal elements of the first range are placed before those of the second range.
+     */
+    private static class MergeTask<V> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Comparator<V> comparator;
+        private final Object[] source;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final Object[] destination;
+        private final int to;
+
+        MergeTask(Comparator<V> comparator, Object[] source, int lo1, int hi1, int lo2, int hi2, Object[] destination, int to) {
+            this.comparator = comparator;
+            this.source = source;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.destination = destination;
+            this.to = to;
+        }
+
+        @Override
+        // Do no type checking; a Java hack, because we store objects of a generic type V in an Object array
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            int length1 = hi1 - lo1;
+            int length2 = hi2 - lo2;
+            if (length1 + length2 <= PARALLEL_SORT_THRESHOLD) {
+                merge();
+                return;
+            }
+            int split1;
+            int split2;
+            if (length1 >= length2) {
+                split1 = lo1 + length1 / 2;
+                // elements of the second range smaller than the split element go to the left part
+                split2 = search(lo2, hi2, (V) source[split1], false);
+            } else {
+                split2 = lo2 + length2 / 2;
+                // elements of the first range not bigger than the split element go to the left part
+                split1 = search(lo1, hi1, (V) source[split2], true);
+            }
+            int middle = to + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new MergeTask<>(comparator, source, lo1, split1, lo2, split2, destination, to),
+                    new MergeTask<>(comparator, source, split1, hi1, split2, hi2, destination, middle));
+        }
+
+        /**
+         * Sequentially merge both ranges.
+         */
+        @SuppressWarnings("unchecked")
+        private void merge() {
+            int index1 = lo1;
+            int index2 = lo2;
+            int position = to;
+            while (index1 < hi1 && index2 < hi2) {
+                if (comparator.compare((V) source[index2], (V) source[index1]) < 0) {
+                    destination[position++] = source[index2++];
+                } else {
+                    destination[position++] = source[index1++];
+                }
+            }
+            System.arraycopy(source, index1, destination, position, hi1 - index1);
+            System.arraycopy(source, index2, destination, position + (hi1 - index1), hi2 - index2);
+        }
+
+        /**
+         * Binary search the first position in lo..hi (exclusive) with an element bigger than the key
+         * (includeEqual) or not smaller than the key (!includeEqual).
+         */
+        @SuppressWarnings("unchecked")
+        private int search(int lo, int hi, V key, boolean includeEqual) {
+            while (lo < hi) {
+                int middle = (lo + hi) >>> 1;
+                int compare = comparator.compare((V) source[middle], key);
+                if (compare < 0 || (includeEqual && compare == 0)) {
+                    lo = middle + 1;
+                } else {
+                    hi = middle;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Get the element at the given index without checking the bounds; only for use by the sorting algorithms.
+     *
+     * @param index index of the element, must be 0..size-1
+     * @return the element at the index
+     */
+    // Do no type checking; a Java hack, because we store objects of a generic type V in an Object array
+    @SuppressWarnings("unchecked")
+    private V elementAt(int index) {
+        return (V) elements[index];
     }
 
 
@@ -332,6 +839,8 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
     /**
      * Performs a binary search to find the index of a specified element in the sorted list.
      * If the list is not sorted or element not found, the method returns the NOT_FOUND value defined in SaxSearchable.
+     * Whether the list is sorted is only checked (in O(n)) when the list is not already known to be sorted
+     * by this comparator, so searching a list sorted by one of the sort methods costs O(log n).
      *
      * @param comparator the comparator used to compare elements in the list
      * @param element the element to search for
@@ -348,7 +857,7 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
         int high = size - 1;
         while (low <= high) {
             int middle = low + (high - low) / 2;
-            int compare = comparator.compare(get(middle), element);
+            int compare = comparator.compare(elementAt(middle), element);
             if (compare == 0) {
                 return middle;
             } else if (compare < 0) {
@@ -362,6 +871,59 @@ public class MyArrayList<V> implements SaxList<V>, SaxSearchable<V>, SaxSortable
         return SaxSearchable.NOT_FOUND;
     }
 
+    /**
+     * Finds the index of the first element which is not smaller than the given element in the sorted list,
+     * i.e. the position where the element would be inserted before any equal elements.
+     *
+     * @param comparator the comparator by which the list is sorted
+     * @param element    the element to search for
+     * @return an index between 0 and size (inclusive), or SaxSearchable.NOT_FOUND if the list is not sorted
+     */
+    public int lowerBound(Comparator<V> comparator, V element) {
+        if (!isSorted(comparator)) {
+            return SaxSearchable.NOT_FOUND;
+        }
+        return lowerBound(comparator, element, 0, size);
+    }
+
+    /**
+     * Finds the index of the first element which is bigger than the given element in the sorted list,
+     * i.e. the position where the element would be inserted after any equal elements.
+     *
+     * @param comparator the comparator by which the list is sorted
+     * @param element    the element to search for
+     * @return an index between 0 and size (inclusive), or SaxSearchable.NOT_FOUND if the list is not sorted
+     */
+    public int upperBound(Comparator<V> comparator, V element) {
+        if (!isSorted(comparator)) {
+            return SaxSearchable.NOT_FOUND;
+        }
+        return upperBound(comparator, element, 0, size);
+    }
+
+    /**
+     * Retrieves all elements between from and to (both inclusive) of the sorted list, in sorted order.
+     * Both bounds are found with a binary search, so the cost is O(log n) plus the number of elements found.
+     *
+     * @param comparator the comparator by which the list is sorted
+     * @param from       the lower bound of the range
+     * @param to         the upper bound of the range
+     * @return the elements in the range, or an empty list if there are none or the list is not sorted
+     */
+    public MyArrayList<V> rangeSearch(Comparator<V> comparator, V from, V to) {
+        MyArrayList<V> result = new MyArrayList<>();
+        if (!isSorted(comparator)) {
+            return result;
+        }
+        int begin = lowerBound(comparator, from, 0, size);
+        int end = upperBound(comparator, to, begin, size);
+        for (int i = begin; i < end; ++i) {
+            result.addLast(elementAt(i));
+        }
+        result.sortedBy = comparator;
+        return result;
+    }
+
 
     @Override
     public Iterator<V> iterator() {
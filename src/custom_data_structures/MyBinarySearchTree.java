@@ -3,6 +3,7 @@ package custom_data_structures;
 import collection.DuplicateKeyException;
 import collection.KeyNotFoundException;
 import collection.SaxBinaryTree;
+import collection.SaxList;
 
 public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinaryTree<K, V> {
 
@@ -13,17 +14,21 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
         Node<K, V> left;
         Node<K, V> right;
         int height; //used for an AVL binary search tree
+        int size; //number of nodes in the subtree of this node, used for rank and select
 
         protected Node(K key, V value) {
             this.key = key;
             this.value = value;
             this.height = 1;
+            this.size = 1;
         }
 
     }
 
     public Node<K, V> root;
     protected int size;
+    // Number of String keys which are not in lower case; while there are none, a prefix search can skip subtrees
+    private int mixedCaseKeys;
 
     /**
      * Returns the root node of the tree.
@@ -70,18 +75,93 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
 
 
     /**
-     * Retrieves all values associated with keys that start with the specified prefix.
+     * Retrieves all values associated with keys that start with the specified prefix, in key order.
      *
      * @param prefix the prefix to search for
      * @return a list of values whose keys match the prefix
      */
 
     public MyArrayList<V> getByPrefix(String prefix) {
+        return getByPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves at most limit values associated with keys that start with the specified prefix, in key order.
+     * Keys and prefix are compared ignoring case. When all keys are Strings in lower case (like the station
+     * names) only the subtrees which can contain the prefix are visited, so the cost is
+     * O(height + number of results) instead of a visit of every node.
+     *
+     * @param prefix the prefix to search for
+     * @param limit  the maximum number of values to return
+     * @return a list of values whose keys match the prefix
+     */
+
+    public MyArrayList<V> getByPrefix(String prefix, int limit) {
         MyArrayList<V> results = new MyArrayList<>();
-        searchByPrefix(this.root, prefix.toLowerCase(), results);
+        if (limit <= 0) {
+            return results;
+        }
+        if (root != null && root.key instanceof String && mixedCaseKeys == 0) {
+            searchByPrefix(this.root, prefix.toLowerCase(), limit, results);
+        } else {
+            scanByPrefix(this.root, prefix.toLowerCase(), limit, results);
+        }
         return results;
     }
 
+    /**
+     * Replaces the contents of the tree with the given keys and values, which must be sorted by key.
+     * The middle key becomes the root and both halves are built the same way, so the tree is perfectly
+     * balanced (which is a valid AVL tree as well) and is built in O(n), instead of O(n log n) for adding
+     * the keys one by one.
+     *
+     * @param keys   the keys in ascending order
+     * @param values the values, values.get(i) is associated with keys.get(i)
+     * @throws IllegalArgumentException if there are not as many keys as values or the keys are not sorted
+     * @throws DuplicateKeyException    if a key occurs more than once
+     */
+
+    public void buildFromSorted(SaxList<K> keys, SaxList<V> values) throws DuplicateKeyException {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Got " + keys.size() + " keys but " + values.size() + " values");
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            int compare = keys.get(i - 1).compareTo(keys.get(i));
+            if (compare == 0) {
+                throw new DuplicateKeyException("" + keys.get(i));
+            } else if (compare > 0) {
+                throw new IllegalArgumentException("Keys are not sorted at index " + i + ": " + keys.get(i));
+            }
+        }
+        root = build(keys, values, 0, keys.size() - 1);
+        size = keys.size();
+        mixedCaseKeys = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            if (isMixedCase(keys.get(i))) {
+                mixedCaseKeys++;
+            }
+        }
+    }
+
+    /**
+     * Builds a perfectly balanced subtree of the keys and values between from and to (inclusive).
+     *
+     * @return the root of the subtree, or null if the range is empty
+     */
+
+    private Node<K, V> build(SaxList<K> keys, SaxList<V> values, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node<K, V> node = new Node<>(keys.get(middle), values.get(middle));
+        node.left = build(keys, values, from, middle - 1);
+        node.right = build(keys, values, middle + 1, to);
+        node.height = 1 + Math.max(node.left != null ? node.left.height : 0, node.right != null ? node.right.height : 0);
+        updateSize(node);
+        return node;
+    }
+
     /**
      * Adds a new node to the tree.
      * If a node with the given key already exists, throws a DuplicateKeyException.
@@ -110,6 +190,9 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
     protected Node<K, V> insert(Node<K, V> node, K key, V value) {
         if (node == null) {
             size++;
+            if (isMixedCase(key)) {
+                mixedCaseKeys++;
+            }
             return new Node<>(key, value);
 
 
@@ -122,6 +205,7 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
         } else {
             throw new DuplicateKeyException("" + key);
         }
+        updateSize(node);
         return node;
     }
 
@@ -144,9 +228,24 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
         V value = nodeToRemove.value;
         root = delete(root, key);
         size--;
+        if (isMixedCase(key)) {
+            mixedCaseKeys--;
+        }
         return value;
     }
 
+    /**
+     * Checks whether the key is a String with characters that are not in lower case, which a pruned
+     * prefix search would miss.
+     *
+     * @param key the key to check
+     * @return true if the key is a String that differs from its lower-cased form
+     */
+
+    private boolean isMixedCase(K key) {
+        return key instanceof String text && !text.equals(text.toLowerCase());
+    }
+
 
     /**
      * Deletes a node with the given key from the tree using recursion.
@@ -190,10 +289,157 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
 
         }
 
-
+        updateSize(node);
         return node;
     }
 
+    /**
+     * Returns the number of keys in the tree which are smaller than the given key, which is the index of
+     * the key in the sorted keys if it is part of the tree. Uses the subtree sizes, so it costs O(height).
+     *
+     * @param key the key to rank, which does not have to be part of the tree
+     * @return the number of keys smaller than the key
+     */
+
+    public int rank(K key) {
+        return countBelow(key, false);
+    }
+
+    /**
+     * Returns the key at the given index in the sorted keys, without collecting the keys.
+     * Uses the subtree sizes, so it costs O(height).
+     *
+     * @param index the index of the key in key order, starting at 0
+     * @return the key with exactly index smaller keys in the tree
+     * @throws IndexOutOfBoundsException if the index is negative or not smaller than the size
+     */
+
+    public K select(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = subtreeSize(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.key;
+            }
+        }
+    }
+
+    /**
+     * Counts the keys between lo and hi (both inclusive) in O(height).
+     *
+     * @param lo the smallest key to count
+     * @param hi the biggest key to count
+     * @return the number of keys in the range, 0 if lo is bigger than hi
+     */
+
+    public int countInRange(K lo, K hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
+        return countBelow(hi, true) - countBelow(lo, false);
+    }
+
+    /**
+     * Retrieves at most limit values whose keys are between lo and hi (both inclusive), in key order.
+     * Only the subtrees which can contain keys in the range are visited, so the cost is O(height + limit).
+     * Together with select this gives a page of the sorted values without collecting all keys.
+     *
+     * @param lo    the smallest key to include
+     * @param hi    the biggest key to include
+     * @param limit the maximum number of values to return
+     * @return a list of the values of the first keys in the range
+     */
+
+    public MyArrayList<V> range(K lo, K hi, int limit) {
+        MyArrayList<V> results = new MyArrayList<>();
+        if (limit > 0 && lo.compareTo(hi) <= 0) {
+            searchRange(root, lo, hi, limit, results);
+        }
+        return results;
+    }
+
+    /**
+     * Counts the keys which are smaller than (or equal to, if inclusive) the given key,
+     * adding the size of every left subtree which is passed on the way down.
+     *
+     * @param key       the key to compare with
+     * @param inclusive whether a key equal to the given key is counted
+     * @return the number of keys below the given key
+     */
+
+    private int countBelow(K key, boolean inclusive) {
+        int count = 0;
+        Node<K, V> node = root;
+        while (node != null) {
+            int compare = key.compareTo(node.key);
+            if (compare < 0) {
+                node = node.left;
+            } else if (compare > 0) {
+                count += subtreeSize(node.left) + 1;
+                node = node.right;
+            } else {
+                return count + subtreeSize(node.left) + (inclusive ? 1 : 0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visits in key order the nodes whose keys are between lo and hi, skipping the left subtree of keys
+     * smaller than lo and the right subtree of keys bigger than hi.
+     *
+     * @param node    the current node in the traversal (initially the root node)
+     * @param lo      the smallest key to include
+     * @param hi      the biggest key to include
+     * @param limit   the maximum number of values in the results
+     * @param results the list to store the values in
+     */
+
+    private void searchRange(Node<K, V> node, K lo, K hi, int limit, MyArrayList<V> results) {
+        while (node != null && results.size() < limit) {
+            if (node.key.compareTo(lo) < 0) {
+                node = node.right;
+            } else if (node.key.compareTo(hi) > 0) {
+                node = node.left;
+            } else {
+                searchRange(node.left, lo, hi, limit, results);
+                if (results.size() < limit) {
+                    results.addLast(node.value);
+                }
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of nodes in the subtree of the given node.
+     *
+     * @param node the root of the subtree
+     * @return the size of the subtree, or 0 if the node is null
+     */
+
+    protected int subtreeSize(Node<K, V> node) {
+        return node != null ? node.size : 0;
+    }
+
+    /**
+     * Updates the subtree size of the given node based on the sizes of its left and right children.
+     *
+     * @param node the node whose subtree size is to be updated
+     */
+
+    protected void updateSize(Node<K, V> node) {
+        node.size = 1 + subtreeSize(node.left) + subtreeSize(node.right);
+    }
+
     /**
      * Finds the leftmost node (in-order successor) in a given subtree.
      *
@@ -248,59 +494,77 @@ public class MyBinarySearchTree<K extends Comparable<K>, V> implements SaxBinary
 
 
     /**
-     * Search for a node with the given key in the tree using recursion.
-     * This method recursively traverses the tree starting from the provided node,
-     * typically called with the root node as the starting point.
+     * Search for a node with the given key in the tree.
+     * The tree is walked down in a loop from the provided node, typically the root node,
+     * so a lookup costs no method call per level.
      *
-     * @param node the current node in the traversal (initially the root node)
+     * @param node the node to start the search from (initially the root node)
      * @param key  the key to search for
      * @return the node with the provided key if found, otherwise return null
      */
 
     private Node<K, V> search(Node<K, V> node, K key) {
-        if (node == null) {
-            return null;
-        }
-
-        if (node.key.equals(key)) {
-            return node;
+        while (node != null) {
+            int compare = key.compareTo(node.key);
+            if (compare == 0) {
+                return node;
+            }
+            node = compare < 0 ? node.left : node.right;
         }
+        return null;
+    }
 
-        if (key.compareTo(node.key) < 0) {
-            return search(node.left, key);
+    /**
+     * Searches in key order for values whose keys start with the specified prefix, skipping subtrees
+     * which cannot contain such keys. A key which is smaller than the prefix (and does not start with it) only
+     * has candidates in its right subtree; a key which is bigger than the prefix (and does not start with it)
+     * is bigger than every key starting with the prefix, so only its left subtree has candidates.
+     * The right subtree is followed in the loop, the left subtree of a matching key recursively.
+     *
+     * @param node    the current node in the traversal (initially the root node)
+     * @param prefix  the prefix to match with node keys
+     * @param limit   the maximum number of values in the results
+     * @param results the list to store values whose keys match the prefix
+     */
 
-        } else {
-            return search(node.right, key);
+    private void searchByPrefix(Node<K, V> node, String prefix, int limit, MyArrayList<V> results) {
+        while (node != null && results.size() < limit) {
+            String key = (String) node.key;
+            if (key.startsWith(prefix)) {
+                searchByPrefix(node.left, prefix, limit, results);
+                if (results.size() < limit) {
+                    results.addLast(node.value);
+                }
+                node = node.right;
+            } else if (key.compareTo(prefix) < 0) {
+                node = node.right;
+            } else {
+                node = node.left;
+            }
         }
-
-
     }
 
     /**
-     * Recursively searches for values whose keys start with the specified prefix.
+     * Recursively visits all nodes in key order and collects the values whose lower-cased key (toString())
+     * starts with the specified prefix. Used for keys which are not Strings, whose order may differ
+     * from the order of their text, and for String keys which are not all in lower case, as keys which match
+     * ignoring case are not next to each other in the order of the tree.
      *
      * @param node    the current node in the traversal (initially the root node)
      * @param prefix  the prefix to match with node keys
+     * @param limit   the maximum number of values in the results
      * @param results the list to store values whose keys match the prefix
      */
 
-    private void searchByPrefix(Node<K, V> node, String prefix, MyArrayList<V> results) {
-        if (node == null) {
+    private void scanByPrefix(Node<K, V> node, String prefix, int limit, MyArrayList<V> results) {
+        if (node == null || results.size() >= limit) {
             return;
         }
-
-        String nodeKeyLower = node.key.toString().toLowerCase();
-
-
-        if (nodeKeyLower.startsWith(prefix)) {
+        scanByPrefix(node.left, prefix, limit, results);
+        if (results.size() < limit && node.key.toString().toLowerCase().startsWith(prefix)) {
             results.addLast(node.value);
         }
-
-
-        searchByPrefix(node.left, prefix, results);
-        searchByPrefix(node.right, prefix, results);
-
-
+        scanByPrefix(node.right, prefix, limit, results);
     }
 
 
@@ -8,6 +8,8 @@ import java.util.Iterator;
 
 public class MyGraph<V> implements SaxGraph<V> {
     private final MyHashMap<V, MyArrayList<DirectedEdge<V>>> adjacencyList;
+    // The same edges by the node they point to; only built when needed (see repairShortestPaths), then kept up to date
+    private MyHashMap<V, MyArrayList<DirectedEdge<V>>> incomingEdges;
 
     public MyGraph() {
         adjacencyList = new MyHashMap<>();
@@ -22,7 +24,11 @@ public class MyGraph<V> implements SaxGraph<V> {
         if (!adjacencyList.contains(toValue)) {
             adjacencyList.add(toValue, new MyArrayList<>());
         }
-        adjacencyList.get(fromValue).addLast(new DirectedEdge<>(fromValue, toValue, weight));
+        DirectedEdge<V> edge = new DirectedEdge<>(fromValue, toValue, weight);
+        adjacencyList.get(fromValue).addLast(edge);
+        if (incomingEdges != null) {
+            getIncomingEdges(toValue).addLast(edge);
+        }
 
     }
 
@@ -36,6 +42,106 @@ public class MyGraph<V> implements SaxGraph<V> {
 
 
 
+    @Override
+    public boolean containsEdge(V fromValue, V toValue) {
+        if (!adjacencyList.contains(fromValue)) {
+            return false;
+        }
+        for (DirectedEdge<V> edge : adjacencyList.get(fromValue)) {
+            if (edge.to().equals(toValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Removes the edges from one node to another by walking the (short) list of edges of the originating node,
+     * so the cost only depends on the number of edges of that node, not on the size of the graph.
+     */
+
+    @Override
+    public void removeEdge(V fromValue, V toValue) throws KeyNotFoundException {
+        if (!adjacencyList.contains(fromValue)) {
+            throw new KeyNotFoundException(fromValue + "-" + toValue);
+        }
+        MyArrayList<DirectedEdge<V>> edges = adjacencyList.get(fromValue);
+        int size = edges.size();
+        for (int i = edges.size() - 1; i >= 0; i--) {
+            if (edges.get(i).to().equals(toValue)) {
+                edges.removeAt(i);
+            }
+        }
+        if (edges.size() == size) {
+            throw new KeyNotFoundException(fromValue + "-" + toValue);
+        }
+        if (incomingEdges != null) {
+            MyArrayList<DirectedEdge<V>> incoming = getIncomingEdges(toValue);
+            for (int i = incoming.size() - 1; i >= 0; i--) {
+                if (incoming.get(i).from().equals(fromValue)) {
+                    incoming.removeAt(i);
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public double setEdgeWeight(V fromValue, V toValue, double weight) throws KeyNotFoundException {
+        if (!adjacencyList.contains(fromValue)) {
+            throw new KeyNotFoundException(fromValue + "-" + toValue);
+        }
+        MyArrayList<DirectedEdge<V>> edges = adjacencyList.get(fromValue);
+        double oldWeight = Double.NaN;
+        for (int i = 0; i < edges.size(); i++) {
+            DirectedEdge<V> edge = edges.get(i);
+            if (edge.to().equals(toValue)) {
+                oldWeight = edge.weight();
+                edges.set(i, new DirectedEdge<>(fromValue, toValue, weight));
+            }
+        }
+        if (Double.isNaN(oldWeight)) {
+            throw new KeyNotFoundException(fromValue + "-" + toValue);
+        }
+        if (incomingEdges != null) {
+            MyArrayList<DirectedEdge<V>> incoming = getIncomingEdges(toValue);
+            for (int i = 0; i < incoming.size(); i++) {
+                if (incoming.get(i).from().equals(fromValue)) {
+                    incoming.set(i, new DirectedEdge<>(fromValue, toValue, weight));
+                }
+            }
+        }
+        return oldWeight;
+    }
+
+
+    /**
+     * Returns the edges that point to a node. The index of these edges is built on the first call,
+     * with one pass over all edges, and from then on kept up to date by the methods that change edges.
+     * @param value The node the edges point to.
+     * @return The (changeable) list of edges that point to the node, possibly empty.
+     */
+
+    private MyArrayList<DirectedEdge<V>> getIncomingEdges(V value) {
+        if (incomingEdges == null) {
+            incomingEdges = new MyHashMap<>();
+            for (V node : adjacencyList.getKeys()) {
+                incomingEdges.add(node, new MyArrayList<>());
+            }
+            for (V node : adjacencyList.getKeys()) {
+                for (DirectedEdge<V> edge : adjacencyList.get(node)) {
+                    incomingEdges.get(edge.to()).addLast(edge);
+                }
+            }
+        }
+        if (!incomingEdges.contains(value)) {
+            incomingEdges.add(value, new MyArrayList<>());
+        }
+        return incomingEdges.get(value);
+    }
+
+
     @Override
     public SaxList<DirectedEdge<V>> getEdges(V value) {
         if (!adjacencyList.contains(value)) {
@@ -63,7 +169,7 @@ public class MyGraph<V> implements SaxGraph<V> {
      * in the graph using Dijkstra's algorithm.
      * It produces a directed acyclic graph where each
      * node contains the shortest path from the start node.
-     * This method uses a min-heap to prioritize nodes with the smallest accumulated weights.
+     * This method uses a min-heap, keyed on the accumulated weight, to prioritize nodes with the smallest accumulated weights.
      * It adds edges with minimum weights to the result graph until all reachable nodes are visited.
      *
      * @param startNode The node from which to calculate the shortest paths.
@@ -71,13 +177,27 @@ public class MyGraph<V> implements SaxGraph<V> {
      */
 
     @Override
-    public SaxGraph<V> shortestPathsDijkstra(V startNode) {
-        MyGraph<V> result = new MyGraph<>();
-        MyHashMap<V, Boolean> visited = new MyHashMap<>();
-        MyMinHeap<DirectedEdge<V>> queue = new MyMinHeap<>();
-        queue.enqueue(new DirectedEdge<>(startNode, startNode, 0));
+    public MyGraph<V> shortestPathsDijkstra(V startNode) {
+        return shortestPathsDijkstra(this, startNode);
+    }
+
+    /**
+     * Dijkstra's algorithm of {@link #shortestPathsDijkstra(Object)} for any graph: it only reads the graph through
+     * getEdges, so views and read-only graphs share this implementation.
+     *
+     * @param graph     The graph to search.
+     * @param startNode The node from which to calculate the shortest paths.
+     * @return A new graph representing the shortest paths from the start node to all other reachable nodes.
+     * @throws KeyNotFoundException If the start node is not part of the graph.
+     */
+
+    public static <T> MyGraph<T> shortestPathsDijkstra(SaxGraph<T> graph, T startNode) {
+        MyGraph<T> result = new MyGraph<>();
+        MyHashMap<T, Boolean> visited = new MyHashMap<>();
+        MyPriorityMinHeap<DirectedEdge<T>> queue = new MyPriorityMinHeap<>();
+        queue.enqueue(new DirectedEdge<>(startNode, startNode, 0), 0);
         while (!queue.isEmpty()) {
-            DirectedEdge<V> currentEdge = queue.dequeue();
+            DirectedEdge<T> currentEdge = queue.dequeue();
 
             if (visited.contains(currentEdge.from())) {
                 continue;
@@ -89,11 +209,11 @@ public class MyGraph<V> implements SaxGraph<V> {
                 result.addEdge(currentEdge.from(), currentEdge.to(), currentEdge.weight());
 
             }
-            MyArrayList<DirectedEdge<V>> neighbors = adjacencyList.get(currentEdge.from());
-            for (DirectedEdge<V> neighborEdge : neighbors) {
-                V neighborVertex = neighborEdge.to();
+            for (DirectedEdge<T> neighborEdge : graph.getEdges(currentEdge.from())) {
+                T neighborVertex = neighborEdge.to();
                 if (!visited.contains(neighborVertex)) {
-                    queue.enqueue(new DirectedEdge<>(neighborVertex, currentEdge.from(), currentEdge.weight() + neighborEdge.weight()));
+                    double distance = currentEdge.weight() + neighborEdge.weight();
+                    queue.enqueue(new DirectedEdge<>(neighborVertex, currentEdge.from(), distance), distance);
                 }
             }
         }
@@ -112,24 +232,38 @@ public class MyGraph<V> implements SaxGraph<V> {
      * @param start         The starting node of the path.
      * @param goal          The goal node to which the path is traced back.
      * @return A list of directed edges representing the shortest path from the start node to the goal node.
-     * @throws IllegalStateException If there is no path from the start node to the goal node in the Dijkstra result graph.
+     * @throws IllegalStateException If there is no path from the start node to the goal node in the Dijkstra result graph,
+     * also when the goal was cut off by {@link #repairShortestPaths}.
      */
 
     public SaxList<DirectedEdge<V>> backTrackDijkstra(SaxGraph<V> dijkstraGraph, V start, V goal) {
-        MyArrayList<DirectedEdge<V>> path = new MyArrayList<>();
-        V current = goal;
+        return backTrack(dijkstraGraph, start, goal);
+    }
+
+    /**
+     * Does the same as {@link #backTrackDijkstra}, without a graph to call it on, for results of the static
+     * Dijkstra helper or of a snapshot.
+     */
+
+    public static <T> SaxList<DirectedEdge<T>> backTrack(SaxGraph<T> dijkstraGraph, T start, T goal) {
+        MyArrayList<DirectedEdge<T>> path = new MyArrayList<>();
+        T current = goal;
 
 
         while (!current.equals(start)) {
-            SaxList<DirectedEdge<V>> edges;
+            SaxList<DirectedEdge<T>> edges;
             try {
                 edges = dijkstraGraph.getEdges(current);
             } catch (KeyNotFoundException e) {
                 throw new IllegalStateException("No path found to " + current);
             }
+            // a node that lost its path in a repair keeps its place in the tree, without an edge
+            if (edges.isEmpty()) {
+                throw new IllegalStateException("No path found to " + current);
+            }
 
 
-            DirectedEdge<V> edge = edges.get(0);
+            DirectedEdge<T> edge = edges.get(0);
 
             path.addFirst(new DirectedEdge<>(edge.to(), edge.from(), edge.weight()));
 
@@ -139,6 +273,197 @@ public class MyGraph<V> implements SaxGraph<V> {
         return path;
     }
 
+    /**
+     * Repairs a result of `shortestPathsDijkstra` after edges of this graph were removed, re-weighted or added,
+     * instead of running Dijkstra's algorithm again for all nodes.
+     * <p>
+     * Only the nodes whose path used a changed edge are affected: the subtrees below the changed tree edges. Those nodes
+     * lose their distance, get a new one from their cheapest unaffected predecessor and pass it on among each other with
+     * a min-heap, like in Dijkstra's algorithm (the approach of Ramalingam and Reps). A changed edge that is now cheaper
+     * than the tree path to its end node starts the same propagation from that node, so added edges and lower weights
+     * are repaired as well. The work only depends on the edges of the affected nodes and of the nodes that get shorter
+     * paths; the predecessors are found in an index of incoming edges, which is built on the first repair.
+     * </p>
+     *
+     * @param dijkstraGraph The output graph from `shortestPathsDijkstra` for the start node, which is changed in place.
+     *                      A node that can no longer be reached keeps its place in the tree, without an edge.
+     * @param start         The start node the shortest paths were calculated from.
+     * @param changedEdges  The edges that were removed, re-weighted or added since the shortest paths were calculated
+     *                      (or last repaired); only their from and to nodes are used, the weights are read from this graph.
+     * @return The number of nodes that got a new path or lost their path.
+     */
+
+    public int repairShortestPaths(SaxGraph<V> dijkstraGraph, V start, SaxList<DirectedEdge<V>> changedEdges) {
+        // the nodes below the changed tree edges lose their paths; the children of a node in the tree are among the
+        // nodes its edges point to, unless the edge to the child changed, in which case the child is cut itself
+        MyArrayList<V> affected = new MyArrayList<>();
+        MyHashMap<V, Boolean> isAffected = new MyHashMap<>();
+        for (DirectedEdge<V> changedEdge : changedEdges) {
+            DirectedEdge<V> treeEdge = treeEdge(dijkstraGraph, changedEdge.to());
+            if (treeEdge != null && treeEdge.to().equals(changedEdge.from()) && !isAffected.contains(changedEdge.to())) {
+                affected.addLast(changedEdge.to());
+                isAffected.add(changedEdge.to(), true);
+            }
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            V node = affected.get(i);
+            for (DirectedEdge<V> edge : adjacencyList.get(node)) {
+                DirectedEdge<V> treeEdge = treeEdge(dijkstraGraph, edge.to());
+                if (treeEdge != null && treeEdge.to().equals(node) && !isAffected.contains(edge.to())) {
+                    affected.addLast(edge.to());
+                    isAffected.add(edge.to(), true);
+                }
+            }
+        }
+
+        // queue the best paths into the affected nodes from the rest of the tree, and the cheaper changed edges;
+        // an entry (node, predecessor, distance) has the same shape as an edge of the tree
+        MyPriorityMinHeap<DirectedEdge<V>> queue = new MyPriorityMinHeap<>();
+        for (V node : affected) {
+            for (DirectedEdge<V> edge : getIncomingEdges(node)) {
+                double distance = isAffected.contains(edge.from())
+                        ? Double.POSITIVE_INFINITY : treeDistance(dijkstraGraph, start, edge.from()) + edge.weight();
+                if (distance < Double.POSITIVE_INFINITY) {
+                    queue.enqueue(new DirectedEdge<>(node, edge.from(), distance), distance);
+                }
+            }
+        }
+        for (V node : affected) {
+            dijkstraGraph.removeEdge(node, treeEdge(dijkstraGraph, node).to());
+        }
+        for (DirectedEdge<V> changedEdge : changedEdges) {
+            double distance = treeDistance(dijkstraGraph, start, changedEdge.from());
+            if (distance == Double.POSITIVE_INFINITY || !adjacencyList.contains(changedEdge.from())) {
+                continue;
+            }
+            for (DirectedEdge<V> edge : adjacencyList.get(changedEdge.from())) {
+                if (edge.to().equals(changedEdge.to())
+                        && distance + edge.weight() < treeDistance(dijkstraGraph, start, edge.to())) {
+                    queue.enqueue(new DirectedEdge<>(edge.to(), edge.from(), distance + edge.weight()), distance + edge.weight());
+                }
+            }
+        }
+
+        // Dijkstra's algorithm over the nodes that get a new path
+        MyHashMap<V, Boolean> repaired = new MyHashMap<>();
+        while (!queue.isEmpty()) {
+            DirectedEdge<V> entry = queue.dequeue();
+            V node = entry.from();
+            if (entry.weight() >= treeDistance(dijkstraGraph, start, node)) {
+                continue;
+            }
+            DirectedEdge<V> oldEdge = treeEdge(dijkstraGraph, node);
+            if (oldEdge != null) {
+                dijkstraGraph.removeEdge(node, oldEdge.to());
+            }
+            dijkstraGraph.addEdge(node, entry.to(), entry.weight());
+            if (!repaired.contains(node)) {
+                repaired.add(node, true);
+            }
+            for (DirectedEdge<V> edge : adjacencyList.get(node)) {
+                double distance = entry.weight() + edge.weight();
+                if (distance < treeDistance(dijkstraGraph, start, edge.to())) {
+                    queue.enqueue(new DirectedEdge<>(edge.to(), node, distance), distance);
+                }
+            }
+        }
+
+        int changed = repaired.size();
+        for (V node : affected) {
+            if (!repaired.contains(node)) {
+                changed++; // no longer reachable
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Like `repairShortestPaths`, but leaves the given result unchanged, so other threads can keep reading it while
+     * this one repairs. The repair is done on a copy, and a copy is only made when a changed edge affects the result:
+     * when the path of its end node used it, or when it gives its end node a shorter path.
+     *
+     * @param dijkstraGraph The output graph from `shortestPathsDijkstra` for the start node, which is not changed.
+     * @param start         The start node the shortest paths were calculated from.
+     * @param changedEdges  The edges that were removed, re-weighted or added since the shortest paths were calculated.
+     * @return The given graph if no shortest path changed, otherwise a repaired copy of it.
+     */
+
+    public MyGraph<V> repairedShortestPaths(MyGraph<V> dijkstraGraph, V start, SaxList<DirectedEdge<V>> changedEdges) {
+        for (DirectedEdge<V> changedEdge : changedEdges) {
+            if (affectsShortestPaths(dijkstraGraph, start, changedEdge)) {
+                MyGraph<V> copy = dijkstraGraph.copy();
+                repairShortestPaths(copy, start, changedEdges);
+                return copy;
+            }
+        }
+        return dijkstraGraph;
+    }
+
+    private boolean affectsShortestPaths(SaxGraph<V> dijkstraGraph, V start, DirectedEdge<V> changedEdge) {
+        DirectedEdge<V> treeEdge = treeEdge(dijkstraGraph, changedEdge.to());
+        if (treeEdge != null && treeEdge.to().equals(changedEdge.from())) {
+            return true;
+        }
+        double distance = treeDistance(dijkstraGraph, start, changedEdge.from());
+        if (distance == Double.POSITIVE_INFINITY || !adjacencyList.contains(changedEdge.from())) {
+            return false;
+        }
+        for (DirectedEdge<V> edge : adjacencyList.get(changedEdge.from())) {
+            if (edge.to().equals(changedEdge.to())
+                    && distance + edge.weight() < treeDistance(dijkstraGraph, start, edge.to())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the graph: the nodes and their lists of edges, which the copy can change without affecting this graph.
+     *
+     * @return A new graph with the same nodes and edges.
+     */
+
+    public MyGraph<V> copy() {
+        MyGraph<V> copy = new MyGraph<>();
+        for (V node : adjacencyList.getKeys()) {
+            MyArrayList<DirectedEdge<V>> edges = adjacencyList.get(node);
+            MyArrayList<DirectedEdge<V>> copiedEdges = new MyArrayList<>(edges.size());
+            for (DirectedEdge<V> edge : edges) {
+                copiedEdges.addLast(edge);
+            }
+            copy.adjacencyList.add(node, copiedEdges);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the edge from a node to its predecessor in a result of `shortestPathsDijkstra`.
+     * @return The edge, or null if the node is not reached.
+     */
+
+    private DirectedEdge<V> treeEdge(SaxGraph<V> dijkstraGraph, V node) {
+        SaxList<DirectedEdge<V>> edges;
+        try {
+            edges = dijkstraGraph.getEdges(node);
+        } catch (KeyNotFoundException e) {
+            return null;
+        }
+        return edges.isEmpty() ? null : edges.get(0);
+    }
+
+    /**
+     * Returns the distance of a node from the start node in a result of `shortestPathsDijkstra`.
+     * @return The distance, or infinity if the node is not reached.
+     */
+
+    private double treeDistance(SaxGraph<V> dijkstraGraph, V start, V node) {
+        if (node.equals(start)) {
+            return 0;
+        }
+        DirectedEdge<V> treeEdge = treeEdge(dijkstraGraph, node);
+        return treeEdge == null ? Double.POSITIVE_INFINITY : treeEdge.weight();
+    }
+
     /**
      * Finds the shortest path from a start node to an end node in the graph using the A* algorithm.
      * <p>
@@ -146,7 +471,7 @@ public class MyGraph<V> implements SaxGraph<V> {
      * to determine the total estimated cost (f) for each node.
      * Nodes with lower f-values are prioritized.
      * <p>
-     * This method uses a MinHeap as a priority queue (`openList`) to keep track of nodes to be explored,
+     * This method uses a MinHeap keyed on the f-value as a priority queue (`openList`) to keep track of nodes to be explored,
      * and a HashMap for closed list (`closedList`) to track nodes that have already been processed.
      * For each node, the algorithm evaluates its neighbors, updating the path if a shorter route is found.
      *
@@ -160,13 +485,32 @@ public class MyGraph<V> implements SaxGraph<V> {
 
     @Override
     public SaxList<DirectedEdge<V>> shortestPathAStar(V startNode, V endNode, Estimator<V> estimator) {
-        MyMinHeap<AStarNode> openList = new MyMinHeap<>();
-        MyHashMap<V, AStarNode> closedList = new MyHashMap<>();
-        AStarNode startAStarNode = new AStarNode(null, startNode, 0, estimator.estimate(startNode, endNode), null);
-        openList.enqueue(startAStarNode);
+        return shortestPathAStar(this, startNode, endNode, estimator);
+    }
+
+    /**
+     * The A* algorithm of {@link #shortestPathAStar(Object, Object, Estimator)} for any graph: it only reads the
+     * graph through getEdges, so views and read-only graphs share this implementation. A node can be in the open list
+     * more than once; only its first (cheapest) entry is expanded.
+     *
+     * @param graph     The graph to search.
+     * @param startNode The starting node of the search.
+     * @param endNode   The goal node of the search.
+     * @param estimator A heuristic function that estimates the cost from any node to the goal node.
+     * @return A list of directed edges representing the shortest path from the start node to the end node,
+     * or {@code null} if no path exists.
+     * @throws KeyNotFoundException If the start node is not part of the graph.
+     */
+
+    public static <T> SaxList<DirectedEdge<T>> shortestPathAStar(SaxGraph<T> graph, T startNode, T endNode,
+                                                                 Estimator<T> estimator) {
+        MyPriorityMinHeap<AStarNode<T>> openList = new MyPriorityMinHeap<>();
+        MyHashMap<T, AStarNode<T>> closedList = new MyHashMap<>();
+        AStarNode<T> startAStarNode = new AStarNode<>(null, startNode, 0, estimator.estimate(startNode, endNode), null);
+        openList.enqueue(startAStarNode, startAStarNode.f);
         while (!openList.isEmpty()) {
 
-            AStarNode current = openList.dequeue();
+            AStarNode<T> current = openList.dequeue();
 
 
             if (current.vertex.equals(endNode)) {
@@ -175,13 +519,14 @@ public class MyGraph<V> implements SaxGraph<V> {
                 return reconstructPath(current);
             }
 
+            if (closedList.contains(current.vertex)) {
+                continue; // reached before over a shorter path
+            }
             closedList.add(current.vertex, current);
 
 
-            MyArrayList<DirectedEdge<V>> neighbors = adjacencyList.get(current.vertex);
-
-            for (DirectedEdge<V> edge : neighbors) {
-                V neighborNode = edge.to();
+            for (DirectedEdge<T> edge : graph.getEdges(current.vertex)) {
+                T neighborNode = edge.to();
 
                 if (closedList.contains(neighborNode)) {
                     continue;
@@ -189,9 +534,9 @@ public class MyGraph<V> implements SaxGraph<V> {
 
                 double neighborG = current.g + edge.weight();
                 double neighborH = estimator.estimate(neighborNode, endNode);
-                AStarNode neighborAStarNode = new AStarNode(edge, neighborNode, neighborG, neighborH, current);
+                AStarNode<T> neighborAStarNode = new AStarNode<>(edge, neighborNode, neighborG, neighborH, current);
 
-                openList.enqueue(neighborAStarNode);
+                openList.enqueue(neighborAStarNode, neighborAStarNode.f);
             }
         }
 
@@ -212,9 +557,9 @@ public class MyGraph<V> implements SaxGraph<V> {
      * @return A list of directed edges representing the path from the start node to the goal node.
      */
 
-    private SaxList<DirectedEdge<V>> reconstructPath(AStarNode goalNode) {
-        MyArrayList<DirectedEdge<V>> path = new MyArrayList<>();
-        AStarNode current = goalNode;
+    private static <T> SaxList<DirectedEdge<T>> reconstructPath(AStarNode<T> goalNode) {
+        MyArrayList<DirectedEdge<T>> path = new MyArrayList<>();
+        AStarNode<T> current = goalNode;
         while (current.previousVertex != null) {
 
             path.addFirst(current.edgeToNode);
@@ -238,17 +583,18 @@ public class MyGraph<V> implements SaxGraph<V> {
      * that connects it.
      * These references allow the algorithm to reconstruct the path from the goal back to the start
      * once the shortest path is found.
+     * The `f` value is passed to the open list as the priority of the node.
      */
 
-    private class AStarNode implements Comparable<AStarNode> {
+    private static class AStarNode<T> {
 
 
-        DirectedEdge<V> edgeToNode;  // The edge connecting this node to its predecessor in the path
-        V vertex;     // The current vertex
+        DirectedEdge<T> edgeToNode;  // The edge connecting this node to its predecessor in the path
+        T vertex;     // The current vertex
         double g;     // The actual cost from the start node to this node
         double h;     // The heuristic cost from this node to the goal
         double f;     // The total cost f = g + h, used for priority in the A* search
-        AStarNode previousVertex; // Reference to the previous node in the shortest path
+        AStarNode<T> previousVertex; // Reference to the previous node in the shortest path
 
         /**
          * Constructs an AStarNode with the specified parameters.
@@ -260,7 +606,7 @@ public class MyGraph<V> implements SaxGraph<V> {
          * @param previousVertex The previous node in the path leading to this node.
          */
 
-        AStarNode(DirectedEdge<V> edgeToNode, V vertex, double g, double h, AStarNode previousVertex) {
+        AStarNode(DirectedEdge<T> edgeToNode, T vertex, double g, double h, AStarNode<T> previousVertex) {
             this.edgeToNode = edgeToNode;
             this.vertex = vertex;
             this.g = g;
@@ -269,22 +615,6 @@ public class MyGraph<V> implements SaxGraph<V> {
             // (g) and the heuristic cost to the goal(h).
             this.previousVertex = previousVertex;
         }
-
-        /**
-         * Compares this AStarNode to another AStarNode based on their f-value.
-         * This comparison is used by the priority queue in the A* algorithm
-         * to prioritize nodes with the lowest f-value,
-         * ensuring that nodes with the lowest estimated total cost are processed first.
-         *
-         * @param other The other AStarNode to compare to.
-         * @return A negative integer, zero, or a positive integer if the f-value of this node
-         * is less than, equal to, or greater than the specified node's f-value.
-         */
-
-        @Override
-        public int compareTo(AStarNode other) {
-            return Double.compare(this.f, other.f);
-        }
     }
 
     /**
@@ -303,50 +633,67 @@ public class MyGraph<V> implements SaxGraph<V> {
      */
     @Override
     public SaxGraph<V> minimumCostSpanningTree() {
+        MyArrayList<V> startVertex = new MyArrayList<>();
+        startVertex.addLast(adjacencyList.getKeys().get(0));
+        return minimumCostSpanningTree(this, startVertex);
+    }
+
+    /**
+     * Prim's algorithm of {@link #minimumCostSpanningTree()} for any graph: it only reads the graph through
+     * getEdges, so views and read-only graphs share this implementation. Every root that is not reached yet starts
+     * a new tree, so with all nodes as roots the result spans every part of the graph (a spanning forest).
+     *
+     * @param graph The graph to span.
+     * @param roots The nodes to start a tree from, in order.
+     * @return A new MyGraph instance with the edges of the spanning trees.
+     */
+
+    public static <T> MyGraph<T> minimumCostSpanningTree(SaxGraph<T> graph, Iterable<T> roots) {
         // A new graph to store the Minimum Cost Spanning Tree (MCST)
-        MyGraph<V> mst = new MyGraph<>();
+        MyGraph<T> mst = new MyGraph<>();
 
         // HashMap to keep track of visited vertices to avoid cycles
-        MyHashMap<V, Boolean> visited = new MyHashMap<>();
+        MyHashMap<T, Boolean> visited = new MyHashMap<>();
 
         // MinHeap (priority queue) for retrieval of the smallest edge
-        MyMinHeap<DirectedEdge<V>> queue = new MyMinHeap<>();
-        V startVertex = adjacencyList.getKeys().get(0);
-        visited.add(startVertex, true);
+        MyPriorityMinHeap<DirectedEdge<T>> queue = new MyPriorityMinHeap<>();
+        for (T startVertex : roots) {
+            if (visited.contains(startVertex)) {
+                continue;
+            }
+            visited.add(startVertex, true);
 
-        // Enqueue all edges of the starting vertex
-        MyArrayList<DirectedEdge<V>> edgesOfStartVertex = adjacencyList.get(startVertex);
-        for (DirectedEdge<V> edge : edgesOfStartVertex) {
-            queue.enqueue(edge);
-        }
-        // Continue until there are no more edges to process
-        while (!queue.isEmpty()) {
-            // Dequeue the edge with the smallest weight
-            DirectedEdge<V> currentEdge = queue.dequeue();
+            // Enqueue all edges of the starting vertex
+            for (DirectedEdge<T> edge : graph.getEdges(startVertex)) {
+                queue.enqueue(edge, edge.weight());
+            }
+            // Continue until there are no more edges to process
+            while (!queue.isEmpty()) {
+                // Dequeue the edge with the smallest weight
+                DirectedEdge<T> currentEdge = queue.dequeue();
 
-            V fromVertex = currentEdge.from();
-            V toVertex = currentEdge.to();
+                T fromVertex = currentEdge.from();
+                T toVertex = currentEdge.to();
 
-            // Skip if the destination vertex is already visited to avoid cycles
-            if (visited.contains(toVertex)) {
-                continue;
-            }
-            // Mark the destination vertex as visited
-            visited.add(toVertex, true);
+                // Skip if the destination vertex is already visited to avoid cycles
+                if (visited.contains(toVertex)) {
+                    continue;
+                }
+                // Mark the destination vertex as visited
+                visited.add(toVertex, true);
 
-            // Add the edge to the Minimum Cost Spanning Tree
-            mst.addEdge(fromVertex, toVertex, currentEdge.weight());
+                // Add the edge to the Minimum Cost Spanning Tree
+                mst.addEdge(fromVertex, toVertex, currentEdge.weight());
 
-            // Enqueue all edges of the newly added vertex that lead to unvisited vertices
-            MyArrayList<DirectedEdge<V>> neighborsOfNextNode = adjacencyList.get(toVertex);
-            for (DirectedEdge<V> neighborEdge : neighborsOfNextNode) {
-                if (!visited.contains(neighborEdge.to())) {
-                    queue.enqueue(neighborEdge);
+                // Enqueue all edges of the newly added vertex that lead to unvisited vertices
+                for (DirectedEdge<T> neighborEdge : graph.getEdges(toVertex)) {
+                    if (!visited.contains(neighborEdge.to())) {
+                        queue.enqueue(neighborEdge, neighborEdge.weight());
+                    }
                 }
             }
         }
 
-
         return mst;
     }
 
@@ -0,0 +1,162 @@
+package custom_data_structures;
+
+import collection.EmptyCollectionException;
+import collection.SaxCollection;
+
+/**
+ * A min-heap of {@code int} items (like vertex or edge numbers) with an explicit {@code double} priority, like
+ * {@link MyPriorityMinHeap} without any objects: items and priorities are kept in two primitive arrays, so the
+ * graph searches that work on numbers neither box them nor call {@code compareTo}. The arrays grow when needed and
+ * are kept by {@link #clear()}, so one heap can be reused for many searches. An item may be in the heap more than once.
+ */
+public class MyIntMinHeap implements SaxCollection<Integer> {
+    // Minimal size of the internal arrays
+    private static final int MINIMUM_SIZE = 32;
+
+    private int[] items;
+    private double[] priorities;
+    private int size;
+
+    public MyIntMinHeap() {
+        this(MINIMUM_SIZE);
+    }
+
+    public MyIntMinHeap(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+        priorities = new double[items.length];
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an item with the given priority to the heap.
+     *
+     * @param item     the item to add
+     * @param priority the priority of the item; the smallest priority is dequeued first
+     */
+    public void enqueue(int item, double priority) {
+        if (size == items.length) {
+            extend();
+        }
+        int index = size++;
+        while (index > 0) {
+            int parentIndex = (index - 1) / 2;
+            if (priority >= priorities[parentIndex]) {
+                break;
+            }
+            items[index] = items[parentIndex];
+            priorities[index] = priorities[parentIndex];
+            index = parentIndex;
+        }
+        items[index] = item;
+        priorities[index] = priority;
+    }
+
+    /**
+     * Removes and returns the item with the smallest priority (the root element).
+     *
+     * @return the item with the smallest priority
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int dequeue() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException();
+        }
+        int rootItem = items[0];
+        int item = items[--size];
+        double priority = priorities[size];
+        int index = 0;
+        int half = size / 2; // nodes from this index onward are leaves
+        while (index < half) {
+            int smallestIndex = 2 * index + 1;
+            if (smallestIndex + 1 < size && priorities[smallestIndex + 1] < priorities[smallestIndex]) {
+                smallestIndex++;
+            }
+            if (priority <= priorities[smallestIndex]) {
+                break;
+            }
+            items[index] = items[smallestIndex];
+            priorities[index] = priorities[smallestIndex];
+            index = smallestIndex;
+        }
+        items[index] = item;
+        priorities[index] = priority;
+        return rootItem;
+    }
+
+    /**
+     * Returns the item with the smallest priority without removing it.
+     *
+     * @return the item with the smallest priority
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int peek() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException();
+        }
+        return items[0];
+    }
+
+    /**
+     * Returns the smallest priority in the heap, i.e. the priority of the item returned by {@link #peek()}.
+     *
+     * @return the smallest priority in the heap
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public double peekPriority() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException();
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes all items from the heap, keeping the allocated arrays for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Doubles the capacity of the item and priority arrays.
+     */
+    private void extend() {
+        int capacity = items.length * 2;
+        var newItems = new int[capacity];
+        var newPriorities = new double[capacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        System.arraycopy(priorities, 0, newPriorities, 0, size);
+        items = newItems;
+        priorities = newPriorities;
+    }
+
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("digraph ").append(name).append(" {\n");
+
+        if (isEmpty()) {
+            sb.append("    null [shape=point];\n");
+        } else {
+            for (int index = 0; index < size; index++) {
+                sb.append("    \"").append(index).append("\" [label=\"").append(items[index])
+                        .append(" (").append(priorities[index]).append(")\"];\n");
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    sb.append("    \"").append(index).append("\" -> \"").append(child).append("\";\n");
+                }
+            }
+        }
+
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
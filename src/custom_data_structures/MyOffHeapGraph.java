@@ -0,0 +1,466 @@
+package custom_data_structures;
+
+import collection.KeyNotFoundException;
+import collection.SaxGraph;
+import collection.SaxList;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A graph whose edges are kept outside the Java heap, for networks too big to keep as objects. The edges are stored
+ * in compressed sparse row form in three buffers: the edges of vertex v are the positions offsets[v] .. offsets[v + 1] - 1
+ * of the targets (vertex numbers) and the weights. Optionally, two more buffers hold the latitude and longitude of the
+ * vertices. The buffers can be direct buffers (see {@link #copyOf}) or parts of a memory-mapped file, which the
+ * operating system then shares between all processes that map it. Only the vertices themselves and the map from
+ * vertex to number are on the heap.
+ * <p>
+ * The edges are fixed once the graph is made, so edges cannot be added or removed; only their weight can be changed,
+ * if the weights buffer is writable. Edge objects are made when asked for, by getEdges and the algorithms, which
+ * otherwise work on vertex numbers and arrays that only live during the call. Like {@link MyGraph} the graph is not
+ * thread-safe while weights are changed.
+ * </p>
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class MyOffHeapGraph<V> implements SaxGraph<V> {
+    private final MyArrayList<V> vertices;
+    private final MyHashMap<V, Integer> vertexNumbers = new MyHashMap<>();
+    private final ByteBuffer offsets;
+    private final ByteBuffer targets;
+    private final ByteBuffer weights;
+    private final ByteBuffer latitudes;
+    private final ByteBuffer longitudes;
+    private final int edgeCount;
+
+    /**
+     * Creates a graph over existing buffers, like parts of a mapped file. The buffers are used from index 0,
+     * in their own byte order.
+     *
+     * @param vertices   the vertices, in the order of their numbers; must be distinct
+     * @param offsets    an int per vertex with the position of its first edge, followed by the number of edges
+     * @param targets    an int per edge with the number of the vertex the edge points to
+     * @param weights    a double per edge with its weight
+     * @param latitudes  a double per vertex with its latitude, or null; may have fewer values than there are vertices
+     * @param longitudes a double per vertex with its longitude, or null; must have as many values as the latitudes
+     * @throws IllegalArgumentException if a buffer is too small, the offsets are not ascending or a target is not a vertex
+     */
+    public MyOffHeapGraph(SaxList<V> vertices, ByteBuffer offsets, ByteBuffer targets, ByteBuffer weights,
+                          ByteBuffer latitudes, ByteBuffer longitudes) throws IllegalArgumentException {
+        this.vertices = new MyArrayList<>(Math.max(vertices.size(), 1));
+        for (V vertex : vertices) {
+            vertexNumbers.add(vertex, this.vertices.size());
+            this.vertices.addLast(vertex);
+        }
+        int vertexCount = this.vertices.size();
+        if (offsets.limit() < (vertexCount + 1) * Integer.BYTES || offsets.getInt(0) != 0) {
+            throw new IllegalArgumentException("Missing offsets");
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (offsets.getInt((vertex + 1) * Integer.BYTES) < offsets.getInt(vertex * Integer.BYTES)) {
+                throw new IllegalArgumentException("Offsets are not ascending at vertex " + vertex);
+            }
+        }
+        edgeCount = offsets.getInt(vertexCount * Integer.BYTES);
+        if (targets.limit() < (long) edgeCount * Integer.BYTES || weights.limit() < (long) edgeCount * Double.BYTES) {
+            throw new IllegalArgumentException("Missing edges");
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int target = targets.getInt(edge * Integer.BYTES);
+            if (target < 0 || target >= vertexCount) {
+                throw new IllegalArgumentException("Edge " + edge + " points to no vertex");
+            }
+        }
+        if ((latitudes == null) != (longitudes == null)
+                || (latitudes != null && latitudes.limit() / Double.BYTES != longitudes.limit() / Double.BYTES)) {
+            throw new IllegalArgumentException("Latitudes and longitudes do not match");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * Copies a graph into direct buffers. The vertices are numbered in the given order, followed by the vertices
+     * that are only found as the target of an edge, in the order they are found.
+     *
+     * @param graph    the graph to copy
+     * @param vertices the vertices to copy with their edges; a vertex that is not in the graph gets no edges
+     * @param <V>      type of the nodes in the graph
+     * @return the copy
+     */
+    public static <V> MyOffHeapGraph<V> copyOf(SaxGraph<V> graph, Iterable<V> vertices) {
+        MyArrayList<V> vertexList = new MyArrayList<>();
+        MyHashMap<V, Integer> numbers = new MyHashMap<>();
+        for (V vertex : vertices) {
+            if (!numbers.contains(vertex)) {
+                numbers.add(vertex, vertexList.size());
+                vertexList.addLast(vertex);
+            }
+        }
+        // vertices found as targets are appended, so the loop also visits them
+        MyArrayList<SaxList<DirectedEdge<V>>> vertexEdges = new MyArrayList<>();
+        int edges = 0;
+        for (int vertex = 0; vertex < vertexList.size(); vertex++) {
+            SaxList<DirectedEdge<V>> edgesOfVertex;
+            try {
+                edgesOfVertex = graph.getEdges(vertexList.get(vertex));
+            } catch (KeyNotFoundException e) {
+                edgesOfVertex = new MyArrayList<>();
+            }
+            for (DirectedEdge<V> edge : edgesOfVertex) {
+                if (!numbers.contains(edge.to())) {
+                    numbers.add(edge.to(), vertexList.size());
+                    vertexList.addLast(edge.to());
+                }
+            }
+            vertexEdges.addLast(edgesOfVertex);
+            edges += edgesOfVertex.size();
+        }
+
+        ByteBuffer offsets = ByteBuffer.allocateDirect((vertexList.size() + 1) * Integer.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer targets = ByteBuffer.allocateDirect(edges * Integer.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer weights = ByteBuffer.allocateDirect(edges * Double.BYTES).order(ByteOrder.nativeOrder());
+        int edge = 0;
+        for (int vertex = 0; vertex < vertexList.size(); vertex++) {
+            offsets.putInt(vertex * Integer.BYTES, edge);
+            for (DirectedEdge<V> directedEdge : vertexEdges.get(vertex)) {
+                targets.putInt(edge * Integer.BYTES, numbers.get(directedEdge.to()));
+                weights.putDouble(edge * Double.BYTES, directedEdge.weight());
+                edge++;
+            }
+        }
+        offsets.putInt(vertexList.size() * Integer.BYTES, edge);
+        return new MyOffHeapGraph<>(vertexList, offsets, targets, weights, null, null);
+    }
+
+    private int numberOf(V value) throws KeyNotFoundException {
+        if (!vertexNumbers.contains(value)) {
+            throw new KeyNotFoundException("" + value);
+        }
+        return vertexNumbers.get(value);
+    }
+
+    private int firstEdge(int vertex) {
+        return offsets.getInt(vertex * Integer.BYTES);
+    }
+
+    private int target(int edge) {
+        return targets.getInt(edge * Integer.BYTES);
+    }
+
+    private double weight(int edge) {
+        return weights.getDouble(edge * Double.BYTES);
+    }
+
+    /**
+     * Finds the vertex an edge starts from, with a binary search over the offsets.
+     */
+    private int source(int edge) {
+        int lo = 0;
+        int hi = vertices.size() - 1;
+        while (lo < hi) {
+            int middle = (lo + hi + 1) >>> 1;
+            if (firstEdge(middle) <= edge) {
+                lo = middle;
+            } else {
+                hi = middle - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The edges are fixed, see the class description.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(V fromValue, V toValue, double weight) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The edges of an off-heap graph are fixed");
+    }
+
+    /**
+     * The edges are fixed, see the class description.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdgeBidirectional(V fromValue, V toValue, double weight) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The edges of an off-heap graph are fixed");
+    }
+
+    @Override
+    public boolean containsEdge(V fromValue, V toValue) {
+        if (!vertexNumbers.contains(fromValue) || !vertexNumbers.contains(toValue)) {
+            return false;
+        }
+        int from = vertexNumbers.get(fromValue);
+        int to = vertexNumbers.get(toValue);
+        for (int edge = firstEdge(from); edge < firstEdge(from + 1); edge++) {
+            if (target(edge) == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The edges are fixed, see the class description.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void removeEdge(V fromValue, V toValue) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The edges of an off-heap graph are fixed");
+    }
+
+    /**
+     * Changes the weight in the weights buffer itself, so in a mapped file also for other processes.
+     *
+     * @throws UnsupportedOperationException if the weights buffer is read-only
+     */
+    @Override
+    public double setEdgeWeight(V fromValue, V toValue, double weight) throws KeyNotFoundException, UnsupportedOperationException {
+        if (weights.isReadOnly()) {
+            throw new UnsupportedOperationException("The weights of this off-heap graph are read-only");
+        }
+        int from = numberOf(fromValue);
+        int to = numberOf(toValue);
+        double oldWeight = Double.NaN;
+        for (int edge = firstEdge(from); edge < firstEdge(from + 1); edge++) {
+            if (target(edge) == to) {
+                oldWeight = weight(edge);
+                weights.putDouble(edge * Double.BYTES, weight);
+            }
+        }
+        if (Double.isNaN(oldWeight)) {
+            throw new KeyNotFoundException(fromValue + "-" + toValue);
+        }
+        return oldWeight;
+    }
+
+    /**
+     * Makes the edges of the node, as a new list.
+     */
+    @Override
+    public SaxList<DirectedEdge<V>> getEdges(V value) throws KeyNotFoundException {
+        int vertex = numberOf(value);
+        int end = firstEdge(vertex + 1);
+        MyArrayList<DirectedEdge<V>> edges = new MyArrayList<>(Math.max(end - firstEdge(vertex), 1));
+        for (int edge = firstEdge(vertex); edge < end; edge++) {
+            edges.addLast(new DirectedEdge<>(value, vertices.get(target(edge)), weight(edge)));
+        }
+        return edges;
+    }
+
+    @Override
+    public double getTotalWeight() {
+        double totalWeight = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            totalWeight += weight(edge);
+        }
+        return totalWeight;
+    }
+
+    /**
+     * @return the number of (directed) edges
+     */
+    public int getNumberOfEdges() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the latitude of a node, if the graph has coordinates.
+     *
+     * @param value the node
+     * @return the latitude, or NaN if the node has no coordinates
+     * @throws KeyNotFoundException if the node is not part of the graph
+     */
+    public double getLatitude(V value) throws KeyNotFoundException {
+        return coordinate(latitudes, numberOf(value));
+    }
+
+    /**
+     * Returns the longitude of a node, if the graph has coordinates.
+     *
+     * @param value the node
+     * @return the longitude, or NaN if the node has no coordinates
+     * @throws KeyNotFoundException if the node is not part of the graph
+     */
+    public double getLongitude(V value) throws KeyNotFoundException {
+        return coordinate(longitudes, numberOf(value));
+    }
+
+    private static double coordinate(ByteBuffer coordinates, int vertex) {
+        if (coordinates == null || (vertex + 1) * Double.BYTES > coordinates.limit()) {
+            return Double.NaN;
+        }
+        return coordinates.getDouble(vertex * Double.BYTES);
+    }
+
+    /**
+     * Calculates the shortest paths from the start node with Dijkstra's algorithm, in the same form as
+     * {@link MyGraph#shortestPathsDijkstra}: every reached node has one edge, to the node before it on its path,
+     * with its distance from the start as weight.
+     *
+     * @param startNode The node from which to calculate the shortest paths.
+     * @return A new graph representing the shortest paths from the start node to all other reachable nodes.
+     * @throws KeyNotFoundException if the start node is not part of the graph
+     */
+    @Override
+    public SaxGraph<V> shortestPathsDijkstra(V startNode) throws KeyNotFoundException {
+        MyGraph<V> result = new MyGraph<>();
+        int start = numberOf(startNode);
+        double[] distances = new double[vertices.size()];
+        int[] parents = new int[vertices.size()];
+        boolean[] settled = new boolean[vertices.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        MyIntMinHeap heap = new MyIntMinHeap();
+        distances[start] = 0;
+        parents[start] = -1;
+        heap.enqueue(start, 0);
+        while (!heap.isEmpty()) {
+            int vertex = heap.dequeue();
+            if (settled[vertex]) {
+                continue;
+            }
+            settled[vertex] = true;
+            if (parents[vertex] >= 0) {
+                result.addEdge(vertices.get(vertex), vertices.get(parents[vertex]), distances[vertex]);
+            }
+            for (int edge = firstEdge(vertex); edge < firstEdge(vertex + 1); edge++) {
+                int target = target(edge);
+                double distance = distances[vertex] + weight(edge);
+                if (!settled[target] && distance < distances[target]) {
+                    distances[target] = distance;
+                    parents[target] = vertex;
+                    heap.enqueue(target, distance);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the shortest path between two nodes with the A* algorithm.
+     *
+     * @param startNode The starting node of the search.
+     * @param endNode   The goal node of the search.
+     * @param estimator A heuristic function that estimates the cost from any node to the goal node.
+     * @return A list of the edges of the path, with their own weights, or {@code null} if no path exists.
+     * @throws KeyNotFoundException if the start or end node is not part of the graph
+     */
+    @Override
+    public SaxList<DirectedEdge<V>> shortestPathAStar(V startNode, V endNode, Estimator<V> estimator) throws KeyNotFoundException {
+        int start = numberOf(startNode);
+        int goal = numberOf(endNode);
+        double[] distances = new double[vertices.size()];
+        int[] parentEdges = new int[vertices.size()];
+        boolean[] settled = new boolean[vertices.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        MyIntMinHeap heap = new MyIntMinHeap();
+        distances[start] = 0;
+        parentEdges[start] = -1;
+        heap.enqueue(start, estimator.estimate(startNode, endNode));
+        while (!heap.isEmpty()) {
+            int vertex = heap.dequeue();
+            if (settled[vertex]) {
+                continue;
+            }
+            if (vertex == goal) {
+                MyArrayList<DirectedEdge<V>> path = new MyArrayList<>();
+                for (int edge = parentEdges[goal]; edge >= 0; edge = parentEdges[source(edge)]) {
+                    path.addFirst(new DirectedEdge<>(vertices.get(source(edge)), vertices.get(target(edge)), weight(edge)));
+                }
+                return path;
+            }
+            settled[vertex] = true;
+            for (int edge = firstEdge(vertex); edge < firstEdge(vertex + 1); edge++) {
+                int target = target(edge);
+                double distance = distances[vertex] + weight(edge);
+                if (!settled[target] && distance < distances[target]) {
+                    distances[target] = distance;
+                    parentEdges[target] = edge;
+                    heap.enqueue(target, distance + estimator.estimate(vertices.get(target), endNode));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes a minimum cost spanning tree with Prim's algorithm for every part of the graph which is not connected
+     * to the rest, starting from the lowest numbered vertex not reached yet.
+     *
+     * @return A new MyGraph instance with the edges of the spanning trees.
+     */
+    @Override
+    public SaxGraph<V> minimumCostSpanningTree() {
+        MyGraph<V> mst = new MyGraph<>();
+        boolean[] visited = new boolean[vertices.size()];
+        MyIntMinHeap heap = new MyIntMinHeap(); // of edges
+        for (int root = 0; root < vertices.size(); root++) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            pushEdges(heap, visited, root);
+            while (!heap.isEmpty()) {
+                int edge = heap.dequeue();
+                int target = target(edge);
+                if (visited[target]) {
+                    continue;
+                }
+                visited[target] = true;
+                mst.addEdge(vertices.get(source(edge)), vertices.get(target), weight(edge));
+                pushEdges(heap, visited, target);
+            }
+        }
+        return mst;
+    }
+
+    private void pushEdges(MyIntMinHeap heap, boolean[] visited, int vertex) {
+        for (int edge = firstEdge(vertex); edge < firstEdge(vertex + 1); edge++) {
+            if (!visited[target(edge)]) {
+                heap.enqueue(edge, weight(edge));
+            }
+        }
+    }
+
+    /**
+     * Iterates over all nodes, in the order of their numbers.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return vertices.iterator();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return vertices.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return vertices.size();
+    }
+
+    @Override
+    public String graphViz(String name) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("digraph ").append(name).append(" {\n");
+        for (int vertex = 0; vertex < vertices.size(); vertex++) {
+            for (int edge = firstEdge(vertex); edge < firstEdge(vertex + 1); edge++) {
+                builder.append('"').append(vertices.get(vertex)).append("\" -> \"").append(vertices.get(target(edge)))
+                        .append("\" [label=\"").append(weight(edge)).append("\"]\n");
+            }
+        }
+        builder.append("}\n");
+        return builder.toString();
+    }
+}
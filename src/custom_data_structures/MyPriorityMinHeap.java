@@ -0,0 +1,200 @@
+package custom_data_structures;
+
+import collection.EmptyCollectionException;
+import collection.SaxCollection;
+
+/**
+ * A min-heap in which every value is stored together with an explicit {@code double} priority.
+ * The priorities are kept in a primitive array parallel to the values, so ordering the heap never
+ * calls {@code compareTo} and callers do not need Comparable wrapper objects to express a priority.
+ * Elements with equal priorities are ordered exactly like in {@link MyMinHeap}.
+ *
+ * @param <V> the type of the values stored in the heap
+ */
+public class MyPriorityMinHeap<V> implements SaxCollection<V> {
+    // Minimal size of the internal arrays
+    private static final int MINIMUM_SIZE = 32;
+
+    // Java prohibits creating an array with a generic type, so we use Object
+    private Object[] values;
+    private double[] priorities;
+    private int size;
+
+    public MyPriorityMinHeap() {
+        this(MINIMUM_SIZE);
+    }
+
+    public MyPriorityMinHeap(int capacity) {
+        values = new Object[Math.max(capacity, 1)];
+        priorities = new double[values.length];
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value with the given priority to the heap.
+     *
+     * @param value    the value to add
+     * @param priority the priority of the value; the smallest priority is dequeued first
+     */
+    public void enqueue(V value, double priority) {
+        if (size == values.length) {
+            extend();
+        }
+        percolateUp(size++, value, priority);
+    }
+
+    /**
+     * Removes and returns the value with the smallest priority (the root element).
+     *
+     * @return the value with the smallest priority
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    // Do no type checking; a Java hack, because we store objects of a generic type V in an Object array
+    @SuppressWarnings("unchecked")
+    public V dequeue() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException();
+        }
+        V rootValue = (V) values[0];
+        int last = --size;
+        if (last > 0) {
+            Object lastValue = values[last];
+            double lastPriority = priorities[last];
+            values[last] = null; // this element no longer contains valid info
+            percolateDown(0, lastValue, lastPriority);
+        } else {
+            values[0] = null;
+        }
+        return rootValue;
+    }
+
+    /**
+     * Returns the value with the smallest priority without removing it.
+     *
+     * @return the value with the smallest priority
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public V peek() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException();
+        }
+        return (V) values[0];
+    }
+
+    /**
+     * Returns the smallest priority in the heap, i.e. the priority of the value returned by {@link #peek()}.
+     *
+     * @return the smallest priority in the heap
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public double peekPriority() throws EmptyCollectionException {
+        if (isEmpty()) {
+            throw new EmptyCollectionException();
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes all values from the heap, keeping the allocated arrays for reuse.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the hole at the given index up the heap until the parent priority is not bigger than
+     * the given priority and stores the value there. Parents are shifted down instead of swapped.
+     *
+     * @param index    the index of the hole (initially the first free position)
+     * @param value    the value to place
+     * @param priority the priority of the value
+     */
+    private void percolateUp(int index, Object value, double priority) {
+        while (index > 0) {
+            int parentIndex = (index - 1) / 2;
+            if (priority >= priorities[parentIndex]) {
+                break;
+            }
+            values[index] = values[parentIndex];
+            priorities[index] = priorities[parentIndex];
+            index = parentIndex;
+        }
+        values[index] = value;
+        priorities[index] = priority;
+    }
+
+    /**
+     * Moves the hole at the given index down the heap, each time taking the smallest child,
+     * until the given priority is not bigger than the priorities of the children and stores the value there.
+     *
+     * @param index    the index of the hole (initially the root)
+     * @param value    the value to place
+     * @param priority the priority of the value
+     */
+    private void percolateDown(int index, Object value, double priority) {
+        int half = size / 2; // nodes from this index onward are leaves
+        while (index < half) {
+            int smallestIndex = 2 * index + 1;
+            int rightChildIndex = smallestIndex + 1;
+            if (rightChildIndex < size && priorities[rightChildIndex] < priorities[smallestIndex]) {
+                smallestIndex = rightChildIndex;
+            }
+            if (priority <= priorities[smallestIndex]) {
+                break;
+            }
+            values[index] = values[smallestIndex];
+            priorities[index] = priorities[smallestIndex];
+            index = smallestIndex;
+        }
+        values[index] = value;
+        priorities[index] = priority;
+    }
+
+    /**
+     * Doubles the capacity of the value and priority arrays.
+     */
+    private void extend() {
+        int capacity = values.length * 2;
+        var newValues = new Object[capacity];
+        var newPriorities = new double[capacity];
+        System.arraycopy(values, 0, newValues, 0, size);
+        System.arraycopy(priorities, 0, newPriorities, 0, size);
+        values = newValues;
+        priorities = newPriorities;
+    }
+
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("digraph ").append(name).append(" {\n");
+
+        if (isEmpty()) {
+            sb.append("    null [shape=point];\n");
+        } else {
+            for (int index = 0; index < size; index++) {
+                sb.append("    \"").append(index).append("\" [label=\"").append(values[index])
+                        .append(" (").append(priorities[index]).append(")\"];\n");
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    sb.append("    \"").append(index).append("\" -> \"").append(child).append("\";\n");
+                }
+            }
+        }
+
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,525 @@
+package custom_data_structures;
+
+import collection.DuplicateKeyException;
+import collection.KeyNotFoundException;
+import collection.SaxCollection;
+
+import java.util.Comparator;
+
+/**
+ * A compressed trie (radix tree) which maps String keys to values and is made for prefix (autocomplete) searches.
+ * Every edge is labelled with a sequence of characters, so a chain of nodes with one child is stored as one node.
+ * The children of a node are kept in a sorted char array (their first characters) with a parallel node array,
+ * which is much smaller than a map per node and keeps the children in key order.
+ * <p>
+ * Every node caches the best (at most cacheSize) values of its subtree. The best values are the first ones in key
+ * order, or according to the ranking comparator if one is given. Asking for at most cacheSize completions of a
+ * prefix therefore only walks down the prefix: O(length of the prefix), independent of the number of keys.
+ * The caches are built lazily on the first search and cleared along the path of every added key.
+ * The tree can also be searched for keys within a small edit distance of a (misspelled) key.
+ * Keys are case-sensitive; store them in lower case for case-insensitive searches.
+ * Once all keys are added, the tree can be searched by several threads at the same time.
+ *
+ * @param <V> the value to store
+ */
+public class MyRadixTree<V> implements SaxCollection<V> {
+    private static final int DEFAULT_CACHE_SIZE = 10;
+    private static final char[] NO_CHARACTERS = new char[0];
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    /**
+     * A node of the radix tree; the label is the part of the key on the edge from the parent to this node.
+     */
+    private static class Node<V> {
+        char[] label;
+        char[] childCharacters = NO_CHARACTERS; // first character of the label of each child, sorted
+        @SuppressWarnings("unchecked")
+        Node<V>[] children = (Node<V>[]) NO_CHILDREN;
+        boolean hasValue;
+        V value;
+        // cached best values of this subtree, null when it has to be (re)built; volatile so a cache built
+        // by one reading thread is seen completely by the others
+        volatile Object[] best;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+    }
+
+    private final Node<V> root = new Node<>(NO_CHARACTERS);
+    private final int cacheSize;
+    private final Comparator<V> ranking;
+    private int size;
+
+    public MyRadixTree() {
+        this(DEFAULT_CACHE_SIZE, null);
+    }
+
+    /**
+     * Creates a radix tree.
+     *
+     * @param cacheSize number of best values cached per node
+     * @param ranking   order of the best values, or null to use the key order
+     */
+    public MyRadixTree(int cacheSize, Comparator<V> ranking) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        this.ranking = ranking;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the key is part of this tree.
+     *
+     * @param key key to search for
+     * @return if the key is in this tree
+     */
+    public boolean contains(String key) {
+        Node<V> node = findNode(key);
+        return node != null && node.hasValue;
+    }
+
+    /**
+     * Get the value which is mapped to the key.
+     *
+     * @param key key which is mapped to the value to be found
+     * @return the value mapped to the key
+     * @throws KeyNotFoundException if the key is not part of the tree
+     */
+    public V get(String key) throws KeyNotFoundException {
+        Node<V> node = findNode(key);
+        if (node == null || !node.hasValue) {
+            throw new KeyNotFoundException(key);
+        }
+        return node.value;
+    }
+
+    /**
+     * Add the value which will be mapped to the key. Edges are split where the key leaves an existing label.
+     *
+     * @param key   key which is mapped to the value
+     * @param value the value to add
+     * @throws DuplicateKeyException if the key is already part of the tree
+     */
+    public void add(String key, V value) throws DuplicateKeyException {
+        Node<V> node = root;
+        int position = 0;
+        while (true) {
+            node.best = null; // the subtree changes
+            if (position == key.length()) {
+                if (node.hasValue) {
+                    throw new DuplicateKeyException(key);
+                }
+                node.hasValue = true;
+                node.value = value;
+                size++;
+                return;
+            }
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                Node<V> leaf = new Node<>(key.substring(position).toCharArray());
+                leaf.hasValue = true;
+                leaf.value = value;
+                insertChild(node, -(index + 1), leaf);
+                size++;
+                return;
+            }
+            Node<V> child = node.children[index];
+            int common = commonLength(child.label, key, position);
+            if (common < child.label.length) {
+                // split the edge: a new node with the common part gets the old child (with the rest of its label)
+                Node<V> middle = new Node<>(copy(child.label, 0, common));
+                child.label = copy(child.label, common, child.label.length);
+                insertChild(middle, 0, child);
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+    }
+
+    /**
+     * Retrieves the best values (see the class description) whose keys start with the given prefix.
+     *
+     * @param prefix the prefix to search for
+     * @return at most cacheSize values whose keys start with the prefix
+     */
+    public MyArrayList<V> getByPrefix(String prefix) {
+        return getByPrefix(prefix, cacheSize);
+    }
+
+    /**
+     * Retrieves at most limit of the best values (see the class description) whose keys start with the given prefix.
+     * When limit is not bigger than the cache size, the answer comes from the cache of a single node;
+     * otherwise the subtree below the prefix is traversed.
+     *
+     * @param prefix the prefix to search for
+     * @param limit  the maximum number of values to return
+     * @return the values whose keys start with the prefix
+     */
+    public MyArrayList<V> getByPrefix(String prefix, int limit) {
+        MyArrayList<V> results = new MyArrayList<>();
+        Node<V> node = findPrefixNode(prefix);
+        if (node == null || limit <= 0) {
+            return results;
+        }
+        if (limit <= cacheSize) {
+            Object[] best = best(node);
+            for (int i = 0; i < best.length && i < limit; i++) {
+                results.addLast(valueOf(best[i]));
+            }
+        } else {
+            collect(node, results);
+            if (ranking != null) {
+                results.mergeSort(ranking);
+            }
+            while (results.size() > limit) {
+                results.removeLast();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Retrieves the values of the keys which are similar to the given key: at most maxDistance edits away, where
+     * an insertion, deletion or substitution of a character or a swap of two adjacent characters is one edit
+     * (the Damerau-Levenshtein distance as "optimal string alignment"). The most similar keys come first,
+     * keys at the same distance in key order.
+     * <p>
+     * The tree is walked once while the table of the distance computation is filled one row per character of the
+     * path, so keys with a common prefix share those rows. A subtree is skipped as soon as no cell of the row is
+     * within maxDistance, and only the cells at most maxDistance off the diagonal are computed, because the others
+     * can not be within reach. Once limit keys are found at some distance, the walk only looks for closer keys.
+     *
+     * @param key         the key to look for, for example with typos
+     * @param maxDistance the maximum number of edits between the key and a found key
+     * @param limit       the maximum number of values to return
+     * @return the values of the most similar keys, possibly empty
+     */
+    public MyArrayList<V> getBySimilarKey(String key, int maxDistance, int limit) {
+        MyArrayList<V> results = new MyArrayList<>();
+        if (maxDistance < 0 || limit <= 0) {
+            return results;
+        }
+        SimilarKeySearch search = new SimilarKeySearch(key, maxDistance, limit);
+        search.visit(root, 0);
+        for (MyArrayList<V> found : search.found) {
+            for (V value : found) {
+                if (results.size() == limit) {
+                    return results;
+                }
+                results.addLast(value);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The state of one getBySimilarKey search: a row of the distance table per character of the current path,
+     * and the found values per distance in key order.
+     */
+    private class SimilarKeySearch {
+        private final String key;
+        private final int limit;
+        private int maxDistance;
+        private final int[][] rows;
+        private final char[] path;
+        private final MyArrayList<MyArrayList<V>> found;
+
+        SimilarKeySearch(String key, int maxDistance, int limit) {
+            this.key = key;
+            this.maxDistance = maxDistance;
+            this.limit = limit;
+            // a row is only added below a row with a cell within maxDistance, so the path never gets longer
+            rows = new int[key.length() + maxDistance + 2][key.length() + 1];
+            path = new char[rows.length];
+            for (int column = 0; column <= key.length(); column++) {
+                rows[0][column] = column; // from the empty path to the first characters of the key
+            }
+            found = new MyArrayList<>(maxDistance + 1);
+            for (int distance = 0; distance <= maxDistance; distance++) {
+                found.addLast(new MyArrayList<>());
+            }
+        }
+
+        /**
+         * Visit the node, whose label starts after depth characters of the path, and its subtree.
+         */
+        void visit(Node<V> node, int depth) {
+            for (char character : node.label) {
+                if (!addRow(++depth, character)) {
+                    return;
+                }
+            }
+            if (node.hasValue && depth - key.length() <= maxDistance && key.length() - depth <= maxDistance) {
+                int distance = rows[depth][key.length()];
+                if (distance <= maxDistance) {
+                    found(node.value, distance);
+                }
+            }
+            for (Node<V> child : node.children) {
+                visit(child, depth);
+            }
+        }
+
+        /**
+         * Compute the row of the path with the given length, whose last character is given.
+         *
+         * @return if any cell of the row is within maxDistance, otherwise no key below can be
+         */
+        private boolean addRow(int depth, char character) {
+            path[depth] = character;
+            int[] row = rows[depth];
+            int[] previous = rows[depth - 1];
+            int outOfReach = maxDistance + 1;
+            int from = Math.max(1, depth - maxDistance);
+            int to = Math.min(key.length(), depth + maxDistance);
+            row[0] = depth;
+            if (from > to) {
+                return depth <= maxDistance; // only the first cell is left
+            }
+            if (from > 1) {
+                row[from - 1] = outOfReach;
+            }
+            if (to < key.length()) {
+                row[to + 1] = outOfReach; // read by the next row
+            }
+            int minimum = row[0];
+            for (int column = from; column <= to; column++) {
+                char keyCharacter = key.charAt(column - 1);
+                int value = Math.min(previous[column] + 1, row[column - 1] + 1);
+                value = Math.min(value, previous[column - 1] + (keyCharacter == character ? 0 : 1));
+                if (depth > 1 && column > 1 && keyCharacter == path[depth - 1]
+                        && key.charAt(column - 2) == character) {
+                    value = Math.min(value, rows[depth - 2][column - 2] + 1); // swapped characters
+                }
+                row[column] = value;
+                minimum = Math.min(minimum, value);
+            }
+            return minimum <= maxDistance;
+        }
+
+        private void found(V value, int distance) {
+            found.get(distance).addLast(value);
+            int count = 0;
+            for (int closer = 0; closer <= distance; closer++) {
+                count += found.get(closer).size();
+            }
+            if (count >= limit) {
+                // later keys come after these in key order, so only closer ones can still be returned
+                maxDistance = distance - 1;
+            }
+        }
+    }
+
+    /**
+     * Walk down the tree along the whole key.
+     *
+     * @param key the key to find
+     * @return the node at the end of the key, or null if the key does not end on a node
+     */
+    private Node<V> findNode(String key) {
+        Node<V> node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            node = node.children[index];
+            if (commonLength(node.label, key, position) < node.label.length) {
+                return null;
+            }
+            position += node.label.length;
+        }
+        return node;
+    }
+
+    /**
+     * Walk down the tree along the prefix, which may end halfway a label.
+     *
+     * @param prefix the prefix to find
+     * @return the highest node whose subtree contains all keys starting with the prefix, or null if there are none
+     */
+    private Node<V> findPrefixNode(String prefix) {
+        Node<V> node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            node = node.children[index];
+            int common = commonLength(node.label, prefix, position);
+            if (position + common == prefix.length()) {
+                return node;
+            }
+            if (common < node.label.length) {
+                return null;
+            }
+            position += common;
+        }
+        return node;
+    }
+
+    /**
+     * Get (and build if necessary) the cached best values of the subtree of the node. They are merged from the
+     * value of the node itself and the cached best values of its children.
+     *
+     * @param node the root of the subtree
+     * @return the best values of the subtree, at most cacheSize
+     */
+    private Object[] best(Node<V> node) {
+        Object[] cached = node.best;
+        if (cached != null) {
+            return cached;
+        }
+        MyArrayList<V> candidates = new MyArrayList<>();
+        if (node.hasValue) {
+            candidates.addLast(node.value);
+        }
+        for (Node<V> child : node.children) {
+            if (ranking == null && candidates.size() >= cacheSize) {
+                break; // in key order the children follow each other, so the other children can not be better
+            }
+            for (Object value : best(child)) {
+                candidates.addLast(valueOf(value));
+            }
+        }
+        if (ranking != null) {
+            candidates.mergeSort(ranking);
+        }
+        Object[] best = new Object[Math.min(cacheSize, candidates.size())];
+        for (int i = 0; i < best.length; i++) {
+            best[i] = candidates.get(i);
+        }
+        node.best = best;
+        return best;
+    }
+
+    /**
+     * Collect all values of the subtree in key order.
+     *
+     * @param node    the root of the subtree
+     * @param results the list to add the values to
+     */
+    private void collect(Node<V> node, MyArrayList<V> results) {
+        if (node.hasValue) {
+            results.addLast(node.value);
+        }
+        for (Node<V> child : node.children) {
+            collect(child, results);
+        }
+    }
+
+    /**
+     * Binary search the child whose label starts with the given character.
+     *
+     * @param node      the parent node
+     * @param character the first character of the label
+     * @return the index of the child, or -(insertion point + 1) if there is no such child
+     */
+    private int childIndex(Node<V> node, char character) {
+        char[] characters = node.childCharacters;
+        int low = 0;
+        int high = characters.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (characters[middle] < character) {
+                low = middle + 1;
+            } else if (characters[middle] > character) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Insert a child at the given index, keeping both child arrays exactly as long as the number of children.
+     */
+    private void insertChild(Node<V> node, int index, Node<V> child) {
+        int count = node.children.length;
+        char[] characters = new char[count + 1];
+        Node<V>[] children = newChildren(count + 1);
+        System.arraycopy(node.childCharacters, 0, characters, 0, index);
+        System.arraycopy(node.children, 0, children, 0, index);
+        characters[index] = child.label[0];
+        children[index] = child;
+        System.arraycopy(node.childCharacters, index, characters, index + 1, count - index);
+        System.arraycopy(node.children, index, children, index + 1, count - index);
+        node.childCharacters = characters;
+        node.children = children;
+    }
+
+    /**
+     * Number of characters of the label which are equal to the characters of the key from the given position.
+     */
+    private static int commonLength(char[] label, String key, int position) {
+        int length = Math.min(label.length, key.length() - position);
+        int common = 0;
+        while (common < length && label[common] == key.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    // Java prohibits creating an array with a generic type, so we create one of Node<?> and cast it
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newChildren(int length) {
+        return (Node<V>[]) new Node<?>[length];
+    }
+
+    private static char[] copy(char[] characters, int from, int to) {
+        char[] result = new char[to - from];
+        System.arraycopy(characters, from, result, 0, to - from);
+        return result;
+    }
+
+    // Do no type checking; a Java hack, because we store objects of a generic type V in an Object array
+    @SuppressWarnings("unchecked")
+    private V valueOf(Object value) {
+        return (V) value;
+    }
+
+    /**
+     * Generates a GraphViz DOT string representation of the radix tree, with the labels on the edges.
+     *
+     * @param name The name of the graph.
+     * @return A string in DOT format representing the radix tree.
+     */
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("digraph ").append(name).append(" {\n");
+        int[] counter = {0};
+        buildGraphViz(root, counter, sb);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private void buildGraphViz(Node<V> node, int[] counter, StringBuilder sb) {
+        int id = counter[0]++;
+        sb.append("    \"").append(id).append("\" [label=\"").append(node.hasValue ? String.valueOf(node.value) : "")
+                .append("\"];\n");
+        for (Node<V> child : node.children) {
+            int childId = counter[0];
+            sb.append("    \"").append(id).append("\" -> \"").append(childId).append("\" [label=\"")
+                    .append(child.label).append("\"];\n");
+            buildGraphViz(child, counter, sb);
+        }
+    }
+}
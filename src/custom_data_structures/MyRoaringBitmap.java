@@ -0,0 +1,589 @@
+package custom_data_structures;
+
+import collection.SaxCollection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compressed set of non-negative ints, made for dense ids such as the rows of a station table, in the style of a
+ * roaring bitmap. The values are split on their upper 16 bits into chunks of 65536 values, and only chunks with
+ * values get a container. A container with at most {@value #ARRAY_LIMIT} values keeps them as a sorted char array;
+ * a fuller one keeps a bitmap of 65536 bits (8 KB), so a container never takes more than 8 KB. A membership test is
+ * a binary search over the chunks followed by a bit test or a small binary search, without hashing or boxing.
+ * <p>
+ * and, or and andNot make a new bitmap and work container by container: two bitmaps are combined 64 bits at a time,
+ * an array with anything else by looking up its values. Like the other collections, a bitmap can be read by several
+ * threads at the same time once it is no longer changed.
+ * </p>
+ */
+public class MyRoaringBitmap implements SaxCollection<Integer>, Iterable<Integer> {
+    // a container with more values than this is a bitmap, as an array of them would be larger than 8 KB
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1 << 10; // 65536 bits
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int containerCount;
+
+    /**
+     * Creates a bitmap with the given values.
+     *
+     * @param values The values, in any order; duplicates are ignored.
+     * @return The new bitmap.
+     * @throws IllegalArgumentException If a value is negative.
+     */
+    public static MyRoaringBitmap of(int... values) {
+        MyRoaringBitmap bitmap = new MyRoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Adds a value to the set. Adding values in ascending order is fastest.
+     *
+     * @param value The value to add.
+     * @return True if the value was added, false if it was in the set already.
+     * @throws IllegalArgumentException If the value is negative.
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        char key = (char) (value >>> 16);
+        int index = findContainer(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new ArrayContainer());
+        }
+        Container container = containers[index];
+        int cardinality = container.cardinality();
+        containers[index] = container.add((char) value);
+        return containers[index].cardinality() > cardinality;
+    }
+
+    /**
+     * Removes a value from the set.
+     *
+     * @param value The value to remove.
+     * @return True if the value was removed, false if it was not in the set.
+     */
+    public boolean remove(int value) {
+        int index = value < 0 ? -1 : findContainer((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int cardinality = container.cardinality();
+        containers[index] = container.remove((char) value);
+        if (containers[index].cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, containerCount - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, containerCount - index - 1);
+            containers[--containerCount] = null;
+            return true;
+        }
+        return containers[index].cardinality() < cardinality;
+    }
+
+    /**
+     * Checks whether a value is in the set; meant as a (vertex) filter, e.g. {@code bitmap::contains}.
+     *
+     * @param value The value to check.
+     * @return True if the value is in the set.
+     */
+    public boolean contains(int value) {
+        int index = value < 0 ? -1 : findContainer((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values in the set, like {@link #size()}.
+     *
+     * @return The number of values.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < containerCount; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    @Override
+    public int size() {
+        return cardinality();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return containerCount == 0;
+    }
+
+    /**
+     * Returns the values that are in this set and in the other set.
+     *
+     * @param other The other set.
+     * @return A new bitmap with the intersection.
+     */
+    public MyRoaringBitmap and(MyRoaringBitmap other) {
+        MyRoaringBitmap result = new MyRoaringBitmap();
+        for (int i = 0, j = 0; i < containerCount && j < other.containerCount; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendContainer(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values that are in this set, the other set or both.
+     *
+     * @param other The other set.
+     * @return A new bitmap with the union.
+     */
+    public MyRoaringBitmap or(MyRoaringBitmap other) {
+        MyRoaringBitmap result = new MyRoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount || j < other.containerCount) {
+            if (j == other.containerCount || (i < containerCount && keys[i] < other.keys[j])) {
+                result.appendContainer(keys[i], containers[i].copy());
+                i++;
+            } else if (i == containerCount || keys[i] > other.keys[j]) {
+                result.appendContainer(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values that are in this set but not in the other set.
+     *
+     * @param other The other set.
+     * @return A new bitmap with the difference.
+     */
+    public MyRoaringBitmap andNot(MyRoaringBitmap other) {
+        MyRoaringBitmap result = new MyRoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < containerCount; i++) {
+            while (j < other.containerCount && other.keys[j] < keys[i]) {
+                j++;
+            }
+            boolean overlaps = j < other.containerCount && other.keys[j] == keys[i];
+            result.appendContainer(keys[i], overlaps ? containers[i].andNot(other.containers[j]) : containers[i].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values in ascending order.
+     *
+     * @return A new array with all values.
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int size = 0;
+        for (int i = 0; i < containerCount; i++) {
+            size = containers[i].copyTo(values, size, keys[i] << 16);
+        }
+        return values;
+    }
+
+    /**
+     * Iterates over the values in ascending order. The set must not be changed while iterating.
+     *
+     * @return An iterator over the values.
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private int low = findNext(0, 0);
+
+            private int findNext(int from, int fromLow) {
+                for (index = from; index < containerCount; index++, fromLow = 0) {
+                    int next = containers[index].next(fromLow);
+                    if (next >= 0) {
+                        return next;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return low >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int value = keys[index] << 16 | low;
+                low = low < 0xFFFF ? findNext(index, low + 1) : findNext(index + 1, 0);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Create a String representation of the containers in GraphViz format: a node per container with its chunk,
+     * kind and number of values.
+     *
+     * @param name The name of the GraphViz graph.
+     * @return A string in DOT format.
+     */
+    @Override
+    public String graphViz(String name) {
+        StringBuilder dot = new StringBuilder();
+        dot.append("digraph \"").append(name).append("\" {\n");
+        dot.append("node [shape=record];\n");
+        for (int i = 0; i < containerCount; i++) {
+            dot.append("container").append(i).append(" [label=\"").append((int) keys[i]).append(" | ")
+                    .append(containers[i] instanceof ArrayContainer ? "array" : "bitmap").append(" | ")
+                    .append(containers[i].cardinality()).append("\"];\n");
+            if (i > 0) {
+                dot.append("container").append(i - 1).append(" -> container").append(i).append(";\n");
+            }
+        }
+        dot.append("}\n");
+        return dot.toString();
+    }
+
+    private int findContainer(char key) {
+        // values are mostly added in ascending order, so check the last container first
+        if (containerCount > 0 && keys[containerCount - 1] == key) {
+            return containerCount - 1;
+        }
+        return Arrays.binarySearch(keys, 0, containerCount, key);
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (containerCount == keys.length) {
+            keys = Arrays.copyOf(keys, containerCount * 2);
+            containers = Arrays.copyOf(containers, containerCount * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        keys[index] = key;
+        containers[index] = container;
+        containerCount++;
+    }
+
+    private void appendContainer(char key, Container container) {
+        if (container.cardinality() > 0) {
+            insertContainer(containerCount, key, container);
+        }
+    }
+
+    /**
+     * The values of one chunk, by their lower 16 bits. Changing a container may turn it into the other kind,
+     * so the caller keeps the container that is returned.
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        /**
+         * Returns the smallest value of at least fromLow in the container, or -1 if there is none.
+         */
+        abstract int next(int fromLow);
+
+        abstract int copyTo(int[] values, int size, int high);
+
+        abstract long[] toWords();
+
+        abstract Container copy();
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        /**
+         * Makes the smallest container for the bits of a bitmap.
+         */
+        static Container ofWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality > ARRAY_LIMIT) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int word = 0; word < WORDS; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    values[size++] = (char) (word << 6 | Long.numberOfTrailingZeros(bits));
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+
+    private static class ArrayContainer extends Container {
+        private char[] values;
+        private int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int index = size > 0 && values[size - 1] < low ? -size - 1 : Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return new BitmapContainer(toWords(), size).add(low);
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_LIMIT));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        int next(int fromLow) {
+            int index = Arrays.binarySearch(values, 0, size, (char) fromLow);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < size ? values[index] : -1;
+        }
+
+        @Override
+        int copyTo(int[] target, int targetSize, int high) {
+            for (int i = 0; i < size; i++) {
+                target[targetSize++] = high | values[i];
+            }
+            return targetSize;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        Container and(Container other) {
+            return filter(other, true);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            return filter(other, false);
+        }
+
+        private Container filter(Container other, boolean keep) {
+            char[] result = new char[Math.max(size, 1)];
+            int resultSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result[resultSize++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, resultSize);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer array)) {
+                return other.or(this);
+            }
+            if (size + array.size > ARRAY_LIMIT) {
+                long[] words = toWords();
+                for (int j = 0; j < array.size; j++) {
+                    words[array.values[j] >>> 6] |= 1L << array.values[j];
+                }
+                return ofWords(words);
+            }
+            char[] result = new char[Math.max(size + array.size, 1)];
+            int resultSize = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < array.size) {
+                if (j == array.size || (i < size && values[i] < array.values[j])) {
+                    result[resultSize++] = values[i++];
+                } else if (i == size || values[i] > array.values[j]) {
+                    result[resultSize++] = array.values[j++];
+                } else {
+                    result[resultSize++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, resultSize);
+        }
+    }
+
+    private static class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & 1L << low) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            if (!contains(low)) {
+                words[low >>> 6] |= 1L << low;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            if (!contains(low)) {
+                return this;
+            }
+            words[low >>> 6] &= ~(1L << low);
+            cardinality--;
+            return cardinality <= ARRAY_LIMIT ? ofWords(words) : this;
+        }
+
+        @Override
+        int next(int fromLow) {
+            int word = fromLow >>> 6;
+            long bits = words[word] & -1L << fromLow;
+            while (bits == 0) {
+                if (++word == WORDS) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+            return word << 6 | Long.numberOfTrailingZeros(bits);
+        }
+
+        @Override
+        int copyTo(int[] target, int targetSize, int high) {
+            for (int word = 0; word < WORDS; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    target[targetSize++] = high | word << 6 | Long.numberOfTrailingZeros(bits);
+                }
+            }
+            return targetSize;
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] result = words.clone();
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int word = 0; word < WORDS; word++) {
+                result[word] &= otherWords[word];
+            }
+            return ofWords(result);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = other.toWords();
+            for (int word = 0; word < WORDS; word++) {
+                result[word] |= words[word];
+            }
+            return ofWords(result);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.size; i++) {
+                    result[array.values[i] >>> 6] &= ~(1L << array.values[i]);
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int word = 0; word < WORDS; word++) {
+                    result[word] &= ~otherWords[word];
+                }
+            }
+            return ofWords(result);
+        }
+    }
+}
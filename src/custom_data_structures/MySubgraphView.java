@@ -0,0 +1,241 @@
+package custom_data_structures;
+
+import collection.KeyNotFoundException;
+import collection.SaxGraph;
+import collection.SaxList;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * A read-only view of the part of a graph between a subset of its vertices, for example the stations of one country.
+ * Nothing is copied: the view keeps the graph and a vertex filter, and leaves out the edges to vertices outside the
+ * subset when the edges are asked for. Changes to the graph are therefore seen by the view right away, and any
+ * number of views over one graph cost no more than their filters.
+ * <p>
+ * The subset is given twice: as a predicate, to test a single vertex (a bit test on a {@link MyRoaringBitmap} is
+ * a good fit), and as the vertices themselves, to iterate over the view. Only vertices that are accepted by the
+ * predicate and are a vertex of the graph belong to the view. The algorithms are those of {@link MyGraph}, which
+ * read the view through getEdges, so they only see the edges within the view and return their results in the same
+ * form. Like the graph, a view must not be used while the graph is changed: give it a graph that does not change,
+ * like a snapshot, to share it between threads.
+ * </p>
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class MySubgraphView<V> implements SaxGraph<V> {
+    private final SaxGraph<V> graph;
+    private final Iterable<V> vertices;
+    private final Predicate<V> contains;
+
+    /**
+     * Creates a view of the graph between the given vertices.
+     *
+     * @param graph    the graph to view
+     * @param vertices the vertices of the view, in the order of iteration; vertices the graph does not have are skipped
+     * @param contains tests whether a vertex is one of the vertices of the view
+     */
+    public MySubgraphView(SaxGraph<V> graph, Iterable<V> vertices, Predicate<V> contains) {
+        this.graph = graph;
+        this.vertices = vertices;
+        this.contains = contains;
+    }
+
+    private boolean isVertex(V value) {
+        if (!contains.test(value)) {
+            return false;
+        }
+        try {
+            graph.getEdges(value);
+            return true;
+        } catch (KeyNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The view is read-only; add the edge to the graph instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(V fromValue, V toValue, double weight) {
+        throw new UnsupportedOperationException("A subgraph view is read-only");
+    }
+
+    /**
+     * The view is read-only; add the edges to the graph instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdgeBidirectional(V fromValue, V toValue, double weight) {
+        throw new UnsupportedOperationException("A subgraph view is read-only");
+    }
+
+    /**
+     * The view is read-only; remove the edge from the graph instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void removeEdge(V fromValue, V toValue) {
+        throw new UnsupportedOperationException("A subgraph view is read-only");
+    }
+
+    /**
+     * The view is read-only; change the weight in the graph instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public double setEdgeWeight(V fromValue, V toValue, double weight) {
+        throw new UnsupportedOperationException("A subgraph view is read-only");
+    }
+
+    @Override
+    public boolean containsEdge(V fromValue, V toValue) {
+        return contains.test(fromValue) && contains.test(toValue) && graph.containsEdge(fromValue, toValue);
+    }
+
+    /**
+     * Gets the edges of the graph from the given node to other nodes of the view.
+     *
+     * @param value the value of the node the edges originate from
+     * @return a new list with the edges within the view
+     * @throws KeyNotFoundException if the node is not part of the view
+     */
+    @Override
+    public SaxList<DirectedEdge<V>> getEdges(V value) throws KeyNotFoundException {
+        if (!contains.test(value)) {
+            throw new KeyNotFoundException("" + value);
+        }
+        MyArrayList<DirectedEdge<V>> edges = new MyArrayList<>();
+        for (DirectedEdge<V> edge : graph.getEdges(value)) {
+            if (contains.test(edge.to())) {
+                edges.addLast(edge);
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public double getTotalWeight() {
+        double totalWeight = 0;
+        for (V vertex : this) {
+            for (DirectedEdge<V> edge : getEdges(vertex)) {
+                totalWeight += edge.weight();
+            }
+        }
+        return totalWeight;
+    }
+
+    /**
+     * Calculates the shortest paths within the view from the start node, like {@link MyGraph#shortestPathsDijkstra}.
+     *
+     * @param startNode The node from which to calculate the shortest paths.
+     * @return A new graph with, for every reachable node, an edge to its predecessor weighted with its distance.
+     * @throws KeyNotFoundException if the start node is not part of the view
+     */
+    @Override
+    public SaxGraph<V> shortestPathsDijkstra(V startNode) throws KeyNotFoundException {
+        getEdges(startNode); // fails for a node outside the view
+        return MyGraph.shortestPathsDijkstra(this, startNode);
+    }
+
+    /**
+     * Finds the shortest path within the view with the A* algorithm, like {@link MyGraph#shortestPathAStar}.
+     *
+     * @param startNode The node to start searching from.
+     * @param endNode   The node to find a path to.
+     * @param estimator Estimates the distance between two nodes; must never overestimate it.
+     * @return The edges of the path from the start node to the end node, empty if they are the same node,
+     * or {@code null} if no path exists within the view.
+     * @throws KeyNotFoundException if the start node is not part of the view
+     */
+    @Override
+    public SaxList<DirectedEdge<V>> shortestPathAStar(V startNode, V endNode, Estimator<V> estimator) throws KeyNotFoundException {
+        getEdges(startNode); // fails for a node outside the view
+        return MyGraph.shortestPathAStar(this, startNode, endNode, estimator);
+    }
+
+    /**
+     * Computes a minimum cost spanning tree with Prim's algorithm for every part of the view which is not connected
+     * to the rest, starting from the first node (in the order of the vertices) not reached yet.
+     *
+     * @return A new MyGraph instance with the edges of the spanning trees.
+     */
+    @Override
+    public SaxGraph<V> minimumCostSpanningTree() {
+        return MyGraph.minimumCostSpanningTree(this, this);
+    }
+
+    /**
+     * Iterates over the nodes of the view, in the order of the vertices it was made with.
+     *
+     * @return An iterator over the nodes.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        Iterator<V> iterator = vertices.iterator();
+        return new Iterator<>() {
+            private V next;
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                while (!ready && iterator.hasNext()) {
+                    V vertex = iterator.next();
+                    if (isVertex(vertex)) {
+                        next = vertex;
+                        ready = true;
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            public V next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return next;
+            }
+        };
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    /**
+     * Counts the nodes of the view, which takes a pass over its vertices.
+     *
+     * @return The number of nodes.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (V ignored : this) {
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public String graphViz(String name) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("digraph ").append(name).append(" {\n");
+        for (V vertex : this) {
+            for (DirectedEdge<V> edge : getEdges(vertex)) {
+                builder.append('"').append(edge.from()).append("\" -> \"").append(edge.to())
+                        .append("\" [label=\"").append(edge.weight()).append("\"]\n");
+            }
+        }
+        builder.append("}\n");
+        return builder.toString();
+    }
+}
@@ -3,71 +3,216 @@ package utils.reader;
 import custom_data_structures.MyArrayList;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 
 
 /**
- * A basic CSV reader class that reads lines from a CSV file
+ * A basic CSV reader class that reads records (lines) from a CSV file
  * and splits them into columns based on a specified delimiter.
+ * The file is read in blocks into a reusable buffer and every record is scanned once, character by character,
+ * into a reusable {@link CSVRecord}; no string is made per line or per column. Columns may be enclosed in
+ * double quotes, see {@link CSVRecord}. Empty lines are skipped.
  */
 
 public class CSVReader {
-    private final BufferedReader reader;
-
-
-    private final String regex;
-    private String currentLine;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final CSVRecord record = new CSVRecord();
+    // Whether a record was read after the header
+    private boolean started;
+    // Whether the input ended inside a quoted column
+    private boolean endedInQuotes;
 
     /**
-     * Constructs a new reader.CSVReader for reading from a CSV file.
+     * Constructs a new reader.CSVReader for reading from a (UTF-8) CSV file.
      *
      * @param filename The path to the CSV file.
-     * @param regex The delimiter used to split each line into columns.
+     * @param delimiter The character that separates the columns, like ",". It may be escaped with a backslash, as in a regex.
      * @param hasHeader Specifies whether the CSV file has a header row. If true, skip the first line.
      * @throws IOException If an I/O error occurs when opening the file.
+     * @throws IllegalArgumentException If the delimiter is not a single character, or is a quote or line break.
+     */
+
+    public CSVReader(String filename, String delimiter, boolean hasHeader) throws IOException {
+        // the delimiter is checked before the file is opened
+        this(toDelimiter(delimiter), new FileReader(filename, StandardCharsets.UTF_8), hasHeader);
+    }
+
+    /**
+     * Constructs a new reader.CSVReader for reading from any reader, like a part of a file.
+     *
+     * @param reader The reader to read the characters from.
+     * @param delimiter The character that separates the columns, like ",".
+     * @param hasHeader Specifies whether the input starts with a header row. If true, skip the first line.
+     * @throws IllegalArgumentException If the delimiter is not a single character, or is a quote or line break.
      */
 
-    public CSVReader(String filename, String regex,boolean hasHeader) throws IOException {
-        this.reader = new BufferedReader(new FileReader(filename));
-        this.regex = regex;
+    CSVReader(Reader reader, String delimiter, boolean hasHeader) {
+        this(toDelimiter(delimiter), reader, hasHeader);
+    }
+
+    private CSVReader(char delimiter, Reader reader, boolean hasHeader) {
+        this.delimiter = delimiter;
+        this.reader = reader;
 
         if (hasHeader) {
-            reader.readLine();
+            readLine();
         }
+        started = false;
+    }
 
-
+    private static char toDelimiter(String delimiter) {
+        String character = delimiter.length() == 2 && delimiter.charAt(0) == '\\' ? delimiter.substring(1) : delimiter;
+        if (character.length() != 1 || "\"\r\n".indexOf(character.charAt(0)) >= 0) {
+            throw new IllegalArgumentException("Unsupported delimiter: " + delimiter);
+        }
+        return character.charAt(0);
     }
 
     /**
-     * Reads the next line from the CSV file and stores it in `currentLine`.
+     * Reads the next record from the CSV file into the record returned by `getRecord`.
      *
-     * @return `true` if a line was successfully read; `false` if the end of the file has been reached.
+     * @return `true` if a record was successfully read; `false` if the end of the file has been reached.
      * @throws RuntimeException If an I/O error occurs while reading from the file.
      */
 
     public boolean readLine() {
+        started = true;
         try {
-            currentLine = reader.readLine();
-            return currentLine != null;
+            while (readRecord()) {
+                if (record.size() > 1 || !record.isEmpty(0)) {
+                    return true;
+                }
+            }
+            return false;
         } catch (IOException e) {
             throw new RuntimeException("Error reading from the file", e);
         }
     }
 
     /**
-     * Splits the current line into columns based on the specified delimiter and returns them as a list.
+     * Scans the characters of one record, up to and including its line break, refilling the buffer when needed.
+     * Runs of ordinary characters are copied at once.
+     */
+
+    private boolean readRecord() throws IOException {
+        record.clear();
+        boolean quoted = false;
+        boolean quoteInQuoted = false; // a quote was seen in a quoted column: the end of the column, or an escaped quote
+        boolean empty = true;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                position = 0;
+                if (limit == 0) {
+                    if (empty) {
+                        return false;
+                    }
+                    endedInQuotes = quoted;
+                    record.endColumn(); // a last line without line break, or an unterminated quote
+                    return true;
+                }
+            }
+            empty = false;
+
+            if (quoted) {
+                int start = position;
+                while (position < limit && buffer[position] != '"') {
+                    position++;
+                }
+                record.append(buffer, start, position - start);
+                if (position < limit) {
+                    position++;
+                    quoted = false;
+                    quoteInQuoted = true;
+                }
+                continue;
+            }
+            if (quoteInQuoted) {
+                quoteInQuoted = false;
+                if (buffer[position] == '"') {
+                    record.append('"');
+                    position++;
+                    quoted = true;
+                    continue;
+                }
+            }
+
+            int start = position;
+            char c = 0;
+            while (position < limit) {
+                c = buffer[position];
+                if (c == delimiter || c == '\n' || c == '\r' || c == '"') {
+                    break;
+                }
+                position++;
+            }
+            record.append(buffer, start, position - start);
+            if (position == limit) {
+                continue;
+            }
+            position++;
+            if (c == delimiter) {
+                record.endColumn();
+            } else if (c == '\n') {
+                record.endColumn();
+                return true;
+            } else if (c == '"') {
+                if (record.atColumnStart()) {
+                    quoted = true;
+                } else {
+                    record.append('"'); // a quote inside an unquoted column is taken as it is
+                }
+            }
+            // a carriage return is skipped
+        }
+    }
+
+    /**
+     * Checks whether no record was read yet, apart from the header.
+     * @return True if `readLine` was not called yet after the header.
+     */
+
+    boolean atStart() {
+        return !started;
+    }
+
+    /**
+     * Checks whether the input ended inside a quoted column, after all records were read. For a part of a file this
+     * means the part ends in the middle of a column with a line break, so it was not cut at the end of a record.
+     * @return True if the last column was opened with a quote that was not closed.
+     */
+
+    boolean endedInQuotes() {
+        return endedInQuotes;
+    }
+
+    /**
+     * Returns the current record. It is filled again by the next call of `readLine`.
      *
-     * @return A list of strings, where each string is a column from the current line.
+     * @return The record read by the last call of `readLine`.
      */
 
+    public CSVRecord getRecord() {
+        return record;
+    }
 
-    public MyArrayList<String> getColumns() {
-        MyArrayList<String> columns = new MyArrayList<>();
-        if (currentLine != null) {
+    /**
+     * Returns the columns of the current record as a list of strings.
+     *
+     * @return A list of strings, where each string is a column from the current record.
+     */
 
-            String[] values = currentLine.split(regex);
-            for (String value : values) {
-                columns.addLast(value);
-            }
+
+    public MyArrayList<String> getColumns() {
+        MyArrayList<String> columns = new MyArrayList<>(record.size());
+        for (int i = 0; i < record.size(); i++) {
+            columns.addLast(record.getString(i));
         }
         return columns;
 
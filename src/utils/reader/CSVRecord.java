@@ -0,0 +1,260 @@
+package utils.reader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One record (line) of a CSV file, split into columns. The characters of all columns are kept in one reusable
+ * buffer and every column is a range in that buffer, so reading a record creates no objects; a string is only made
+ * when {@link #getString(int)} is called, and numeric columns are parsed straight from the buffer.
+ * A record is filled by a reader and only valid until the reader reads the next record.
+ * <p>
+ * Columns may be enclosed in double quotes, in which case they can contain the delimiter, line breaks and
+ * double quotes written as two double quotes. The quotes themselves are not part of the column.
+ * </p>
+ */
+
+public class CSVRecord {
+
+    // Powers of ten that are exact as a double, for the fast path of getDouble
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    // Largest mantissa for which the fast path of getDouble is exact (2^53)
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private char[] chars = new char[256];
+    private int length;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int columns;
+
+    /**
+     * Returns the number of columns of the record.
+     * @return The number of columns.
+     */
+
+    public int size() {
+        return columns;
+    }
+
+    /**
+     * Checks whether a column is empty.
+     * @param index The index of the column.
+     * @return True if the column has no characters.
+     * @throws IndexOutOfBoundsException If there is no column with the index.
+     */
+
+    public boolean isEmpty(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return starts[index] == ends[index];
+    }
+
+    /**
+     * Returns a column as a string.
+     * @param index The index of the column.
+     * @return The characters of the column.
+     * @throws IndexOutOfBoundsException If there is no column with the index.
+     */
+
+    public String getString(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return new String(chars, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Parses a column as a decimal integer, like Integer.parseInt but without making a string.
+     * @param index The index of the column.
+     * @return The value of the column.
+     * @throws IndexOutOfBoundsException If there is no column with the index.
+     * @throws NumberFormatException If the column is not an integer that fits in an int.
+     */
+
+    public int getInt(int index) throws IndexOutOfBoundsException, NumberFormatException {
+        checkIndex(index);
+        int position = starts[index];
+        int end = ends[index];
+        boolean negative = position < end && chars[position] == '-';
+        if (position < end && (chars[position] == '-' || chars[position] == '+')) {
+            position++;
+        }
+        if (position == end) {
+            throw numberFormatException(index);
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = chars[position] - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(index);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberFormatException(index);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw numberFormatException(index);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a column as a double, like Double.parseDouble. Plain decimal numbers with at most 15 or 16 significant
+     * digits, like coordinates and distances, are parsed straight from the buffer: the digits form an exact long
+     * and a single division by an exact power of ten rounds correctly. Anything else (exponents, more digits,
+     * NaN) is handed to Double.parseDouble.
+     *
+     * @param index The index of the column.
+     * @return The value of the column.
+     * @throws IndexOutOfBoundsException If there is no column with the index.
+     * @throws NumberFormatException If the column is not a number.
+     */
+
+    public double getDouble(int index) throws IndexOutOfBoundsException, NumberFormatException {
+        checkIndex(index);
+        int position = starts[index];
+        int end = ends[index];
+        boolean negative = position < end && chars[position] == '-';
+        if (position < end && (chars[position] == '-' || chars[position] == '+')) {
+            position++;
+        }
+        long mantissa = 0;
+        int decimals = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; position < end; position++) {
+            char c = chars[position];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (point) {
+                    decimals++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    break;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (position < end || digits == 0 || decimals >= POWERS_OF_TEN.length) {
+            try {
+                return Double.parseDouble(getString(index));
+            } catch (NumberFormatException e) {
+                throw numberFormatException(index);
+            }
+        }
+        double value = mantissa / POWERS_OF_TEN[decimals];
+        return negative ? -value : value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(chars, starts[i], ends[i] - starts[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Empties the record, before the reader adds the characters of the next one.
+     */
+
+    void clear() {
+        length = 0;
+        columns = 0;
+        starts[0] = 0;
+    }
+
+    /**
+     * Checks whether no characters were added to the column that is being read yet.
+     * @return True if the column that is being read is still empty.
+     */
+
+    boolean atColumnStart() {
+        return length == starts[columns];
+    }
+
+    /**
+     * Adds a character to the column that is being read.
+     * @param c The character.
+     */
+
+    void append(char c) {
+        if (length == chars.length) {
+            char[] newChars = new char[chars.length * 2];
+            System.arraycopy(chars, 0, newChars, 0, length);
+            chars = newChars;
+        }
+        chars[length++] = c;
+    }
+
+    /**
+     * Adds characters to the column that is being read.
+     * @param source The array with the characters.
+     * @param offset The index of the first character in the array.
+     * @param count The number of characters.
+     */
+
+    void append(char[] source, int offset, int count) {
+        if (length + count > chars.length) {
+            char[] newChars = new char[Math.max(chars.length * 2, length + count)];
+            System.arraycopy(chars, 0, newChars, 0, length);
+            chars = newChars;
+        }
+        System.arraycopy(source, offset, chars, length, count);
+        length += count;
+    }
+
+    /**
+     * Adds ASCII characters to the column that is being read, from a buffer of bytes.
+     * @param source The buffer with the bytes, which must all be ASCII.
+     * @param offset The index of the first byte in the buffer.
+     * @param count The number of bytes.
+     */
+
+    void appendAscii(ByteBuffer source, int offset, int count) {
+        if (length + count > chars.length) {
+            char[] newChars = new char[Math.max(chars.length * 2, length + count)];
+            System.arraycopy(chars, 0, newChars, 0, length);
+            chars = newChars;
+        }
+        for (int i = 0; i < count; i++) {
+            chars[length + i] = (char) source.get(offset + i);
+        }
+        length += count;
+    }
+
+    /**
+     * Ends the column that is being read; the next characters belong to the next column.
+     */
+
+    void endColumn() {
+        if (columns + 1 == starts.length) {
+            int[] newStarts = new int[starts.length * 2];
+            int[] newEnds = new int[ends.length * 2];
+            System.arraycopy(starts, 0, newStarts, 0, columns + 1);
+            System.arraycopy(ends, 0, newEnds, 0, columns);
+            starts = newStarts;
+            ends = newEnds;
+        }
+        ends[columns++] = length;
+        starts[columns] = length;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= columns) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+    }
+
+    private NumberFormatException numberFormatException(int index) {
+        return new NumberFormatException("For input string: \"" + getString(index) + "\"");
+    }
+}
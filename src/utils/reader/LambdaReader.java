@@ -4,37 +4,90 @@ import custom_data_structures.MyArrayList;
 
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
  * A generic CSV file reader, which extends from the basic CSV reader,
  * uses a `reader.Creator` interface to transform each line of the CSV file
  * into an object of type `T`.
- * Each line is split into columns based on a specified regex, and these
- * columns are passed to the `reader.Creator` to generate objects.
+ * Each line is split into columns based on a specified delimiter, and the
+ * record with these columns is passed to the `reader.Creator` to generate objects.
+ * The record is reused for the next line, so the creator must take what it needs
+ * from it (with the typed getters) instead of keeping the record.
+ * The objects can be collected in a list with `readObjects`, or be taken one at a time by iterating over the
+ * reader, so they can become garbage right after use instead of being kept together in memory.
  *
  * @param <T> The type of object to create from each line in the CSV file.
  */
 
-public class LambdaReader<T> extends CSVReader {
+public class LambdaReader<T> extends CSVReader implements Iterable<T> {
+    // Files are only read in parallel when every part gets at least this many bytes
+    private static final long MINIMUM_CHUNK_SIZE = 1 << 20;
 
-    private final Creator<T, MyArrayList<String>> creator;
+    private final Creator<T, CSVRecord> creator;
+    private final String filename;
+    private final String delimiter;
+    private final boolean hasHeader;
+    // Set when all lines were read in parallel, by readers of their own
+    private boolean readInParallel;
 
 
     /**
      * Constructs a new reader.LambdaReader.
      *
      * @param filename The path to the CSV file.
-     * @param regex The delimiter used to separate columns in each line of the CSV file.
-     * @param creator An instance of `reader.Creator` interface used to create objects of type `T` from each line's columns.
+     * @param delimiter The delimiter used to separate columns in each line of the CSV file.
+     * @param creator An instance of `reader.Creator` interface used to create objects of type `T` from each line's record.
      * @param hasHeader Indicates if the CSV file has a header row. If true, skip the first line.
      * @throws IOException If an I/O error occurs while opening the file.
      */
 
 
-    public LambdaReader(String filename, String regex, Creator<T, MyArrayList<String>> creator, boolean hasHeader) throws IOException {
-        super(filename, regex, hasHeader);
+    public LambdaReader(String filename, String delimiter, Creator<T, CSVRecord> creator, boolean hasHeader) throws IOException {
+        super(filename, delimiter, hasHeader);
         this.creator = creator;
+        this.filename = filename;
+        this.delimiter = delimiter;
+        this.hasHeader = hasHeader;
+    }
+
+    /**
+     * Constructs a reader for one part of a file, for reading in parallel.
+     */
+
+    private LambdaReader(Reader reader, String delimiter, Creator<T, CSVRecord> creator, boolean hasHeader) {
+        super(reader, delimiter, hasHeader);
+        this.creator = creator;
+        this.filename = null;
+        this.delimiter = delimiter;
+        this.hasHeader = hasHeader;
+    }
+
+    /**
+     * Reads the next record, see {@link CSVReader#readLine()}. After reading in parallel no records are left.
+     *
+     * @return `true` if a record was successfully read; `false` if the end of the file has been reached.
+     */
+
+    @Override
+    public boolean readLine() {
+        return !readInParallel && super.readLine();
     }
 
     /**
@@ -48,15 +101,249 @@ public class LambdaReader<T> extends CSVReader {
         MyArrayList<T> result = new MyArrayList<>();
 
         while (readLine()) {
-            MyArrayList<String> columnsList = getColumns();
-            T temp = creator.create(columnsList);
+            T temp = creator.create(getRecord());
             result.addLast(temp);
         }
 
         return result;
     }
 
+    /**
+     * Returns an iterator over the remaining lines of the CSV file, which reads a line and converts it into an object
+     * of type `T` only when the next object is asked for. Iterating reads the file, so it can be done only once.
+     *
+     * @return An iterator over the objects of the remaining lines.
+     * @throws RuntimeException If an I/O error occurs while reading from the file.
+     */
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            // the object of the line read ahead by hasNext, if ready
+            private T next;
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready && readLine()) {
+                    next = creator.create(getRecord());
+                    ready = true;
+                }
+                return ready;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T result = next;
+                next = null;
+                ready = false;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream of the objects of the remaining lines, see {@link #iterator()}.
+     *
+     * @return A stream of the objects, in the order of the file.
+     */
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Reads all lines of the CSV file like {@link #readObjects()}, optionally in parallel. In parallel, the file is
+     * split at line breaks into one part per thread of the common ForkJoinPool, every part is read and converted by
+     * its own reader and the lists of the parts are joined in file order, so the result is the same as reading
+     * sequentially. The creator is then called from several threads at the same time, so it must not change
+     * shared state.
+     * <p>
+     * A part only starts at the right place if the line break before it does not belong to a quoted column. That is
+     * known once the part before it has been read: if that part ends inside quotes, the whole file is read again
+     * sequentially, and an exception of the creator for the misplaced part is ignored. Small files, and files on a
+     * single core, are always read sequentially.
+     * </p>
+     *
+     * @param parallel True to read the parts of the file in parallel.
+     * @return An objects' list of type `T`, each representing a line in the CSV file.
+     * @throws IllegalStateException If lines were read already.
+     * @throws RuntimeException If an I/O error occurs while reading from the file.
+     */
+
+    public MyArrayList<T> readObjects(boolean parallel) {
+        if (!atStart() || readInParallel) {
+            throw new IllegalStateException("Lines were read already");
+        }
+        if (!parallel || filename == null) {
+            return readObjects();
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            long[] bounds = findChunkBounds(channel, ForkJoinPool.getCommonPoolParallelism());
+            if (bounds.length <= 2) {
+                return readObjects();
+            }
+            int chunks = bounds.length - 1;
+            MyArrayList<MyArrayList<T>> results = new MyArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                results.addLast(null);
+            }
+            boolean[] endedInQuotes = new boolean[chunks];
+            RuntimeException[] failures = new RuntimeException[chunks];
+            ForkJoinPool.commonPool().invoke(new ChunkTask(channel, bounds, results, endedInQuotes, failures, 0, chunks));
+            int size = 0;
+            for (int i = 0; i < chunks; i++) {
+                if (i > 0 && endedInQuotes[i - 1]) {
+                    return readObjects(); // a line break inside a quoted column was taken as the end of a part
+                }
+                if (failures[i] != null) {
+                    throw failures[i]; // the part started at the right place, so reading sequentially fails as well
+                }
+                size += results.get(i).size();
+            }
+            readInParallel = true;
+            MyArrayList<T> result = new MyArrayList<>(Math.max(size, 1));
+            for (MyArrayList<T> chunk : results) {
+                for (T object : chunk) {
+                    result.addLast(object);
+                }
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading from the file", e);
+        }
+    }
+
+    /**
+     * Splits the file into at most the given number of parts of about the same size, each starting right after
+     * a line break (or at the start of the file) and at least {@value #MINIMUM_CHUNK_SIZE} bytes long.
+     * @return The positions where the parts start, followed by the size of the file.
+     */
+
+    private static long[] findChunkBounds(FileChannel channel, int chunks) throws IOException {
+        long fileSize = channel.size();
+        chunks = (int) Math.max(1, Math.min(chunks, fileSize / MINIMUM_CHUNK_SIZE));
+        MyArrayList<Long> bounds = new MyArrayList<>(chunks + 1);
+        bounds.addLast(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(fileSize / chunks * i, bounds.get(bounds.size() - 1));
+            long lineStart = -1;
+            while (lineStart < 0 && position < fileSize) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int j = 0; j < read; j++) {
+                    if (buffer.get(j) == '\n') {
+                        lineStart = position + j + 1;
+                        break;
+                    }
+                }
+                position += read;
+            }
+            if (lineStart < 0 || lineStart >= fileSize) {
+                break;
+            }
+            if (lineStart > bounds.get(bounds.size() - 1)) {
+                bounds.addLast(lineStart);
+            }
+        }
+        bounds.addLast(fileSize);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the parts lo..hi (exclusive) of the file, by splitting the range in halves until a single part is left.
+     */
+
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final MyArrayList<MyArrayList<T>> results;
+        private final boolean[] endedInQuotes;
+        private final RuntimeException[] failures;
+        private final int lo;
+        private final int hi;
+
+        ChunkTask(FileChannel channel, long[] bounds, MyArrayList<MyArrayList<T>> results, boolean[] endedInQuotes,
+                  RuntimeException[] failures, int lo, int hi) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.endedInQuotes = endedInQuotes;
+            this.failures = failures;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int middle = (lo + hi) >>> 1;
+                invokeAll(new ChunkTask(channel, bounds, results, endedInQuotes, failures, lo, middle),
+                        new ChunkTask(channel, bounds, results, endedInQuotes, failures, middle, hi));
+                return;
+            }
+            // a part starts after a line break, so never inside a UTF-8 character; only the first part has the header
+            Reader reader = new InputStreamReader(new FileRangeInputStream(channel, bounds[lo], bounds[lo + 1]),
+                    StandardCharsets.UTF_8);
+            LambdaReader<T> chunkReader = new LambdaReader<>(reader, delimiter, creator, hasHeader && lo == 0);
+            try {
+                results.set(lo, chunkReader.readObjects());
+                endedInQuotes[lo] = chunkReader.endedInQuotes();
+            } catch (RuntimeException e) {
+                // the creator may fail on a part that starts inside a quoted column; that is only known afterwards
+                failures[lo] = e;
+            }
+        }
+    }
+
+    /**
+     * The bytes of a range of a file. Reads at a position of the channel, so the channel can be shared by the parts.
+     */
+
+    private static class FileRangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        FileRangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+
     public void close() {
         super.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,279 @@
+package utils.reader;
+
+import custom_data_structures.MyArrayList;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+
+/**
+ * A CSV file reader for (very) large UTF-8 files, which maps the file into memory instead of reading it through
+ * a Reader. The bytes of every record are scanned once, straight from the mapped memory, into a reusable
+ * {@link CSVRecord}: ASCII bytes are taken as they are and only multi-byte characters (like the umlaut in "Z&uuml;rich")
+ * are decoded. No line, no string per column and no copy of the file in the heap is made, so the file is only
+ * copied from the page cache into the record. Quoting works as in {@link CSVReader}.
+ * <p>
+ * A mapped buffer can hold at most 2 GB, so the file is mapped in windows of {@value #WINDOW_SIZE} bytes, one at
+ * a time; records and characters may continue in the next window. A window is unmapped by the garbage collector
+ * once it is no longer used.
+ * </p>
+ *
+ * @param <T> The type of object to create from each record in the CSV file.
+ */
+
+public class MappedCSVReader<T> {
+    private static final int WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final byte delimiter;
+    private final Creator<T, CSVRecord> creator;
+    private final CSVRecord record = new CSVRecord();
+    private MappedByteBuffer window;
+    // Position in the file of the first byte of the window
+    private long windowStart;
+    private int position;
+    private int limit;
+
+    /**
+     * Constructs a new reader.MappedCSVReader.
+     *
+     * @param filename The path to the CSV file.
+     * @param delimiter The (ASCII) character that separates the columns, like ",".
+     * @param creator An instance of `reader.Creator` interface used to create objects of type `T` from each record.
+     * @param hasHeader Indicates if the CSV file has a header row. If true, skip the first line.
+     * @throws IOException If an I/O error occurs while opening the file.
+     * @throws IllegalArgumentException If the delimiter is not a single ASCII character, or is a quote or line break.
+     */
+
+    public MappedCSVReader(String filename, String delimiter, Creator<T, CSVRecord> creator, boolean hasHeader) throws IOException {
+        if (delimiter.length() != 1 || delimiter.charAt(0) >= 0x80 || "\"\r\n".indexOf(delimiter.charAt(0)) >= 0) {
+            throw new IllegalArgumentException("Unsupported delimiter: " + delimiter);
+        }
+        this.delimiter = (byte) delimiter.charAt(0);
+        this.creator = creator;
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        this.fileSize = channel.size();
+
+        if (hasHeader) {
+            readLine();
+        }
+    }
+
+    /**
+     * Maps the part of the file after the current window.
+     * @return False if the end of the file has been reached.
+     */
+
+    private boolean nextWindow() throws IOException {
+        long start = windowStart + limit;
+        if (start >= fileSize) {
+            return false;
+        }
+        int size = (int) Math.min(WINDOW_SIZE, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        position = 0;
+        limit = size;
+        return true;
+    }
+
+    /**
+     * Reads the next record from the CSV file into the record returned by `getRecord`. Empty lines are skipped.
+     *
+     * @return `true` if a record was successfully read; `false` if the end of the file has been reached.
+     * @throws RuntimeException If an I/O error occurs while reading from the file.
+     */
+
+    public boolean readLine() {
+        try {
+            while (readRecord()) {
+                if (record.size() > 1 || !record.isEmpty(0)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading from the file", e);
+        }
+    }
+
+    private boolean readRecord() throws IOException {
+        record.clear();
+        boolean quoted = false;
+        boolean quoteInQuoted = false; // a quote was seen in a quoted column: the end of the column, or an escaped quote
+        boolean empty = true;
+        while (true) {
+            if (position == limit && !nextWindow()) {
+                if (empty) {
+                    return false;
+                }
+                record.endColumn(); // a last line without line break, or an unterminated quote
+                return true;
+            }
+            empty = false;
+
+            if (quoted) {
+                while (position < limit) {
+                    int start = position;
+                    byte b = 0;
+                    while (position < limit && (b = window.get(position)) >= 0 && b != '"') {
+                        position++;
+                    }
+                    record.appendAscii(window, start, position - start);
+                    if (position == limit || b == '"') {
+                        break;
+                    }
+                    appendMultiByteCharacter();
+                }
+                if (position < limit) {
+                    position++;
+                    quoted = false;
+                    quoteInQuoted = true;
+                }
+                continue;
+            }
+            if (quoteInQuoted) {
+                quoteInQuoted = false;
+                if (window.get(position) == '"') {
+                    record.append('"');
+                    position++;
+                    quoted = true;
+                    continue;
+                }
+            }
+
+            // copy runs of ordinary ASCII characters at once
+            byte b = 0;
+            while (position < limit) {
+                int start = position;
+                while (position < limit && (b = window.get(position)) >= 0
+                        && b != delimiter && b != '\n' && b != '\r' && b != '"') {
+                    position++;
+                }
+                record.appendAscii(window, start, position - start);
+                if (position == limit || b >= 0) {
+                    break;
+                }
+                appendMultiByteCharacter();
+            }
+            if (position == limit) {
+                continue;
+            }
+            position++;
+            if (b == delimiter) {
+                record.endColumn();
+            } else if (b == '\n') {
+                record.endColumn();
+                return true;
+            } else if (b == '"') {
+                if (record.atColumnStart()) {
+                    quoted = true;
+                } else {
+                    record.append('"'); // a quote inside an unquoted column is taken as it is
+                }
+            }
+            // a carriage return is skipped
+        }
+    }
+
+    /**
+     * Decodes the UTF-8 character that starts at the current position, which may continue in the next window,
+     * and adds it to the record. An invalid sequence is added as the replacement character.
+     */
+
+    private void appendMultiByteCharacter() throws IOException {
+        int lead = nextByte();
+        int continuations;
+        int codePoint;
+        if (lead >= 0xF0 && lead <= 0xF4) {
+            continuations = 3;
+            codePoint = lead & 0x07;
+        } else if (lead >= 0xE0) {
+            continuations = lead <= 0xEF ? 2 : -1;
+            codePoint = lead & 0x0F;
+        } else if (lead >= 0xC2) {
+            continuations = 1;
+            codePoint = lead & 0x1F;
+        } else {
+            continuations = -1;
+            codePoint = 0;
+        }
+        for (int i = 0; i < continuations; i++) {
+            if ((position == limit && !nextWindow()) || (window.get(position) & 0xC0) != 0x80) {
+                continuations = -1; // the next byte is not a continuation byte; it starts the next character
+                break;
+            }
+            codePoint = (codePoint << 6) | (nextByte() & 0x3F);
+        }
+        if (continuations < 0 || !Character.isValidCodePoint(codePoint)
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            record.append('\uFFFD');
+        } else if (Character.isBmpCodePoint(codePoint)) {
+            record.append((char) codePoint);
+        } else {
+            record.append(Character.highSurrogate(codePoint));
+            record.append(Character.lowSurrogate(codePoint));
+        }
+    }
+
+    private int nextByte() throws IOException {
+        if (position == limit && !nextWindow()) {
+            return -1;
+        }
+        return window.get(position++) & 0xFF;
+    }
+
+    /**
+     * Returns the current record. It is filled again by the next call of `readLine`.
+     *
+     * @return The record read by the last call of `readLine`.
+     */
+
+    public CSVRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Reads the remaining records, converts each into an object of type `T` using the creator and collects them.
+     *
+     * @return An objects' list of type `T`, each representing a record in the CSV file.
+     */
+
+    public MyArrayList<T> readObjects() {
+        MyArrayList<T> result = new MyArrayList<>();
+        forEachObject(result::addLast);
+        return result;
+    }
+
+    /**
+     * Reads the remaining records, converts each into an object of type `T` using the creator and hands it to
+     * the action, without collecting the objects; meant for files with more records than fit in memory.
+     *
+     * @param action The action to perform on each object.
+     */
+
+    public void forEachObject(Consumer<? super T> action) {
+        while (readLine()) {
+            action.accept(creator.create(record));
+        }
+    }
+
+    /**
+     * Closes the file. The windows stay mapped until they are garbage collected.
+     *
+     * @throws RuntimeException If an I/O error occurs while closing the file.
+     */
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Error closing the reader", e);
+        }
+    }
+}
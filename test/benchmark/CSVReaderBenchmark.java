@@ -0,0 +1,126 @@
+package benchmark;
+
+import utils.reader.CSVReader;
+import utils.reader.CSVRecord;
+import utils.reader.Creator;
+import utils.reader.LambdaReader;
+import utils.reader.MappedCSVReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Compares the CSV readers on a synthetic station-like file of 1 GB (UTF-8, with names like "Z&uuml;rich"):
+ * CSVReader on its own, LambdaReader and MappedCSVReader. Every reader makes a string of the name and a double of the
+ * latitude per record; the readers with a creator hand the objects on one at a time instead of collecting them
+ * (collecting millions of objects in a MyArrayList would mostly measure the list). The parallel mode of
+ * LambdaReader.readObjects is not timed, as it always collects. Not a unit test: run it by hand with
+ * {@code java benchmark.CSVReaderBenchmark}. The size of the file in MB can be given as the first argument; the file
+ * is written to the temporary directory and removed afterwards.
+ */
+public class CSVReaderBenchmark {
+    private static final long DEFAULT_SIZE_MB = 1024;
+    private static final int ROUNDS = 3;
+    private static final String[] PLACES =
+            {"Amsterdam", "Z\u00fcrich", "K\u00f6ln", "Li\u00e8ge", "Utrecht", "Gen\u00e8ve", "Dortmund"};
+    private static final String[] COUNTRIES = {"NL", "D", "B", "F", "CH"};
+    private static final String[] TYPES = {"stoptreinstation", "intercitystation", "knooppuntstation", "megastation"};
+    private static final Creator<Integer, CSVRecord> CREATOR = CSVReaderBenchmark::hash;
+
+    public static void main(String[] args) throws IOException {
+        long size = (args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_SIZE_MB) << 20;
+        Path file = Files.createTempFile("stations", ".csv");
+        try {
+            long records = write(file, size, new Random(42));
+            System.out.printf("%,d bytes, %,d records%n", Files.size(file), records);
+            // the first round warms up the JIT and the page cache, the best of the rest is reported
+            long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+            int[] checksums = new int[best.length];
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int reader = 0; reader < best.length; reader++) {
+                    long time = time(file, reader, records, checksums);
+                    if (round > 0) best[reader] = Math.min(best[reader], time);
+                }
+            }
+            if (checksums[1] != checksums[0] || checksums[2] != checksums[0]) {
+                throw new IllegalStateException("The readers read different values");
+            }
+            System.out.printf("CSVReader        %6.2f s%n", best[0] / 1e9);
+            System.out.printf("LambdaReader     %6.2f s%n", best[1] / 1e9);
+            System.out.printf("MappedCSVReader  %6.2f s, %.2fx faster than LambdaReader%n",
+                    best[2] / 1e9, (double) best[1] / best[2]);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static int hash(CSVRecord record) {
+        return record.getString(1).hashCode() ^ Double.hashCode(record.getDouble(4));
+    }
+
+    /**
+     * Writes records with a header until the file has the given size, and returns the number of records.
+     */
+    private static long write(Path file, long size, Random random) throws IOException {
+        long records = 0;
+        long bytes = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("code,name,country,type,latitude,longitude\n");
+            while (bytes < size) {
+                String line = "S" + records + "," + PLACES[random.nextInt(PLACES.length)] + " " + random.nextInt(10_000)
+                        + "," + COUNTRIES[random.nextInt(COUNTRIES.length)] + "," + TYPES[random.nextInt(TYPES.length)]
+                        + "," + (45 + random.nextDouble() * 10) + "," + (2 + random.nextDouble() * 10) + "\n";
+                writer.write(line);
+                bytes += line.getBytes(StandardCharsets.UTF_8).length;
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the file with one of the readers (0 CSVReader, 1 LambdaReader, 2 MappedCSVReader), stores a checksum of
+     * the values it read, which also keeps the work from being optimized away, and returns the time in nanoseconds.
+     */
+    private static long time(Path file, int reader, long records, int[] checksums) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        int checksum = 0;
+        if (reader == 0) {
+            CSVReader csvReader = new CSVReader(file.toString(), ",", true);
+            while (csvReader.readLine()) {
+                checksum ^= hash(csvReader.getRecord());
+                count++;
+            }
+            csvReader.close();
+        } else if (reader == 1) {
+            LambdaReader<Integer> lambdaReader = new LambdaReader<>(file.toString(), ",", CREATOR, true);
+            for (int hash : lambdaReader) {
+                checksum ^= hash;
+                count++;
+            }
+            lambdaReader.close();
+        } else {
+            MappedCSVReader<Integer> mappedReader = new MappedCSVReader<>(file.toString(), ",", CREATOR, true);
+            int[] result = new int[1];
+            long[] mappedCount = new long[1];
+            mappedReader.forEachObject(hash -> {
+                result[0] ^= hash;
+                mappedCount[0]++;
+            });
+            mappedReader.close();
+            checksum = result[0];
+            count = mappedCount[0];
+        }
+        long time = System.nanoTime() - start;
+        if (count != records) {
+            throw new IllegalStateException(count + " records instead of " + records);
+        }
+        checksums[reader] = checksum;
+        return time;
+    }
+}
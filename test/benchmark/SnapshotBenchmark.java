@@ -0,0 +1,86 @@
+package benchmark;
+
+import app.NetworkSnapshot;
+import app.model.Station;
+import collection.SaxGraph;
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyGraph;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the route query throughput of a NetworkSnapshot with 1, 2, 4, ... threads up to the number of cores,
+ * on a grid of stations about 1 km apart. Not a unit test: run it by hand with {@code java benchmark.SnapshotBenchmark}.
+ */
+public class SnapshotBenchmark {
+    private static final int GRID_SIZE = 150;
+    private static final int QUERIES = 2000;
+
+    public static void main(String[] args) throws Exception {
+        MyGraph<String> graph = new MyGraph<>();
+        MyArrayList<Station> stations = new MyArrayList<>();
+        var random = new Random(42);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int column = 0; column < GRID_SIZE; column++) {
+                stations.addLast(new Station(row + "-" + column, "Station " + row + "-" + column, "NL",
+                        "stoptreinstation", 52 + row * 0.009, 5 + column * 0.015));
+                if (row > 0) {
+                    graph.addEdgeBidirectional((row - 1) + "-" + column, row + "-" + column, 1 + random.nextInt(0, 20) / 10.0);
+                }
+                if (column > 0) {
+                    graph.addEdgeBidirectional(row + "-" + (column - 1), row + "-" + column, 1.1 + random.nextInt(0, 20) / 10.0);
+                }
+            }
+        }
+        NetworkSnapshot snapshot = new NetworkSnapshot(graph, stations);
+        String[] from = new String[QUERIES];
+        String[] to = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(GRID_SIZE) + "-" + random.nextInt(GRID_SIZE);
+            to[i] = random.nextInt(GRID_SIZE) + "-" + random.nextInt(GRID_SIZE);
+        }
+        run(snapshot, from, to, 1); // warm up
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d stations, %d edges, %d cores%n", snapshot.size(), snapshot.getNumberOfEdges(), cores);
+        double single = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            double queriesPerSecond = run(snapshot, from, to, threads);
+            if (threads == 1) {
+                single = queriesPerSecond;
+            }
+            System.out.printf("%3d threads: %8.0f queries/s, %.2fx%n", threads, queriesPerSecond, queriesPerSecond / single);
+        }
+    }
+
+    /**
+     * Lets every thread run all queries, alternating Dijkstra and A*, and returns the number of queries per second.
+     */
+    private static double run(NetworkSnapshot snapshot, String[] from, String[] to, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            MyArrayList<Future<Double>> results = new MyArrayList<>();
+            long start = System.nanoTime();
+            for (int thread = 0; thread < threads; thread++) {
+                results.addLast(executor.submit(() -> {
+                    double total = 0;
+                    for (int i = 0; i < from.length; i++) {
+                        MyArrayList<SaxGraph.DirectedEdge<String>> path = i % 2 == 0
+                                ? snapshot.shortestPath(from[i], to[i]) : snapshot.shortestPathAStar(from[i], to[i]);
+                        total += path.isEmpty() ? 0 : path.get(path.size() - 1).weight();
+                    }
+                    return total;
+                }));
+            }
+            for (Future<Double> result : results) {
+                result.get();
+            }
+            return threads * from.length / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
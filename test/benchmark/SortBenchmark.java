@@ -0,0 +1,65 @@
+package benchmark;
+
+import custom_data_structures.MyArrayList;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares MyArrayList.parallelSort with the sequential quickSort on lists of 100k, 1M and 10M station-like names.
+ * Not a unit test: run it by hand, with enough heap for the largest list, e.g.
+ * {@code java -Xmx4g benchmark.SortBenchmark}. The parallelism of the common pool can be set with
+ * {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism=n}; with a parallelism of 1 parallelSort
+ * falls back to quickSort.
+ */
+public class SortBenchmark {
+    private static final int[] SIZES = {100_000, 1_000_000, 10_000_000};
+    private static final Comparator<String> BY_NAME = Comparator.naturalOrder();
+
+    public static void main(String[] args) {
+        System.out.printf("cores: %d, common pool parallelism: %d%n",
+                Runtime.getRuntime().availableProcessors(), ForkJoinPool.getCommonPoolParallelism());
+        for (int size : SIZES) {
+            String[] names = names(size, new Random(size));
+            int rounds = size >= 10_000_000 ? 3 : 7;
+            // the first rounds warm up the JIT, the best of the rest is reported
+            long quick = Long.MAX_VALUE;
+            long parallel = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                long time = time(names, false);
+                if (round > 0) quick = Math.min(quick, time);
+                time = time(names, true);
+                if (round > 0) parallel = Math.min(parallel, time);
+            }
+            System.out.printf("%,11d elements: quickSort %7.1f ms, parallelSort %7.1f ms, speed-up %.2fx%n",
+                    size, quick / 1e6, parallel / 1e6, (double) quick / parallel);
+        }
+    }
+
+    private static String[] names(int size, Random random) {
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "Station " + (char) ('A' + random.nextInt(26)) + random.nextInt(size);
+        }
+        return names;
+    }
+
+    private static long time(String[] names, boolean parallel) {
+        MyArrayList<String> list = new MyArrayList<>(names.length);
+        for (String name : names) {
+            list.addLast(name);
+        }
+        long start = System.nanoTime();
+        if (parallel) {
+            list.parallelSort(BY_NAME);
+        } else {
+            list.quickSort(BY_NAME);
+        }
+        long time = System.nanoTime() - start;
+        if (!list.isSorted(BY_NAME)) {
+            throw new IllegalStateException("List is not sorted");
+        }
+        return time;
+    }
+}
@@ -0,0 +1,175 @@
+package collection;
+
+import custom_data_structures.MyArrayList;
+import org.junit.jupiter.api.Test;
+import utils.reader.CSVReader;
+import utils.reader.CSVRecord;
+import utils.reader.LambdaReader;
+import utils.reader.MappedCSVReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCSVReader {
+
+    private static Path writeFile(String content) throws IOException {
+        Path file = Files.createTempFile("test", ".csv");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void GivenQuotedColumns_WhenReadingRecords_ThenDelimitersLineBreaksAndQuotesInsideQuotesAreKept() throws IOException {
+        Path file = writeFile("code,name\r\nZ,\"Z\u00fcrich, HB\"\r\n\nA,\"Say \"\"hi\"\"\nthere\",\"\"\nB,un\"quoted,\n");
+        CSVReader reader = new CSVReader(file.toString(), ",", true);
+
+        assertTrue(reader.readLine());
+        assertEquals(2, reader.getRecord().size());
+        assertEquals("Z\u00fcrich, HB", reader.getRecord().getString(1));
+
+        assertTrue(reader.readLine()); // the empty line is skipped
+        CSVRecord record = reader.getRecord();
+        assertEquals(3, record.size());
+        assertEquals("Say \"hi\"\nthere", record.getString(1));
+        assertTrue(record.isEmpty(2));
+
+        assertTrue(reader.readLine());
+        MyArrayList<String> columns = reader.getColumns();
+        assertEquals(3, columns.size());
+        assertEquals("un\"quoted", columns.get(1));
+        assertEquals("", columns.get(2));
+
+        assertFalse(reader.readLine());
+        reader.close();
+    }
+
+    @Test
+    public void GivenNumericColumns_WhenUsingTheTypedGetters_ThenTheValuesMatchTheJavaParsers() throws IOException {
+        Path file = writeFile("1,-42,2147483647,-2147483648,52.653610229492,-0.5,1e3,7.\n2,x,2147483648,,.,NaN,12345678901234567890.5,3");
+        CSVReader reader = new CSVReader(file.toString(), ",", false);
+
+        assertTrue(reader.readLine());
+        CSVRecord record = reader.getRecord();
+        assertEquals(-42, record.getInt(1));
+        assertEquals(Integer.MAX_VALUE, record.getInt(2));
+        assertEquals(Integer.MIN_VALUE, record.getInt(3));
+        assertEquals(52.653610229492, record.getDouble(4));
+        assertEquals(-0.5, record.getDouble(5));
+        assertEquals(1000, record.getDouble(6));
+        assertEquals(7, record.getDouble(7));
+
+        assertTrue(reader.readLine()); // a last line without line break
+        assertThrows(NumberFormatException.class, () -> record.getInt(1));
+        assertThrows(NumberFormatException.class, () -> record.getInt(2));
+        assertThrows(NumberFormatException.class, () -> record.getInt(3));
+        assertThrows(NumberFormatException.class, () -> record.getDouble(4));
+        assertTrue(Double.isNaN(record.getDouble(5)));
+        assertEquals(12345678901234567890.5, record.getDouble(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> record.getString(8));
+        reader.close();
+    }
+
+    @Test
+    public void GivenRandomDecimals_WhenParsingThemFromTheRecord_ThenEveryValueIsTheSameAsDoubleParseDouble() throws IOException {
+        var random = new Random(3);
+        StringBuilder content = new StringBuilder();
+        String[] values = new String[5000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (i % 3) {
+                case 0 -> Double.toString(random.nextDouble() * 180 - 90);
+                case 1 -> String.format(Locale.ROOT, "%.1f", random.nextDouble() * 500);
+                default -> random.nextInt(1_000_000) + "." + random.nextInt(1_000_000_000);
+            };
+            content.append(i).append(',').append(values[i]).append('\n');
+        }
+        LambdaReader<Double> reader = new LambdaReader<>(writeFile(content.toString()).toString(), ",",
+                record -> record.getDouble(1), false);
+        MyArrayList<Double> parsed = reader.readObjects();
+        reader.close();
+
+        assertEquals(values.length, parsed.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.parseDouble(values[i]), parsed.get(i), values[i]);
+        }
+    }
+
+    @Test
+    public void GivenUtf8File_WhenReadWithTheMappedReader_ThenTheRecordsAreTheSameAsWithTheCSVReader() throws IOException {
+        Path file = writeFile("code,name,latitude\nZH,Z\u00fcrich HB,47.378\nRK,\"Rocket \ud83d\ude80, \"\"fast\"\"\",0.5\r\n\nLG,Li\u00e8ge,50.6");
+        CSVReader reader = new CSVReader(file.toString(), ",", true);
+        MyArrayList<String> expected = new MyArrayList<>();
+        while (reader.readLine()) {
+            expected.addLast(reader.getRecord().getString(0) + "|" + reader.getRecord().getString(1) + "|" + reader.getRecord().getDouble(2));
+        }
+        reader.close();
+
+        MappedCSVReader<String> mappedReader = new MappedCSVReader<>(file.toString(), ",",
+                record -> record.getString(0) + "|" + record.getString(1) + "|" + record.getDouble(2), true);
+        MyArrayList<String> records = mappedReader.readObjects();
+        mappedReader.close();
+
+        assertEquals(3, records.size());
+        assertEquals("ZH|Z\u00fcrich HB|47.378", records.get(0));
+        assertEquals("RK|Rocket \ud83d\ude80, \"fast\"|0.5", records.get(1));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), records.get(i));
+        }
+    }
+
+    @Test
+    public void GivenReader_WhenIteratingOrStreaming_ThenEachLineIsReadWhenItsObjectIsAskedFor() throws IOException {
+        String filename = writeFile("from,to,distance\nUT,AMS,35.6\n\nAMS,UT,35.6\nUT,ASD,38\n").toString();
+        LambdaReader<String> reader = new LambdaReader<>(filename, ",", record -> record.getString(0) + "-" + record.getString(1), true);
+        Iterator<String> iterator = reader.iterator();
+        assertTrue(iterator.hasNext());
+        assertTrue(iterator.hasNext()); // does not read another line
+        assertEquals("UT-AMS", iterator.next());
+        assertEquals("AMS-UT", iterator.next());
+        assertTrue(reader.readLine()); // the reader and the iterator share the position in the file
+        assertEquals("UT", reader.getRecord().getString(0));
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        reader.close();
+
+        LambdaReader<Double> distanceReader = new LambdaReader<>(filename, ",", record -> record.getDouble(2), true);
+        assertEquals(109.2, distanceReader.stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+        distanceReader.close();
+    }
+
+    @Test
+    public void GivenLargeFile_WhenReadingInParallel_ThenTheObjectsAreTheSameAndInTheSameOrder() throws IOException {
+        StringBuilder plain = new StringBuilder("code,name\n");
+        StringBuilder quoted = new StringBuilder("code,name\n");
+        for (int i = 0; i < 100_000; i++) {
+            plain.append(i).append(",Station Z\u00fcrich ").append(i).append('\n');
+            // long columns with line breaks, so parts of the file are likely to start inside quotes
+            quoted.append(i).append(i % 10 == 0 ? ",\"" + "Line\n".repeat(20) + "end\"\n" : ",plain\n");
+        }
+        for (String content : new String[]{plain.toString(), quoted.toString()}) {
+            String filename = writeFile(content).toString();
+            LambdaReader<String> reader = new LambdaReader<>(filename, ",", record -> record.getInt(0) + "|" + record.getString(1), true);
+            MyArrayList<String> expected = reader.readObjects();
+            reader.close();
+
+            LambdaReader<String> parallelReader = new LambdaReader<>(filename, ",", record -> record.getInt(0) + "|" + record.getString(1), true);
+            MyArrayList<String> parallel = parallelReader.readObjects(true);
+            assertFalse(parallelReader.readLine());
+            assertThrows(IllegalStateException.class, () -> parallelReader.readObjects(true));
+            parallelReader.close();
+
+            assertEquals(100_000, parallel.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), parallel.get(i));
+            }
+        }
+    }
+}
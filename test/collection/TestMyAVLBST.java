@@ -5,6 +5,8 @@ import custom_data_structures.MyArrayList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestMyAVLBST {
@@ -164,11 +166,113 @@ public class TestMyAVLBST {
         assertEquals("Key \"" + 30 + "\" is not found.", exception.getMessage());
     }
 
+    private void buildFromSorted(int count) {
+        MyArrayList<Integer> keys = new MyArrayList<>();
+        MyArrayList<String> values = new MyArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            keys.addLast(i * 10);
+            values.addLast("Value " + i * 10);
+        }
+        avlTree.buildFromSorted(keys, values);
+    }
 
+    @Test
+    public void GivenSortedKeys_WhenBuildFromSorted_TheTreeIsPerfectlyBalanced() {
+        buildFromSorted(7);
+        assertEquals(7, avlTree.size());
+        assertEquals(0, avlTree.getBalance(avlTree.getRoot()));
+        assertEquals("Value 10", avlTree.get(10));
+        assertEquals("Value 70", avlTree.get(70));
+        assertFalse(avlTree.contains(45));
+    }
 
+    @Test
+    public void GivenBuiltTree_WhenAddingAndRemovingKeys_TheTreeStaysOrderedAndBalanced() {
+        buildFromSorted(1000);
+        for (int i = 0; i < 1000; i++) {
+            avlTree.add(i * 10 + 5, "Value " + (i * 10 + 5));
+        }
+        for (int i = 1; i <= 1000; i += 2) {
+            avlTree.remove(i * 10);
+        }
+        assertEquals(1500, avlTree.size());
+        MyArrayList<Integer> keys = avlTree.getKeys();
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1) < keys.get(i));
+        }
+        assertTrue(Math.abs(avlTree.getBalance(avlTree.getRoot())) <= 1);
+    }
 
+    @Test
+    public void GivenUnsortedOrDuplicateKeys_WhenBuildFromSorted_TheExceptionIsThrown() {
+        MyArrayList<Integer> keys = new MyArrayList<>();
+        MyArrayList<String> values = new MyArrayList<>();
+        for (int key : new int[]{10, 30, 20}) {
+            keys.addLast(key);
+            values.addLast("Value " + key);
+        }
+        assertThrows(IllegalArgumentException.class, () -> avlTree.buildFromSorted(keys, values));
+        keys.set(2, 30);
+        assertThrows(DuplicateKeyException.class, () -> avlTree.buildFromSorted(keys, values));
+        values.removeLast();
+        assertThrows(IllegalArgumentException.class, () -> avlTree.buildFromSorted(keys, values));
+        assertTrue(avlTree.isEmpty());
+    }
 
-}
-
+    @Test
+    public void GivenTree_WhenUsingRankAndSelect_TheIndexInKeyOrderIsUsed() {
+        buildFromSorted(7);
+        avlTree.add(35, "Value 35");
+        assertEquals(0, avlTree.rank(10));
+        assertEquals(3, avlTree.rank(35));
+        assertEquals(3, avlTree.rank(33)); // not part of the tree
+        assertEquals(8, avlTree.rank(100));
+        assertEquals(10, avlTree.select(0));
+        assertEquals(35, avlTree.select(3));
+        assertEquals(70, avlTree.select(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> avlTree.select(8));
+        assertThrows(IndexOutOfBoundsException.class, () -> avlTree.select(-1));
+    }
 
+    @Test
+    public void GivenTree_WhenQueryingARange_TheKeysBetweenTheBoundsAreUsed() {
+        buildFromSorted(7);
+        assertEquals(3, avlTree.countInRange(20, 40));
+        assertEquals(3, avlTree.countInRange(15, 45));
+        assertEquals(0, avlTree.countInRange(41, 49));
+        assertEquals(0, avlTree.countInRange(40, 20));
+        assertEquals("[ Value 20 Value 30 Value 40 ]", avlTree.range(15, 45, 10).toString());
+        assertEquals("[ Value 20 Value 30 ]", avlTree.range(15, 45, 2).toString());
+        assertTrue(avlTree.range(41, 49, 10).isEmpty());
+    }
 
+    @Test
+    public void GivenRandomInsertsAndRemoves_WhenUsingOrderStatistics_TheResultsMatchTheSortedKeys() {
+        var random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(0, 1000);
+            if (avlTree.contains(key)) {
+                avlTree.remove(key);
+            } else {
+                avlTree.add(key, "Value " + key);
+            }
+        }
+        MyArrayList<Integer> keys = avlTree.getKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), avlTree.select(i));
+            assertEquals(i, avlTree.rank(keys.get(i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            int lo = random.nextInt(0, 1000);
+            int hi = lo + random.nextInt(0, 200);
+            int expected = 0;
+            for (int key : keys) {
+                if (key >= lo && key <= hi) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, avlTree.countInRange(lo, hi));
+            assertEquals(Math.min(expected, 10), avlTree.range(lo, hi, 10).size());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import custom_data_structures.MyArrayList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Method;
+import java.util.Comparator;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -164,6 +166,96 @@ public class TestMyArrayList {
         }
     }
 
+    @Test
+    void GivenSortedReversedAndEqualLists_WhenQuicksorted_ThenListsAreSortedWithoutDegrading() {
+        int numberOfElements = 200_000; // quadratic behaviour or deep recursion would not finish / overflow the stack
+        MyArrayList<Integer> sorted = new MyArrayList<>();
+        MyArrayList<Integer> reversed = new MyArrayList<>();
+        MyArrayList<Integer> equal = new MyArrayList<>();
+        for (int i = 0; i < numberOfElements; ++i) {
+            sorted.addLast(i);
+            reversed.addLast(numberOfElements - i);
+            equal.addLast(7);
+        }
+        sorted.quickSort(Integer::compareTo);
+        reversed.quickSort(Integer::compareTo);
+        equal.quickSort(Integer::compareTo);
+        assertTrue(sorted.isSorted(Integer::compareTo));
+        assertTrue(reversed.isSorted(Integer::compareTo));
+        assertTrue(equal.isSorted(Integer::compareTo));
+        assertEquals(1, reversed.get(0));
+        assertEquals(numberOfElements, reversed.get(numberOfElements - 1));
+    }
+
+    @Test
+    void GivenLargeListWithIntegers_WhenParallelSorted_ThenListIsSortedAndContainsTheSameElements() {
+        int numberOfElements = 300_000; // big enough to be split over several threads
+        var random = new Random(11);
+        MyArrayList<Integer> list = new MyArrayList<>();
+        int[] counts = new int[1000];
+        for (int i = 0; i < numberOfElements; ++i) {
+            int value = random.nextInt(0, 1000);
+            list.addLast(value);
+            counts[value]++;
+        }
+        list.parallelSort(Integer::compareTo);
+        assertEquals(numberOfElements, list.size());
+        assertTrue(list.isSorted(Integer::compareTo));
+        for (int value : list) {
+            counts[value]--;
+        }
+        for (int count : counts) {
+            assertEquals(0, count);
+        }
+
+        // Small lists are sorted sequentially
+        MyArrayList<Integer> small = createIntegerArrayList();
+        small.parallelSort(Integer::compareTo);
+        assertEquals("[ 1 2 4 5 6 7 8 9 10 11 12 14 15 ]", small.toString());
+    }
+
+    @Test
+    void GivenListWithEqualKeys_WhenMergeSorted_ThenEqualElementsKeepTheirOrder() {
+        MyArrayList<String> words = new MyArrayList<>();
+        for (String word : new String[]{"pear", "fig", "apple", "kiwi", "plum", "lime", "date", "banana", "cherry"}) {
+            words.addLast(word);
+        }
+        words.mergeSort(Comparator.comparingInt(String::length));
+        assertEquals("[ fig pear kiwi plum lime date apple banana cherry ]", words.toString());
+
+        // Sort on two keys in one pass
+        words.mergeSort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        assertEquals("[ fig date kiwi lime pear plum apple banana cherry ]", words.toString());
+    }
+
+    @Test
+    void GivenLargePartiallySortedList_WhenMergeSorted_ThenListIsSorted() {
+        var random = new Random(3);
+        MyArrayList<Integer> list = new MyArrayList<>();
+        for (int i = 0; i < BIG_NUMBER_OF_ELEMENTS * 20; ++i) {
+            // ascending and descending stretches with some noise
+            int value = (i / 1000) % 2 == 0 ? i : -i;
+            list.addLast(random.nextInt(50) == 0 ? random.nextInt() : value);
+        }
+        list.mergeSort(Integer::compareTo);
+        assertTrue(list.isSorted(Integer::compareTo));
+        assertEquals(BIG_NUMBER_OF_ELEMENTS * 20, list.size());
+
+        MyArrayList<Integer> list3 = createIntegerArrayList();
+        list3.mergeSort(Integer::compareTo);
+        assertEquals("[ 1 2 4 5 6 7 8 9 10 11 12 14 15 ]", list3.toString());
+    }
+
+    @Test
+    void GivenListWithIntegers_WhenHeapSortFallbackIsUsed_ThenRangeIsSorted() throws Exception {
+        MyArrayList<Integer> list3 = createIntegerArrayList();
+        Method heapSort = MyArrayList.class.getDeclaredMethod("heapSort", Comparator.class, int.class, int.class);
+        heapSort.setAccessible(true);
+        // Sort only the range 2..10, the elements outside the range must not move
+        heapSort.invoke(list3, (Comparator<Integer>) Integer::compareTo, 2, 10);
+        assertEquals("[ 8 1 2 4 5 6 10 11 12 14 15 7 9 ]", list3.toString());
+    }
+
     MyArrayList<Integer> createIntegerArrayList() {
         MyArrayList<Integer> list = new MyArrayList<>();
         list.addLast(8);
@@ -245,6 +337,52 @@ public class TestMyArrayList {
         assertEquals(SaxSearchable.NOT_FOUND, list3.linearSearch(-1));
     }
 
+    @Test
+    public void GivenSortedList_WhenPerformingBinarySearch_ThenOnlyALogarithmicNumberOfComparisonsIsDone() {
+        MyArrayList<Integer> numbers = new MyArrayList<>();
+        for (int i = BIG_NUMBER_OF_ELEMENTS; i > 0; i--) {
+            numbers.addLast(i);
+        }
+        int[] comparisons = {0};
+        Comparator<Integer> counting = (a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        };
+        numbers.quickSort(counting);
+
+        comparisons[0] = 0;
+        assertEquals(41, numbers.binarySearch(counting, 42));
+        assertTrue(comparisons[0] <= 14); // log2(5000) rounded up + 1
+
+        // Changing an element makes the list unknown to be sorted again, removing one keeps it sorted
+        numbers.removeAt(0);
+        comparisons[0] = 0;
+        assertEquals(40, numbers.binarySearch(counting, 42));
+        assertTrue(comparisons[0] <= 14);
+        numbers.set(0, BIG_NUMBER_OF_ELEMENTS * 2);
+        assertEquals(SaxSearchable.NOT_FOUND, numbers.binarySearch(counting, 42));
+    }
+
+    @Test
+    public void GivenSortedListWithDuplicates_WhenSearchingBoundsAndRanges_ThenTheCorrectPositionsAreReturned() {
+        MyArrayList<Integer> numbers = new MyArrayList<>();
+        for (int value : new int[]{9, 1, 5, 5, 3, 5, 7, 1}) {
+            numbers.addLast(value);
+        }
+        assertEquals(SaxSearchable.NOT_FOUND, numbers.lowerBound(Integer::compareTo, 5));
+        assertTrue(numbers.rangeSearch(Integer::compareTo, 3, 7).isEmpty());
+
+        numbers.mergeSort(Integer::compareTo); // [ 1 1 3 5 5 5 7 9 ]
+        assertEquals(3, numbers.lowerBound(Integer::compareTo, 5));
+        assertEquals(6, numbers.upperBound(Integer::compareTo, 5));
+        assertEquals(3, numbers.lowerBound(Integer::compareTo, 4));
+        assertEquals(0, numbers.lowerBound(Integer::compareTo, 0));
+        assertEquals(8, numbers.upperBound(Integer::compareTo, 9));
+        assertEquals("[ 3 5 5 5 7 ]", numbers.rangeSearch(Integer::compareTo, 2, 8).toString());
+        assertEquals("[ 9 ]", numbers.rangeSearch(Integer::compareTo, 9, 100).toString());
+        assertTrue(numbers.rangeSearch(Integer::compareTo, 10, 100).isEmpty());
+    }
+
     @Test
     public void GivenSortedLargeListOfNumbers_WhenPerformingBinarySearchForElement_ThenTheCorrectIndexOfSpecifiedElementIsReturned() {
         MyArrayList<Integer> numbers = new MyArrayList<>();
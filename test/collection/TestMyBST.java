@@ -116,6 +116,48 @@ public class TestMyBST {
 
 
     }
+    @Test
+    public void GivenTreeWithStringKeys_WhenGetByPrefix_ThenTheValuesAreReturnedInKeyOrder() {
+        setUpWordTree();
+        MyArrayList<String> result = wordTree.getByPrefix("car");
+        assertEquals("[ Car Carbon Cargo Carnation ]", result.toString());
+
+        result = wordTree.getByPrefix("B");
+        assertEquals("[ Black Blanket Blister Blossom Blueberry Bubble Buffalo Building Bulb Bus Butter ]", result.toString());
+    }
+
+    @Test
+    public void GivenTreeWithStringKeys_WhenGetByPrefixWithLimit_ThenOnlyTheFirstValuesAreReturned() {
+        setUpWordTree();
+        assertEquals("[ Angle Answer Ant ]", wordTree.getByPrefix("an", 3).toString());
+        assertEquals("[ Angle Answer Ant Antelope Antenna ]", wordTree.getByPrefix("an", 10).toString());
+        assertTrue(wordTree.getByPrefix("an", 0).isEmpty());
+    }
+
+    @Test
+    public void GivenTreeWithMixedCaseKeys_WhenGetByPrefix_ThenKeysAreMatchedIgnoringCase() {
+        setUpWordTree();
+        wordTree.add("Apex", "Apex");
+        wordTree.add("APRIL", "April");
+        assertEquals("[ April Apex Apple Applet Application Apply Apricot ]", wordTree.getByPrefix("aP").toString());
+        assertEquals("[ April Apex ]", wordTree.getByPrefix("ap", 2).toString());
+
+        // once the mixed-case keys are gone the search is pruned again, with the same results
+        wordTree.remove("Apex");
+        wordTree.remove("APRIL");
+        assertEquals("[ Apple Applet Application Apply Apricot ]", wordTree.getByPrefix("AP").toString());
+    }
+
+    @Test
+    public void GivenTreeWithIntegerKeys_WhenGetByPrefix_ThenTheMatchingValuesAreReturnedInKeyOrder() {
+        tree.add(15, "Fifteen");
+        tree.add(1, "One");
+        tree.add(120, "Hundred twenty");
+        tree.add(2, "Two");
+        tree.add(12, "Twelve");
+        assertEquals("[ One Twelve Fifteen Hundred twenty ]", tree.getByPrefix("1").toString());
+    }
+
      @Test
     public void GivenEmptyTreeWithStringKeys_WhenGetByPrefix_ThenTheEmptyListIsReturned() {
 
@@ -215,6 +257,17 @@ public class TestMyBST {
         assertEquals(6, tree.size());
     }
 
+    @Test
+    public void GivenTreeAfterRemovingNodeWithTwoChildren_WhenUsingRankAndSelect_TheSubtreeSizesAreCorrect() {
+        setUpComplexTree();
+        tree.remove(10);
+        assertEquals(12, tree.select(3));
+        assertEquals(3, tree.rank(12));
+        assertEquals(18, tree.select(5));
+        assertEquals(4, tree.countInRange(4, 15));
+        assertEquals("[ Seven Twelve Fifteen ]", tree.range(6, 15, 10).toString());
+    }
+
     @Test
     public void GivenNonEmptyStandardTree_WhenUsingGraphViz_TheElementsPlacedCorrectly() {
         setUpStandardTree();
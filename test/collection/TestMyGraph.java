@@ -138,6 +138,97 @@ public class TestMyGraph {
 
     }
 
+    @Test
+    public void GivenBidirectionalEdge_WhenRemovingOneDirection_ThenOnlyThatEdgeIsRemoved() {
+        myGraph.addEdgeBidirectional(1, 2, 1);
+        myGraph.addEdge(1, 3, 2);
+        myGraph.removeEdge(1, 2);
+        assertFalse(myGraph.containsEdge(1, 2));
+        assertTrue(myGraph.containsEdge(2, 1));
+        assertTrue(myGraph.containsEdge(1, 3));
+        assertEquals(1, myGraph.getEdges(1).size());
+        assertEquals(3, myGraph.size()); // the nodes stay
+        assertEquals(3, myGraph.getTotalWeight());
+        assertThrows(KeyNotFoundException.class, () -> myGraph.removeEdge(1, 2));
+        assertThrows(KeyNotFoundException.class, () -> myGraph.removeEdge(5, 1));
+    }
+
+    @Test
+    public void GivenGraph_WhenChangingTheWeightOfAnEdge_ThenTheShortestPathsUseTheNewWeight() {
+        setUpGraphForDijkstra();
+        assertEquals(1, graph.setEdgeWeight("d", "g", 6));
+        assertFalse(graph.containsEdge("g", "d"));
+        SaxList<SaxGraph.DirectedEdge<String>> path = graph.backTrackDijkstra(graph.shortestPathsDijkstra("a"), "a", "g");
+        assertEquals(7, path.get(path.size() - 1).weight()); // a-c-g instead of a-b-d-g
+        assertThrows(KeyNotFoundException.class, () -> graph.setEdgeWeight("g", "d", 1));
+    }
+
+    @Test
+    public void GivenShortestPaths_WhenEdgesAreClosedAndReweighted_ThenTheRepairedPathsMatchANewDijkstra() {
+        setUpGraphForDijkstra();
+        SaxGraph<String> dijkstraGraph = graph.shortestPathsDijkstra("a");
+        MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges = new MyArrayList<>();
+        graph.removeEdge("d", "g");
+        changedEdges.addLast(new SaxGraph.DirectedEdge<>("d", "g", 0));
+        graph.setEdgeWeight("a", "b", 5);
+        changedEdges.addLast(new SaxGraph.DirectedEdge<>("a", "b", 0));
+
+        assertTrue(graph.repairShortestPaths(dijkstraGraph, "a", changedEdges) > 0);
+        SaxGraph<String> expected = graph.shortestPathsDijkstra("a");
+        for (String goal : new String[] {"b", "c", "d", "e", "f", "g"}) {
+            SaxList<SaxGraph.DirectedEdge<String>> path = graph.backTrackDijkstra(dijkstraGraph, "a", goal);
+            SaxList<SaxGraph.DirectedEdge<String>> expectedPath = graph.backTrackDijkstra(expected, "a", goal);
+            assertEquals(expectedPath.get(expectedPath.size() - 1).weight(), path.get(path.size() - 1).weight());
+        }
+        assertEquals(12, graph.backTrackDijkstra(dijkstraGraph, "a", "f").get(2).weight()); // a-c-g-f
+    }
+
+    @Test
+    public void GivenShortestPaths_WhenTheOnlyEdgeToANodeIsClosedAndAnotherAdded_ThenTheNodeIsReachedOverTheNewEdge() {
+        graph.addEdge("a", "b", 1);
+        graph.addEdge("b", "c", 1);
+        graph.addEdge("a", "d", 5);
+        SaxGraph<String> dijkstraGraph = graph.shortestPathsDijkstra("a");
+
+        MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges = new MyArrayList<>();
+        graph.removeEdge("a", "b");
+        changedEdges.addLast(new SaxGraph.DirectedEdge<>("a", "b", 0));
+        assertEquals(2, graph.repairShortestPaths(dijkstraGraph, "a", changedEdges));
+        assertThrows(IllegalStateException.class, () -> graph.backTrackDijkstra(dijkstraGraph, "a", "c"));
+
+        graph.addEdge("d", "c", 1);
+        changedEdges = new MyArrayList<>();
+        changedEdges.addLast(new SaxGraph.DirectedEdge<>("d", "c", 0));
+        assertEquals(1, graph.repairShortestPaths(dijkstraGraph, "a", changedEdges));
+        SaxList<SaxGraph.DirectedEdge<String>> path = graph.backTrackDijkstra(dijkstraGraph, "a", "c");
+        assertEquals(2, path.size());
+        assertEquals(6, path.get(1).weight());
+        assertThrows(IllegalStateException.class, () -> graph.backTrackDijkstra(dijkstraGraph, "a", "b"));
+    }
+
+    @Test
+    public void GivenShortestPaths_WhenRepairingACopy_ThenOnlyAnAffectedTreeIsCopiedAndTheOriginalStaysTheSame() {
+        setUpGraphForDijkstra();
+        MyGraph<String> dijkstraGraph = graph.shortestPathsDijkstra("a");
+        MyArrayList<SaxGraph.DirectedEdge<String>> changedEdges = new MyArrayList<>();
+        graph.setEdgeWeight("c", "g", 10); // not on a shortest path
+        changedEdges.addLast(new SaxGraph.DirectedEdge<>("c", "g", 0));
+        assertSame(dijkstraGraph, graph.repairedShortestPaths(dijkstraGraph, "a", changedEdges));
+
+        graph.removeEdge("d", "g");
+        changedEdges.addLast(new SaxGraph.DirectedEdge<>("d", "g", 0));
+        MyGraph<String> repaired = graph.repairedShortestPaths(dijkstraGraph, "a", changedEdges);
+        assertNotSame(dijkstraGraph, repaired);
+        SaxList<SaxGraph.DirectedEdge<String>> oldPath = graph.backTrackDijkstra(dijkstraGraph, "a", "g");
+        assertEquals("d", oldPath.get(oldPath.size() - 1).from());
+        SaxGraph<String> expected = graph.shortestPathsDijkstra("a");
+        for (String goal : new String[] {"b", "c", "d", "e", "f", "g"}) {
+            SaxList<SaxGraph.DirectedEdge<String>> path = graph.backTrackDijkstra(repaired, "a", goal);
+            SaxList<SaxGraph.DirectedEdge<String>> expectedPath = graph.backTrackDijkstra(expected, "a", goal);
+            assertEquals(expectedPath.get(expectedPath.size() - 1).weight(), path.get(path.size() - 1).weight());
+        }
+    }
+
     @Test
     public void GivenGraph_WhenIterateThroughGraphWithDFS_ThenTheIteratorReturnsTheVertexesInDFSOrder() {
         setUpGraphForDFSTraversal();
@@ -0,0 +1,76 @@
+package collection;
+
+import custom_data_structures.MyIntMinHeap;
+import custom_data_structures.MyPriorityMinHeap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMyIntMinHeap {
+
+    private MyIntMinHeap heap;
+
+    @BeforeEach
+    public void setUp() {
+        heap = new MyIntMinHeap(2); // small, so the heap has to grow
+    }
+
+    @Test
+    public void GivenEmptyHeap_WhenCheckIfIsEmpty_ThenTheTrueValueReturned() {
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    public void GivenItemsEnqueuedMoreThanOnce_WhenDequeue_ThenTheyAreReturnedInPriorityOrder() {
+        heap.enqueue(3, 30);
+        heap.enqueue(1, 10);
+        heap.enqueue(3, 5); // a shorter distance found later, like in Dijkstra's algorithm
+        heap.enqueue(2, 20);
+        assertEquals(4, heap.size());
+        assertEquals(3, heap.peek());
+        assertEquals(5, heap.peekPriority());
+        assertEquals(3, heap.dequeue());
+        assertEquals(1, heap.dequeue());
+        assertEquals(2, heap.dequeue());
+        assertEquals(3, heap.dequeue());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void GivenHeapWithEqualPriorities_WhenDequeue_ThenTheOrderMatchesMyPriorityMinHeap() {
+        // Both heaps use the same percolation rules, so ties are resolved identically
+        MyPriorityMinHeap<Integer> objects = new MyPriorityMinHeap<>();
+        var random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            int priority = random.nextInt(0, 10);
+            objects.enqueue(i, priority);
+            heap.enqueue(i, priority);
+        }
+        while (!objects.isEmpty()) {
+            assertEquals(objects.dequeue(), heap.dequeue());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void GivenNonEmptyHeap_WhenClear_ThenTheHeapIsEmptyAndCanBeReused() {
+        for (int i = 0; i < 100; i++) {
+            heap.enqueue(i, -i);
+        }
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.enqueue(7, 1);
+        assertEquals(7, heap.peek());
+    }
+
+    @Test
+    public void GivenEmptyHeap_WhenTryingToPeekOrDequeue_ThenTheEmptyCollectionExceptionIsThrown() {
+        assertThrows(EmptyCollectionException.class, () -> heap.peek());
+        assertThrows(EmptyCollectionException.class, () -> heap.peekPriority());
+        assertThrows(EmptyCollectionException.class, () -> heap.dequeue());
+    }
+}
@@ -0,0 +1,164 @@
+package collection;
+
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyGraph;
+import custom_data_structures.MyOffHeapGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMyOffHeapGraph {
+    private static final int ROWS = 15;
+    private static final int COLUMNS = 20;
+    private static final int VERTICES = ROWS * COLUMNS;
+    private static final int ISOLATED = -1; // copied without edges, as the graph does not have it
+
+    private MyGraph<Integer> graph;
+    private MyArrayList<Integer> vertices;
+    private MyOffHeapGraph<Integer> offHeapGraph;
+
+    @BeforeEach
+    public void setUp() {
+        // a grid with one-way rows (to the right) and two-way columns, so a vertex cannot be reached from the vertices
+        // to the right of it; the last vertex of every row points to a vertex that is only found as a target, which
+        // the copy numbers after the given vertices
+        graph = new MyGraph<>();
+        vertices = new MyArrayList<>();
+        for (int vertex = 0; vertex < VERTICES; vertex++) {
+            vertices.addLast(vertex);
+            int column = vertex % COLUMNS;
+            if (column + 1 < COLUMNS) {
+                graph.addEdge(vertex, vertex + 1, 1 + vertex % 7 + vertex / 1000.0);
+            } else {
+                graph.addEdge(vertex, VERTICES + vertex / COLUMNS, 3);
+            }
+            if (vertex + COLUMNS < VERTICES) {
+                graph.addEdgeBidirectional(vertex, vertex + COLUMNS, 2 + vertex % 5 + vertex / 1000.0 + 0.0005);
+            }
+        }
+        graph.addEdge(0, 1, 0.5); // a second edge between the same vertices
+        vertices.addLast(ISOLATED);
+        offHeapGraph = MyOffHeapGraph.copyOf(graph, vertices);
+    }
+
+    private static <V> double distance(SaxList<SaxGraph.DirectedEdge<V>> path) {
+        double distance = 0;
+        for (SaxGraph.DirectedEdge<V> edge : path) {
+            distance += edge.weight();
+        }
+        return distance;
+    }
+
+    @Test
+    public void GivenCopiedGraph_WhenReadingEdges_ThenTheyAreTheSameAsInTheOriginal() {
+        assertEquals(VERTICES + 1 + ROWS, offHeapGraph.size());
+        assertEquals(graph.getTotalWeight(), offHeapGraph.getTotalWeight(), 1e-9);
+        for (int vertex = 0; vertex < VERTICES + ROWS; vertex++) {
+            SaxList<SaxGraph.DirectedEdge<Integer>> expected = graph.getEdges(vertex);
+            SaxList<SaxGraph.DirectedEdge<Integer>> edges = offHeapGraph.getEdges(vertex);
+            assertEquals(expected.size(), edges.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), edges.get(i));
+                assertTrue(offHeapGraph.containsEdge(vertex, edges.get(i).to()));
+            }
+        }
+        assertEquals(3, offHeapGraph.getEdges(0).size()); // two edges to 1 and one down
+        assertTrue(offHeapGraph.getEdges(ISOLATED).isEmpty());
+        assertFalse(offHeapGraph.containsEdge(VERTICES, 0));
+        assertFalse(offHeapGraph.containsEdge(1, 0)); // the rows are one-way
+        assertThrows(KeyNotFoundException.class, () -> offHeapGraph.getEdges(-2));
+        assertTrue(Double.isNaN(offHeapGraph.getLatitude(0)));
+    }
+
+    @Test
+    public void GivenCopiedGraph_WhenSearchingShortestPaths_ThenTheDistancesMatchMyGraph() {
+        var random = new Random(5);
+        for (int i = 0; i < 30; i++) {
+            int from = random.nextInt(VERTICES);
+            int to = random.nextInt(VERTICES + ROWS);
+            SaxGraph<Integer> expectedTree = graph.shortestPathsDijkstra(from);
+            SaxGraph<Integer> tree = offHeapGraph.shortestPathsDijkstra(from);
+            assertEquals(expectedTree.size(), tree.size());
+            assertEquals(expectedTree.getTotalWeight(), tree.getTotalWeight(), 1e-9);
+
+            SaxList<SaxGraph.DirectedEdge<Integer>> aStarPath = offHeapGraph.shortestPathAStar(from, to, (a, b) -> 0);
+            if (to < VERTICES && to % COLUMNS < from % COLUMNS) {
+                assertNull(aStarPath); // to the left of the start
+                assertThrows(IllegalStateException.class, () -> graph.backTrackDijkstra(tree, from, to));
+            } else if (from != to) {
+                SaxList<SaxGraph.DirectedEdge<Integer>> path = graph.backTrackDijkstra(tree, from, to);
+                assertEquals(path.get(path.size() - 1).weight(), distance(aStarPath), 1e-9);
+                assertEquals(from, aStarPath.get(0).from());
+                assertEquals(to, aStarPath.get(aStarPath.size() - 1).to());
+            }
+        }
+        assertEquals(0.5, distance(offHeapGraph.shortestPathAStar(0, 1, (a, b) -> 0))); // the shorter of both edges
+        assertNull(offHeapGraph.shortestPathAStar(VERTICES, 0, (a, b) -> 0));
+        assertNull(offHeapGraph.shortestPathAStar(0, ISOLATED, (a, b) -> 0));
+        assertTrue(offHeapGraph.shortestPathAStar(4, 4, (a, b) -> 0).isEmpty());
+    }
+
+    @Test
+    public void GivenCopiedGraph_WhenComputingTheSpanningTree_ThenTheWeightMatchesMyGraph() {
+        SaxGraph<Integer> tree = offHeapGraph.minimumCostSpanningTree();
+        assertEquals(graph.minimumCostSpanningTree().getTotalWeight(), tree.getTotalWeight(), 1e-9);
+        assertEquals(VERTICES + ROWS, tree.size()); // all vertices can be reached from 0; the isolated one has no edge
+    }
+
+    @Test
+    public void GivenCopiedGraph_WhenChangingEdges_ThenOnlyWeightsCanBeChanged() {
+        assertEquals(3, offHeapGraph.setEdgeWeight(COLUMNS - 1, VERTICES, 0.5));
+        assertEquals(0.5, offHeapGraph.getEdges(COLUMNS - 1).get(0).weight());
+        offHeapGraph.setEdgeWeight(0, 1, 4); // both edges between the same vertices
+        for (SaxGraph.DirectedEdge<Integer> edge : offHeapGraph.getEdges(0)) {
+            if (edge.to() == 1) {
+                assertEquals(4, edge.weight());
+            }
+        }
+        assertThrows(KeyNotFoundException.class, () -> offHeapGraph.setEdgeWeight(VERTICES, 0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> offHeapGraph.addEdge(0, 1, 1));
+        assertThrows(UnsupportedOperationException.class, () -> offHeapGraph.removeEdge(0, 1));
+    }
+
+    @Test
+    public void GivenMappedFile_WhenUsedAsGraph_ThenItIsReadOnlyAndHasCoordinates() throws IOException {
+        Path file = Files.createTempFile("graph", ".bin");
+        file.toFile().deleteOnExit();
+        // a <-> b, a long edge a -> c and a short one b -> c; c has no edges and no coordinates
+        ByteBuffer content = ByteBuffer.allocate(4 * 4 + 4 * 4 + 4 * 8 + 2 * 2 * 8);
+        content.putInt(0).putInt(2).putInt(4).putInt(4);
+        content.putInt(1).putInt(2).putInt(0).putInt(2);
+        content.putDouble(1).putDouble(5).putDouble(1).putDouble(2);
+        content.putDouble(52.1).putDouble(52.4).putDouble(5.1).putDouble(4.9);
+        Files.write(file, content.array());
+
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        MyArrayList<String> codes = new MyArrayList<>();
+        codes.addLast("a");
+        codes.addLast("b");
+        codes.addLast("c");
+        MyOffHeapGraph<String> mappedGraph = new MyOffHeapGraph<>(codes, mapped.slice(0, 16), mapped.slice(16, 16),
+                mapped.slice(32, 32), mapped.slice(64, 16), mapped.slice(80, 16));
+
+        assertEquals(4, mappedGraph.getNumberOfEdges());
+        assertEquals(3, distance(mappedGraph.shortestPathAStar("a", "c", (a, b) -> 0)));
+        assertEquals(52.4, mappedGraph.getLatitude("b"));
+        assertEquals(4.9, mappedGraph.getLongitude("b"));
+        assertTrue(Double.isNaN(mappedGraph.getLongitude("c")));
+        assertThrows(UnsupportedOperationException.class, () -> mappedGraph.setEdgeWeight("a", "b", 2));
+        assertThrows(IllegalArgumentException.class, () -> new MyOffHeapGraph<>(codes, mapped.slice(0, 12),
+                mapped.slice(16, 16), mapped.slice(32, 32), null, null));
+    }
+}
@@ -0,0 +1,118 @@
+package collection;
+
+import custom_data_structures.MyMinHeap;
+import custom_data_structures.MyPriorityMinHeap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMyPriorityMinHeap {
+
+    private MyPriorityMinHeap<String> heap;
+
+    @BeforeEach
+    public void setUp() {
+        heap = new MyPriorityMinHeap<>();
+    }
+
+    private void setUpBasicHeap() {
+        heap.enqueue("ten", 10);
+        heap.enqueue("twenty", 20);
+        heap.enqueue("thirty", 30);
+        heap.enqueue("forty", 40);
+        heap.enqueue("fifty", 50);
+        heap.enqueue("five", 5);
+    }
+
+    @Test
+    public void GivenEmptyHeap_WhenCheckIfIsEmpty_ThenTheTrueValueReturned() {
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    public void GivenNonEmptyHeap_WhenAddElements_ThenTheValueWithTheSmallestPriorityIsOnTop() {
+        setUpBasicHeap();
+        assertFalse(heap.isEmpty());
+        assertEquals(6, heap.size());
+        assertEquals("five", heap.peek());
+        assertEquals(5, heap.peekPriority());
+    }
+
+    @Test
+    public void GivenNonEmptyHeap_WhenTryingToDequeue_ThenTheValuesAreReturnedInPriorityOrder() {
+        setUpBasicHeap();
+        assertEquals("five", heap.dequeue());
+        assertEquals("ten", heap.dequeue());
+        assertEquals("twenty", heap.dequeue());
+        assertEquals("thirty", heap.dequeue());
+        assertEquals("forty", heap.dequeue());
+        assertEquals("fifty", heap.dequeue());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void GivenHeap_WhenEnqueueAndDequeueManyElements_ThenHeapStructureMaintainsCorrectly() {
+        MyPriorityMinHeap<Integer> numbers = new MyPriorityMinHeap<>();
+        var random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(0, 500);
+            numbers.enqueue(value, value);
+        }
+        assertEquals(1000, numbers.size());
+
+        int last = Integer.MIN_VALUE;
+        while (!numbers.isEmpty()) {
+            double priority = numbers.peekPriority();
+            int current = numbers.dequeue();
+            assertEquals(current, priority);
+            assertTrue(current >= last);
+            last = current;
+        }
+    }
+
+    @Test
+    public void GivenHeapWithEqualPriorities_WhenDequeue_ThenTheOrderMatchesMyMinHeap() {
+        // Both heaps use the same percolation rules, so ties are resolved identically
+        MyMinHeap<SaxGraph.DirectedEdge<Integer>> edgeHeap = new MyMinHeap<>();
+        MyPriorityMinHeap<Integer> numbers = new MyPriorityMinHeap<>();
+        var random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            int weight = random.nextInt(0, 10);
+            edgeHeap.enqueue(new SaxGraph.DirectedEdge<>(i, i, weight));
+            numbers.enqueue(i, weight);
+        }
+        while (!edgeHeap.isEmpty()) {
+            assertEquals(edgeHeap.dequeue().from(), numbers.dequeue());
+        }
+    }
+
+    @Test
+    public void GivenNonEmptyHeap_WhenClear_ThenTheHeapIsEmptyAndCanBeReused() {
+        setUpBasicHeap();
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.enqueue("one", 1);
+        assertEquals("one", heap.peek());
+    }
+
+    @Test
+    public void GivenEmptyHeap_WhenGraphViz_TheNullLabelIsShown() {
+        String expectedGraph = """
+                digraph EmptyHeap {
+                    null [shape=point];
+                }
+                """;
+        assertEquals(expectedGraph, heap.graphViz("EmptyHeap"));
+    }
+
+    @Test
+    public void GivenEmptyHeap_WhenTryingToPeekOrDequeue_ThenTheEmptyCollectionExceptionIsThrown() {
+        assertThrows(EmptyCollectionException.class, () -> heap.peek());
+        assertThrows(EmptyCollectionException.class, () -> heap.peekPriority());
+        assertThrows(EmptyCollectionException.class, () -> heap.dequeue());
+    }
+}
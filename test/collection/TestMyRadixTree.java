@@ -0,0 +1,179 @@
+package collection;
+
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyRadixTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMyRadixTree {
+
+    private MyRadixTree<String> tree;
+
+    @BeforeEach
+    public void setUp() {
+        tree = new MyRadixTree<>(3, null);
+    }
+
+    private void setUpStationTree() {
+        for (String name : new String[]{"amsterdam centraal", "amsterdam zuid", "amersfoort", "amsterdam sloterdijk",
+                "almere centrum", "arnhem", "amsterdam amstel", "alkmaar", "amersfoort schothorst"}) {
+            tree.add(name, name.toUpperCase());
+        }
+    }
+
+    @Test
+    public void GivenEmptyTree_WhenCheckIfIsEmpty_ThenTheTrueValueReturned() {
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.size());
+        assertTrue(tree.getByPrefix("a").isEmpty());
+    }
+
+    @Test
+    public void GivenTree_WhenAddingKeys_ThenTheValuesCanBeRetrieved() {
+        setUpStationTree();
+        assertEquals(9, tree.size());
+        assertEquals("AMERSFOORT", tree.get("amersfoort"));
+        assertEquals("AMERSFOORT SCHOTHORST", tree.get("amersfoort schothorst"));
+        assertTrue(tree.contains("arnhem"));
+        assertFalse(tree.contains("amsterdam")); // only a prefix of other keys
+        assertFalse(tree.contains("arnhem zuid"));
+        assertThrows(KeyNotFoundException.class, () -> tree.get("amster"));
+    }
+
+    @Test
+    public void GivenTree_WhenAddingDuplicateKey_ThenTheDuplicateKeyExceptionIsThrown() {
+        setUpStationTree();
+        assertThrows(DuplicateKeyException.class, () -> tree.add("arnhem", "ARNHEM"));
+        assertEquals(9, tree.size());
+    }
+
+    @Test
+    public void GivenTree_WhenGetByPrefix_ThenTheFirstCompletionsAreReturnedInKeyOrder() {
+        setUpStationTree();
+        assertEquals("[ AMSTERDAM AMSTEL AMSTERDAM CENTRAAL AMSTERDAM SLOTERDIJK ]", tree.getByPrefix("ams").toString());
+        assertEquals("[ ALKMAAR ALMERE CENTRUM ]", tree.getByPrefix("al").toString());
+        assertEquals("[ AMERSFOORT AMERSFOORT SCHOTHORST ]", tree.getByPrefix("amersfoort").toString());
+        assertEquals("[ AMSTERDAM ZUID ]", tree.getByPrefix("amsterdam z").toString());
+        assertTrue(tree.getByPrefix("b").isEmpty());
+        assertTrue(tree.getByPrefix("amsterdam x").isEmpty());
+    }
+
+    @Test
+    public void GivenTree_WhenGetByPrefixWithLimitBiggerThanTheCache_ThenAllCompletionsAreReturned() {
+        setUpStationTree();
+        MyArrayList<String> result = tree.getByPrefix("a", 100);
+        assertEquals(9, result.size());
+        assertEquals("ALKMAAR", result.get(0));
+        assertEquals("ARNHEM", result.get(8));
+        assertEquals("[ ALKMAAR ]", tree.getByPrefix("a", 1).toString());
+    }
+
+    @Test
+    public void GivenTreeWithCachedCompletions_WhenAddingAKey_ThenTheCompletionsAreUpdated() {
+        setUpStationTree();
+        assertEquals("[ AMSTERDAM AMSTEL AMSTERDAM CENTRAAL AMSTERDAM SLOTERDIJK ]", tree.getByPrefix("amsterdam").toString());
+        tree.add("amsterdam bijlmer arena", "AMSTERDAM BIJLMER ARENA");
+        assertEquals("[ AMSTERDAM AMSTEL AMSTERDAM BIJLMER ARENA AMSTERDAM CENTRAAL ]", tree.getByPrefix("amsterdam").toString());
+    }
+
+    @Test
+    public void GivenTreeWithRanking_WhenGetByPrefix_ThenTheBestRankedCompletionsAreReturned() {
+        MyRadixTree<String> ranked = new MyRadixTree<>(2, Comparator.comparingInt(String::length));
+        for (String name : new String[]{"amsterdam centraal", "amsterdam zuid", "amersfoort", "arnhem"}) {
+            ranked.add(name, name);
+        }
+        assertEquals("[ arnhem amersfoort ]", ranked.getByPrefix("a").toString());
+        assertEquals("[ amersfoort amsterdam zuid ]", ranked.getByPrefix("am").toString());
+        assertEquals("[ arnhem amersfoort amsterdam zuid amsterdam centraal ]", ranked.getByPrefix("a", 10).toString());
+    }
+
+    @Test
+    public void GivenTree_WhenGetBySimilarKeyWithTypos_ThenTheSimilarKeysAreReturned() {
+        setUpStationTree();
+        assertEquals("[ ARNHEM ]", tree.getBySimilarKey("arnhem", 0, 10).toString());
+        assertEquals("[ ARNHEM ]", tree.getBySimilarKey("arnhme", 1, 10).toString()); // swapped characters
+        assertEquals("[ ALKMAAR ]", tree.getBySimilarKey("alkmar", 1, 10).toString()); // missing character
+        assertEquals("[ AMERSFOORT ]", tree.getBySimilarKey("amersfoord", 1, 10).toString()); // wrong character
+        assertEquals("[ AMSTERDAM ZUID ]", tree.getBySimilarKey("amstredam zuidd", 2, 10).toString());
+        assertTrue(tree.getBySimilarKey("rotterdam", 2, 10).isEmpty());
+        assertTrue(tree.getBySimilarKey("arnhem", -1, 10).isEmpty());
+    }
+
+    @Test
+    public void GivenTree_WhenGetBySimilarKey_ThenTheMostSimilarKeysComeFirstAndTheLimitIsRespected() {
+        for (String name : new String[]{"assen", "essen", "aasen", "asse", "asnes", "hasselt"}) {
+            tree.add(name, name);
+        }
+        // distance 0, then distance 1 in key order, then distance 2
+        assertEquals("[ assen aasen asse essen asnes ]", tree.getBySimilarKey("assen", 2, 10).toString());
+        assertEquals("[ assen aasen ]", tree.getBySimilarKey("assen", 2, 2).toString());
+        assertTrue(tree.getBySimilarKey("assen", 2, 0).isEmpty());
+    }
+
+    @Test
+    public void GivenRandomKeys_WhenGetBySimilarKey_ThenTheResultsMatchAFullScan() {
+        var random = new Random(42);
+        MyArrayList<String> keys = new MyArrayList<>();
+        while (keys.size() < 2000) {
+            String key = randomWord(random);
+            if (!tree.contains(key)) {
+                tree.add(key, key);
+                keys.addLast(key);
+            }
+        }
+        for (int i = 0; i < 300; i++) {
+            String query = randomWord(random);
+            int maxDistance = random.nextInt(0, 4);
+            int limit = random.nextInt(1, 50);
+            MyArrayList<String> expected = new MyArrayList<>();
+            for (int distance = 0; distance <= maxDistance; distance++) {
+                MyArrayList<String> atDistance = new MyArrayList<>();
+                for (String key : keys) {
+                    if (distance(query, key) == distance) {
+                        atDistance.addLast(key);
+                    }
+                }
+                atDistance.mergeSort(Comparator.naturalOrder());
+                for (String key : atDistance) {
+                    if (expected.size() < limit) {
+                        expected.addLast(key);
+                    }
+                }
+            }
+            assertEquals(expected.toString(), tree.getBySimilarKey(query, maxDistance, limit).toString());
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = random.nextInt(1, 9);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(0, 4)));
+        }
+        return word.toString();
+    }
+
+    // Straightforward optimal string alignment distance with a full table
+    private static int distance(String a, String b) {
+        int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    table[i][j] = i + j;
+                    continue;
+                }
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                table[i][j] = Math.min(Math.min(table[i - 1][j] + 1, table[i][j - 1] + 1), table[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    table[i][j] = Math.min(table[i][j], table[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return table[a.length()][b.length()];
+    }
+}
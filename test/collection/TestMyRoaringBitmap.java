@@ -0,0 +1,113 @@
+package collection;
+
+import custom_data_structures.MyRoaringBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMyRoaringBitmap {
+
+    /**
+     * Fills a bitmap and a BitSet with the same values: a sparse chunk, a dense chunk (a bitmap container) and
+     * a chunk just around the array limit, each in one of the first four chunks.
+     */
+    private static MyRoaringBitmap randomBitmap(Random random, BitSet expected) {
+        MyRoaringBitmap bitmap = new MyRoaringBitmap();
+        int[] chunkSizes = {100, 20_000, 4000 + random.nextInt(200)};
+        for (int chunk = 0; chunk < chunkSizes.length; chunk++) {
+            int base = random.nextInt(4) << 16; // chunks of two bitmaps often meet with different kinds of containers
+            for (int i = 0; i < chunkSizes[chunk]; i++) {
+                int value = base + random.nextInt(1 << 16);
+                bitmap.add(value);
+                expected.set(value);
+            }
+        }
+        return bitmap;
+    }
+
+    private static void assertSameValues(BitSet expected, MyRoaringBitmap bitmap) {
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        int[] values = bitmap.toArray();
+        int i = 0;
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+            assertEquals(value, values[i++]);
+        }
+        i = 0;
+        for (int value : bitmap) {
+            assertEquals(values[i++], value);
+        }
+        assertEquals(values.length, i);
+    }
+
+    @Test
+    public void GivenValues_WhenAddingAndRemoving_ThenTheBitmapContainsExactlyThoseValues() {
+        var random = new Random(7);
+        BitSet expected = new BitSet();
+        MyRoaringBitmap bitmap = randomBitmap(random, expected);
+        assertSameValues(expected, bitmap);
+        for (int value = 0; value < 4 << 16; value += 1 + random.nextInt(50)) {
+            assertEquals(expected.get(value), bitmap.contains(value));
+        }
+        assertFalse(bitmap.add(expected.nextSetBit(0)));
+
+        // removing most values turns a bitmap container back into an array, and removing all drops the container
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+            if (random.nextInt(10) > 0) {
+                assertTrue(bitmap.remove(value));
+                expected.clear(value);
+            }
+        }
+        assertFalse(bitmap.remove(-1));
+        assertFalse(bitmap.contains(-1));
+        assertSameValues(expected, bitmap);
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+            bitmap.remove(value);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.iterator().hasNext());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-5));
+    }
+
+    @Test
+    public void GivenTwoBitmaps_WhenCombiningThem_ThenTheResultsMatchBitSet() {
+        var random = new Random(19);
+        for (int round = 0; round < 5; round++) {
+            BitSet first = new BitSet();
+            BitSet second = new BitSet();
+            MyRoaringBitmap firstBitmap = randomBitmap(random, first);
+            MyRoaringBitmap secondBitmap = randomBitmap(random, second);
+
+            BitSet and = (BitSet) first.clone();
+            and.and(second);
+            assertSameValues(and, firstBitmap.and(secondBitmap));
+            BitSet or = (BitSet) first.clone();
+            or.or(second);
+            assertSameValues(or, firstBitmap.or(secondBitmap));
+            BitSet andNot = (BitSet) first.clone();
+            andNot.andNot(second);
+            assertSameValues(andNot, firstBitmap.andNot(secondBitmap));
+            assertSameValues(first, firstBitmap); // the operands are not changed
+        }
+    }
+
+    @Test
+    public void GivenSmallBitmaps_WhenCombiningThem_ThenEmptyContainersAreLeftOut() {
+        MyRoaringBitmap evens = MyRoaringBitmap.of(0, 2, 4, 70_000);
+        MyRoaringBitmap odds = MyRoaringBitmap.of(5, 3, 1, 1);
+        assertEquals(3, odds.size());
+        assertTrue(evens.and(odds).isEmpty());
+        assertEquals(7, evens.or(odds).cardinality());
+        assertArrayEquals(new int[]{0, 2, 4}, evens.andNot(MyRoaringBitmap.of(70_000)).toArray());
+        assertTrue(evens.andNot(evens).isEmpty());
+        assertTrue(evens.graphViz().contains("array"));
+
+        Iterator<Integer> iterator = MyRoaringBitmap.of(3).iterator();
+        assertEquals(3, iterator.next());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+}
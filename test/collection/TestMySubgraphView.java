@@ -0,0 +1,142 @@
+package collection;
+
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyGraph;
+import custom_data_structures.MyRoaringBitmap;
+import custom_data_structures.MySubgraphView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMySubgraphView {
+    private static final int INSIDE = 60;
+    private static final int OUTSIDE = 100; // the first vertex outside the subset
+    private static final int MISSING = 200; // in the subset, but not in the graph
+
+    private MyGraph<Integer> graph;
+    private MyRoaringBitmap subset;
+    private MyGraph<Integer> copy;
+    private MySubgraphView<Integer> view;
+
+    @BeforeEach
+    public void setUp() {
+        // a line of vertices inside the subset, with some longer chords, and a much shorter route outside the
+        // subset that is connected to every tenth vertex of the line, so shortest paths in the graph leave the subset
+        graph = new MyGraph<>();
+        subset = new MyRoaringBitmap();
+        for (int vertex = 0; vertex < INSIDE; vertex++) {
+            subset.add(vertex);
+            if (vertex + 1 < INSIDE) {
+                graph.addEdgeBidirectional(vertex, vertex + 1, 10 + vertex % 3);
+            }
+            if (vertex % 5 == 0 && vertex + 7 < INSIDE) {
+                graph.addEdgeBidirectional(vertex, vertex + 7, 65);
+            }
+            if (vertex % 10 == 0) {
+                graph.addEdgeBidirectional(vertex, OUTSIDE + vertex / 10, 1);
+            }
+        }
+        for (int vertex = OUTSIDE; vertex < OUTSIDE + INSIDE / 10 - 1; vertex++) {
+            graph.addEdgeBidirectional(vertex, vertex + 1, 1);
+        }
+        graph.addEdge(7, OUTSIDE, 2); // one-way out of the subset
+        graph.addEdge(OUTSIDE + 1, 13, 2); // one-way into the subset
+        subset.add(MISSING);
+        view = new MySubgraphView<>(graph, subset, subset::contains);
+
+        copy = new MyGraph<>();
+        for (int vertex = 0; vertex < INSIDE; vertex++) {
+            for (SaxGraph.DirectedEdge<Integer> edge : graph.getEdges(vertex)) {
+                if (subset.contains(edge.to())) {
+                    copy.addEdge(edge.from(), edge.to(), edge.weight());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void GivenView_WhenReadingEdges_ThenOnlyEdgesWithinTheSubsetAreSeen() {
+        assertEquals(subset.cardinality() - 1, view.size());
+        assertEquals(copy.getTotalWeight(), view.getTotalWeight(), 1e-9);
+        for (int vertex : view) {
+            assertTrue(subset.contains(vertex));
+            SaxList<SaxGraph.DirectedEdge<Integer>> edges = view.getEdges(vertex);
+            for (SaxGraph.DirectedEdge<Integer> edge : edges) {
+                assertTrue(subset.contains(edge.to()));
+                assertTrue(view.containsEdge(vertex, edge.to()));
+            }
+            int expected = 0;
+            try {
+                expected = copy.getEdges(vertex).size();
+            } catch (KeyNotFoundException e) {
+                // a vertex without edges within the subset
+            }
+            assertEquals(expected, edges.size());
+        }
+        assertThrows(KeyNotFoundException.class, () -> view.getEdges(OUTSIDE));
+        assertThrows(KeyNotFoundException.class, () -> view.getEdges(MISSING));
+        assertTrue(graph.containsEdge(7, OUTSIDE));
+        assertFalse(view.containsEdge(7, OUTSIDE));
+        assertFalse(view.containsEdge(OUTSIDE + 1, 13));
+    }
+
+    @Test
+    public void GivenView_WhenSearchingShortestPaths_ThenTheyStayWithinTheSubset() {
+        var random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            int from = random.nextInt(INSIDE);
+            int to = random.nextInt(INSIDE);
+            SaxGraph<Integer> copyTree = copy.shortestPathsDijkstra(from);
+            SaxGraph<Integer> viewTree = view.shortestPathsDijkstra(from);
+            assertEquals(copyTree.size(), viewTree.size());
+            assertEquals(copyTree.getTotalWeight(), viewTree.getTotalWeight(), 1e-9);
+
+            SaxList<SaxGraph.DirectedEdge<Integer>> path = view.shortestPathAStar(from, to, (a, b) -> 0);
+            double distance = 0;
+            for (SaxGraph.DirectedEdge<Integer> edge : path) {
+                assertTrue(subset.contains(edge.to()));
+                distance += edge.weight();
+            }
+            if (from != to) {
+                SaxList<SaxGraph.DirectedEdge<Integer>> expected = copy.backTrackDijkstra(copyTree, from, to);
+                assertEquals(expected.get(expected.size() - 1).weight(), distance, 1e-9);
+            }
+        }
+        // through the graph the route outside the subset is much shorter
+        SaxList<SaxGraph.DirectedEdge<Integer>> graphPath = graph.backTrackDijkstra(graph.shortestPathsDijkstra(0), 0, 50);
+        SaxList<SaxGraph.DirectedEdge<Integer>> viewPath = MyGraph.backTrack(view.shortestPathsDijkstra(0), 0, 50);
+        assertEquals(7, graphPath.get(graphPath.size() - 1).weight());
+        assertTrue(viewPath.get(viewPath.size() - 1).weight() > 400);
+        assertThrows(KeyNotFoundException.class, () -> view.shortestPathsDijkstra(OUTSIDE));
+    }
+
+    @Test
+    public void GivenUndirectedSubset_WhenComputingTheSpanningTree_ThenTheWeightMatchesACopy() {
+        // the edges within the subset go both ways, so every spanning tree found by Prim has the minimum weight
+        SaxGraph<Integer> tree = view.minimumCostSpanningTree();
+        assertEquals(copy.minimumCostSpanningTree().getTotalWeight(), tree.getTotalWeight(), 1e-9);
+        assertEquals(INSIDE, tree.size());
+        assertTrue(graph.minimumCostSpanningTree().getTotalWeight() < tree.getTotalWeight()); // the cheap route outside
+    }
+
+    @Test
+    public void GivenView_WhenTheGraphChanges_ThenTheViewFollowsButCannotBeChangedItself() {
+        graph.addEdge(0, 3, 0.5);
+        graph.addEdge(0, OUTSIDE + 3, 0.5);
+        assertTrue(view.containsEdge(0, 3));
+        assertFalse(view.containsEdge(0, OUTSIDE + 3));
+        SaxList<SaxGraph.DirectedEdge<Integer>> edges = view.getEdges(0);
+        assertEquals(new SaxGraph.DirectedEdge<>(0, 3, 0.5), edges.get(edges.size() - 1));
+
+        assertThrows(UnsupportedOperationException.class, () -> view.addEdge(0, 6, 1));
+        assertThrows(UnsupportedOperationException.class, () -> view.removeEdge(0, 3));
+        assertThrows(UnsupportedOperationException.class, () -> view.setEdgeWeight(0, 3, 1));
+
+        MySubgraphView<Integer> empty = new MySubgraphView<>(graph, new MyArrayList<>(), vertex -> false);
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.minimumCostSpanningTree().size());
+    }
+}
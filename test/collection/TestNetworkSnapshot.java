@@ -0,0 +1,255 @@
+package collection;
+
+import app.NetworkSnapshot;
+import app.model.Station;
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyGraph;
+import custom_data_structures.MyRoaringBitmap;
+import custom_data_structures.MySubgraphView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNetworkSnapshot {
+    private static final int GRID_SIZE = 40;
+
+    private MyGraph<String> graph;
+    private MyArrayList<Station> stations;
+    private NetworkSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        // a grid of stations about 1 km apart, with tracks a bit longer than the straight-line distance
+        graph = new MyGraph<>();
+        stations = new MyArrayList<>();
+        var random = new Random(42);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int column = 0; column < GRID_SIZE; column++) {
+                stations.addLast(new Station(code(row, column), "Station " + row + "-" + column, "NL", "stoptreinstation",
+                        52 + row * 0.009, 5 + column * 0.015));
+                if (row > 0) {
+                    graph.addEdgeBidirectional(code(row - 1, column), code(row, column), 1 + random.nextInt(0, 20) / 10.0);
+                }
+                if (column > 0) {
+                    graph.addEdgeBidirectional(code(row, column - 1), code(row, column), 1.1 + random.nextInt(0, 20) / 10.0);
+                }
+            }
+        }
+        stations.addLast(new Station("XXX", "Island", "NL", "stoptreinstation", 53, 6)); // without tracks
+        snapshot = new NetworkSnapshot(graph, stations);
+    }
+
+    private static String code(int row, int column) {
+        return row + "-" + column;
+    }
+
+    private double dijkstraDistance(String from, String to) {
+        SaxList<SaxGraph.DirectedEdge<String>> path = graph.backTrackDijkstra(graph.shortestPathsDijkstra(from), from, to);
+        return path.get(path.size() - 1).weight();
+    }
+
+    @Test
+    public void GivenGraph_WhenTakingASnapshot_ThenAllStationsAndEdgesAreCopied() {
+        assertEquals(GRID_SIZE * GRID_SIZE + 1, snapshot.size());
+        assertEquals(4 * GRID_SIZE * (GRID_SIZE - 1), snapshot.getNumberOfEdges());
+        assertTrue(snapshot.contains("XXX"));
+        assertFalse(snapshot.contains("YYY"));
+    }
+
+    @Test
+    public void GivenSnapshot_WhenSearchingShortestPaths_ThenTheDistancesMatchMyGraph() {
+        var random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            String from = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+            String to = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+            if (from.equals(to)) {
+                continue;
+            }
+            double expected = dijkstraDistance(from, to);
+            MyArrayList<SaxGraph.DirectedEdge<String>> path = snapshot.shortestPath(from, to);
+            MyArrayList<SaxGraph.DirectedEdge<String>> aStarPath = snapshot.shortestPathAStar(from, to);
+            assertEquals(expected, path.get(path.size() - 1).weight(), 1e-9);
+            assertEquals(expected, aStarPath.get(aStarPath.size() - 1).weight(), 1e-9);
+            assertEquals(from, path.get(0).from());
+            assertEquals(to, path.get(path.size() - 1).to());
+            for (int j = 1; j < path.size(); j++) {
+                assertEquals(path.get(j - 1).to(), path.get(j).from());
+            }
+        }
+    }
+
+    @Test
+    public void GivenSnapshot_WhenNoPathExists_ThenNullIsReturned() {
+        assertNull(snapshot.shortestPath("0-0", "XXX"));
+        assertNull(snapshot.shortestPathAStar("XXX", "0-0"));
+        assertTrue(snapshot.shortestPath("0-0", "0-0").isEmpty());
+        assertThrows(KeyNotFoundException.class, () -> snapshot.shortestPath("0-0", "YYY"));
+    }
+
+    @Test
+    public void GivenSnapshot_WhenCalculatingAShortestPathTree_ThenItCanBeFollowedBackLikeTheTreeOfMyGraph() {
+        MyGraph<String> tree = snapshot.shortestPathTree("0-0");
+        MyGraph<String> expected = graph.shortestPathsDijkstra("0-0");
+        assertEquals(expected.size(), tree.size());
+        for (String code : new String[]{"0-1", "17-3", code(GRID_SIZE - 1, GRID_SIZE - 1)}) {
+            SaxList<SaxGraph.DirectedEdge<String>> path = MyGraph.backTrack(tree, "0-0", code);
+            SaxList<SaxGraph.DirectedEdge<String>> expectedPath = MyGraph.backTrack(expected, "0-0", code);
+            assertEquals(expectedPath.get(expectedPath.size() - 1).weight(), path.get(path.size() - 1).weight(), 1e-9);
+            assertEquals(code, path.get(path.size() - 1).to());
+        }
+        assertThrows(IllegalStateException.class, () -> MyGraph.backTrack(tree, "0-0", "XXX"));
+        assertThrows(KeyNotFoundException.class, () -> snapshot.shortestPathTree("XXX")); // no tracks
+        assertThrows(KeyNotFoundException.class, () -> snapshot.shortestPathTree("YYY"));
+    }
+
+    @Test
+    public void GivenSnapshot_WhenComputingTheSpanningTree_ThenTheWeightMatchesMyGraph() {
+        double weight = 0;
+        MyArrayList<SaxGraph.DirectedEdge<String>> tree = snapshot.minimumCostSpanningTree();
+        for (SaxGraph.DirectedEdge<String> edge : tree) {
+            weight += edge.weight();
+        }
+        assertEquals(GRID_SIZE * GRID_SIZE - 1, tree.size()); // the island is a tree of its own, without edges
+        assertEquals(graph.minimumCostSpanningTree().getTotalWeight(), weight, 1e-6);
+    }
+
+    @Test
+    public void GivenChangedEdges_WhenPatchingTheSnapshot_ThenItMatchesANewSnapshotAndTheOldOneStaysTheSame() {
+        MyArrayList<SaxGraph.DirectedEdge<String>> before = snapshot.shortestPath("0-0", code(GRID_SIZE - 1, GRID_SIZE - 1));
+        NetworkSnapshot patched = snapshot;
+        var random = new Random(5);
+        for (int i = 0; i < 30; i++) {
+            String from = code(random.nextInt(0, GRID_SIZE), random.nextInt(1, GRID_SIZE));
+            String to = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+            switch (i % 3) {
+                case 0 -> graph.setEdgeWeight(from, from.substring(0, from.indexOf('-') + 1)
+                        + (Integer.parseInt(from.substring(from.indexOf('-') + 1)) - 1), 0.5 + i);
+                case 1 -> {
+                    if (!graph.containsEdge(from, to) && !from.equals(to)) {
+                        graph.addEdge(from, to, 50);
+                    }
+                }
+                default -> graph.removeEdge(graph.getEdges(from).get(0).from(), graph.getEdges(from).get(0).to());
+            }
+            MyArrayList<String> changed = new MyArrayList<>();
+            changed.addLast(from);
+            patched = patched.withChangedEdges(graph, stations, changed);
+        }
+
+        NetworkSnapshot fresh = new NetworkSnapshot(graph, stations);
+        assertEquals(fresh.getNumberOfEdges(), patched.getNumberOfEdges());
+        for (int i = 0; i < 20; i++) {
+            String from = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+            String to = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+            MyArrayList<SaxGraph.DirectedEdge<String>> expected = fresh.shortestPath(from, to);
+            MyArrayList<SaxGraph.DirectedEdge<String>> path = patched.shortestPath(from, to);
+            MyArrayList<SaxGraph.DirectedEdge<String>> aStarPath = patched.shortestPathAStar(from, to);
+            if (expected == null) {
+                assertNull(path);
+            } else if (!expected.isEmpty()) {
+                assertEquals(expected.get(expected.size() - 1).weight(), path.get(path.size() - 1).weight(), 1e-9);
+                assertEquals(expected.get(expected.size() - 1).weight(), aStarPath.get(aStarPath.size() - 1).weight(), 1e-9);
+            }
+        }
+        assertEquals(fresh.minimumCostSpanningTree().size(), patched.minimumCostSpanningTree().size());
+        MyArrayList<SaxGraph.DirectedEdge<String>> after = snapshot.shortestPath("0-0", code(GRID_SIZE - 1, GRID_SIZE - 1));
+        assertEquals(before.get(before.size() - 1).weight(), after.get(after.size() - 1).weight(), 1e-9);
+    }
+
+    @Test
+    public void GivenSnapshot_WhenViewedAsAGraphOfSomeStations_ThenItMatchesASubgraphViewAndNeverChanges() {
+        MyRoaringBitmap rows = new MyRoaringBitmap();
+        MyRoaringBitmap vertices = new MyRoaringBitmap();
+        for (int row = 0; row < GRID_SIZE / 2; row++) {
+            for (int column = 0; column < GRID_SIZE; column++) {
+                rows.add(row * GRID_SIZE + column);
+                vertices.add(snapshot.indexOf(code(row, column)));
+            }
+        }
+        assertEquals(-1, snapshot.indexOf("YYY"));
+        SaxGraph<String> half = snapshot.asGraph(vertices);
+        SaxGraph<String> expected = new MySubgraphView<>(graph, () -> new Iterator<>() {
+            private final Iterator<Integer> iterator = rows.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                int row = iterator.next();
+                return code(row / GRID_SIZE, row % GRID_SIZE);
+            }
+        }, code -> rows.contains(snapshot.indexOf(code)));
+
+        assertEquals(expected.size(), half.size());
+        assertEquals(expected.getTotalWeight(), half.getTotalWeight(), 1e-9);
+        assertEquals(expected.minimumCostSpanningTree().getTotalWeight(), half.minimumCostSpanningTree().getTotalWeight(), 1e-9);
+        assertEquals(expected.shortestPathsDijkstra("0-0").getTotalWeight(), half.shortestPathsDijkstra("0-0").getTotalWeight(), 1e-9);
+        assertTrue(half.containsEdge("0-0", "0-1"));
+        assertFalse(half.containsEdge(code(GRID_SIZE / 2 - 1, 0), code(GRID_SIZE / 2, 0)));
+        assertThrows(KeyNotFoundException.class, () -> half.getEdges(code(GRID_SIZE - 1, 0)));
+        assertThrows(UnsupportedOperationException.class, () -> half.addEdge("0-0", "0-2", 1));
+        assertEquals(GRID_SIZE * GRID_SIZE + 1, snapshot.asGraph().size());
+        assertEquals(GRID_SIZE * GRID_SIZE, snapshot.asGraph().minimumCostSpanningTree().size()); // not the island
+
+        double weight = half.getTotalWeight();
+        double oldDistance = graph.setEdgeWeight("0-0", "0-1", 100);
+        MyArrayList<String> changed = new MyArrayList<>();
+        changed.addLast("0-0");
+        NetworkSnapshot patched = snapshot.withChangedEdges(graph, stations, changed);
+        assertEquals(weight, half.getTotalWeight(), 1e-9);
+        assertEquals(weight - oldDistance + 100, patched.asGraph(vertices).getTotalWeight(), 1e-9);
+    }
+
+    @Test
+    public void GivenSnapshot_WhenQueriedFromManyThreads_ThenAllAnswersAreCorrect() throws Exception {
+        int queries = 200;
+        String[] from = new String[queries];
+        String[] to = new String[queries];
+        var random = new Random(11);
+        for (int i = 0; i < queries; i++) {
+            from[i] = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+            to[i] = code(random.nextInt(0, GRID_SIZE), random.nextInt(0, GRID_SIZE));
+        }
+        double[] expected = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            MyArrayList<SaxGraph.DirectedEdge<String>> path = snapshot.shortestPath(from[i], to[i]);
+            expected[i] = path.isEmpty() ? 0 : path.get(path.size() - 1).weight();
+        }
+
+        // more threads than cores, so the queries really interleave
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            MyArrayList<Future<Integer>> results = new MyArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                results.addLast(executor.submit(() -> {
+                    int errors = 0;
+                    for (int i = 0; i < queries; i++) {
+                        MyArrayList<SaxGraph.DirectedEdge<String>> path = i % 2 == 0
+                                ? snapshot.shortestPath(from[i], to[i]) : snapshot.shortestPathAStar(from[i], to[i]);
+                        double distance = path.isEmpty() ? 0 : path.get(path.size() - 1).weight();
+                        if (Math.abs(distance - expected[i]) > 1e-9) {
+                            errors++;
+                        }
+                    }
+                    return errors;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package collection;
+
+import app.StationIndex;
+import app.model.Station;
+import app.model.StationTable;
+import custom_data_structures.MyArrayList;
+import custom_data_structures.MyRoaringBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStationTable {
+    private static final String[] COUNTRIES = {"NL", "D", "B", "F"};
+    private static final String[] TYPES = {"stoptreinstation", "intercitystation", "megastation"};
+
+    private StationTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new StationTable();
+        var random = new Random(11);
+        for (int i = 0; i < 1000; i++) {
+            // unique names of different lengths that share prefixes, with a character outside Latin-1 now and then
+            String name = "Station " + (char) ('A' + random.nextInt(5)) + (i % 7 == 0 ? "\u0142" : "") + random.nextInt(100) + " " + i;
+            table.add("S" + i, name, COUNTRIES[i % COUNTRIES.length], TYPES[i % TYPES.length],
+                    50 + random.nextDouble() * 4, -2 + random.nextDouble() * 10);
+        }
+    }
+
+    @Test
+    public void GivenStations_WhenAddedToTheTable_ThenTheViewsReturnTheSameValues() {
+        int row = table.add("UT", "Utrecht Centraal", "NL", "megastation", 52.088890075684, 5.1102776527405);
+        Station station = table.get(row);
+        assertEquals(1001, table.size());
+        assertEquals("UT", station.getCode());
+        assertEquals("Utrecht Centraal", station.getName());
+        assertEquals("NL", station.getCountry());
+        assertEquals("megastation", station.getType());
+        assertEquals(52.088890075684, station.getLatitude(), 1e-7);
+        assertEquals(5.1102776527405, station.getLongitude(), 1e-7);
+        assertEquals(station, table.get(row));
+        assertNotEquals(station, table.get(row - 1));
+
+        Station standalone = new Station("UT", "Utrecht Centraal", "NL", "megastation", 52.088890075684, 5.1102776527405);
+        assertEquals("Utrecht Centraal", standalone.getName());
+        assertEquals(52.088890075684, standalone.getLatitude()); // not rounded like in a table
+        assertNull(standalone.getTable());
+        assertEquals(-1, standalone.getRow());
+        assertNotEquals(station, standalone);
+        assertNotEquals(standalone, station);
+        assertEquals(standalone, standalone);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(1001));
+        assertThrows(IllegalArgumentException.class, () -> table.add("X", "X", "NL", "megastation", 91, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.add("X", "X", "NL", "megastation", 0, Double.NaN));
+        assertEquals(1001, table.size());
+    }
+
+    @Test
+    public void GivenTable_WhenSortingByName_ThenTheOrderIsTheSameAsComparingTheNames() {
+        MyArrayList<Station> expected = new MyArrayList<>();
+        MyArrayList<Station> stations = new MyArrayList<>();
+        for (Station station : table) {
+            expected.addLast(station);
+            stations.addLast(station);
+        }
+        expected.mergeSort(Comparator.comparing(Station::getName));
+        stations.mergeSort(Station.BY_NAME);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), stations.get(i));
+        }
+    }
+
+    @Test
+    public void GivenIndex_WhenSelectingByCountryOrType_ThenTheStationsMatchIgnoringCaseSortedByName() {
+        StationIndex index = new StationIndex(table);
+        MyArrayList<Station> german = index.getByCountry("d");
+        assertEquals(250, german.size());
+        for (int i = 0; i < german.size(); i++) {
+            assertEquals("D", german.get(i).getCountry());
+            assertEquals(1, german.get(i).getRow() % 4);
+            if (i > 0) {
+                assertTrue(german.get(i - 1).getName().compareTo(german.get(i).getName()) < 0);
+            }
+        }
+        MyArrayList<Station> megastations = index.getByType("MegaStation");
+        assertEquals(333, megastations.size());
+        for (Station station : megastations) {
+            assertEquals("megastation", station.getType());
+        }
+        assertTrue(index.getByCountry("CH").isEmpty());
+        assertTrue(index.getByType("unknown").isEmpty());
+
+        MyRoaringBitmap germanMegastations = index.getRowsByCountry("D").and(index.getRowsByType("megastation"));
+        assertEquals(index.getByTypeAndCountry("megastation", "D").size(), germanMegastations.cardinality());
+        for (int row : germanMegastations) {
+            assertEquals(row, index.getRow(index.getByRow(row).getCode()));
+            assertEquals(1, row % 4);
+            assertEquals(2, row % 3);
+        }
+        assertEquals(-1, index.getRow("unknown"));
+    }
+
+    @Test
+    public void GivenIndex_WhenSelectingByTypeAndCountry_ThenTheResultIsTheIntersectionSortedByName() {
+        StationIndex index = new StationIndex(table);
+        for (String type : TYPES) {
+            for (String country : COUNTRIES) {
+                MyArrayList<Station> expected = new MyArrayList<>();
+                for (Station station : index.getByType(type)) {
+                    if (station.getCountry().equals(country)) {
+                        expected.addLast(station);
+                    }
+                }
+                MyArrayList<Station> stations = index.getByTypeAndCountry(type.toUpperCase(), country.toLowerCase());
+                assertEquals(expected.size(), stations.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i), stations.get(i));
+                }
+            }
+        }
+        assertEquals(83, index.getByTypeAndCountry("megastation", "NL").size());
+        assertTrue(index.getByTypeAndCountry("megastation", "CH").isEmpty());
+    }
+
+    @Test
+    public void GivenManyDifferentTypes_WhenAddingThem_ThenOnly256AreAllowed() {
+        StationTable types = new StationTable();
+        for (int i = 0; i < 256; i++) {
+            types.add("S" + i, "Station", "NL", "type" + i, 52, 5);
+        }
+        assertEquals("type255", types.getType(255));
+        assertThrows(IllegalArgumentException.class, () -> types.add("X", "Station", "NL", "type256", 52, 5));
+    }
+}